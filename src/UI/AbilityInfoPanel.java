@@ -5,9 +5,9 @@ import UI.LevelsMenu.TopPanel;
 import UI.miscellaneous.*;
 import data.DataManager;
 import data.PlayerData;
+import misc.AssetManager;
 import models.App;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.*;
 
@@ -60,13 +60,13 @@ public class AbilityInfoPanel {
         centerPanel.add(saveButton());
         
         try {
-            JLabel passiveLabel = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/passive.png"))));  
+            JLabel passiveLabel = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/passive.png")));  
             passiveLabel.setPreferredSize(new Dimension(707,42));
             centerPanel.add(passiveLabel);
             for (AbilityBar ability : passive) {
                 centerPanel.add(ability);
             }
-            JLabel activeLabel = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/active.png"))));
+            JLabel activeLabel = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/active.png")));
             activeLabel.setPreferredSize(new Dimension(707,70));
             centerPanel.add(activeLabel);
             for (AbilityBar ability : active) {
@@ -193,8 +193,8 @@ public class AbilityInfoPanel {
         panel.setBackground(new Color(23,63,31));
         panel.setPreferredSize(new Dimension(750,125));
         try {
-            ImageIcon save = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/saveAbilities.png")));
-            ImageIcon saveLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/saveAbilitiesLight.png")));
+            ImageIcon save = new ImageIcon(AssetManager.getImage("/images/levelInfo/saveAbilities.png"));
+            ImageIcon saveLight = new ImageIcon(AssetManager.getImage("/images/levelInfo/saveAbilitiesLight.png"));
             JLabel saveButton = new JLabel(save);
             saveButton.setBounds(21,20,707,82);
             saveButton.addMouseListener(new MouseAdapter() {
@@ -246,7 +246,7 @@ public class AbilityInfoPanel {
             this.title = title;
             nameID = title;
             try {     
-                iconForTopPanel = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/" + title + ".png")));
+                iconForTopPanel = new ImageIcon(AssetManager.getImage("/images/level/" + title + ".png"));
             } catch (Exception ex) { }
             setPreferredSize(new Dimension(600,131));
             if(isPassive){
@@ -258,12 +258,12 @@ public class AbilityInfoPanel {
             }
 
             try {
-                light = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/abilities/" + title + "Light.png")));
-                normal = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/abilities/" + title + ".png")));
-                dark = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/abilities/" + title + "Dark.png")));
+                light = new ImageIcon(AssetManager.getImage("/images/levelInfo/abilities/" + title + "Light.png"));
+                normal = new ImageIcon(AssetManager.getImage("/images/levelInfo/abilities/" + title + ".png"));
+                dark = new ImageIcon(AssetManager.getImage("/images/levelInfo/abilities/" + title + "Dark.png"));
 
-                lock = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/abilities/" + folder + "lock.png")).getScaledInstance(104, 104, Image.SCALE_SMOOTH));
-                checked = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/abilities/" + folder + "checked.png")).getScaledInstance(104, 104, Image.SCALE_SMOOTH));
+                lock = new ImageIcon(AssetManager.getImage("/images/levelInfo/abilities/" + folder + "lock.png").getScaledInstance(104, 104, Image.SCALE_SMOOTH));
+                checked = new ImageIcon(AssetManager.getImage("/images/levelInfo/abilities/" + folder + "checked.png").getScaledInstance(104, 104, Image.SCALE_SMOOTH));
                 
                 overlay = new JLabel();
                 overlay.setBounds(26,14,104,104);
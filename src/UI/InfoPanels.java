@@ -2,7 +2,6 @@ package UI;
 
 import java.io.File;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JLayeredPane;
@@ -12,6 +11,7 @@ import data.DataManager;
 import data.LevelData;
 import data.LevelIdentifier;
 import data.PlayerData;
+import misc.AssetManager;
 import models.App;
 
 import java.awt.Color;
@@ -25,7 +25,7 @@ public class InfoPanels{
         JLayeredPane panel = new JLayeredPane();
         panel.setPreferredSize(new Dimension(600,131));
         try {
-            JLabel image = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/obstacles/"+ title + ".png"))));
+            JLabel image = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/obstacles/"+ title + ".png")));
             image.setVisible(true);
             image.setBounds(0,0,600,131);
             panel.add(image);
@@ -37,8 +37,8 @@ public class InfoPanels{
         JLayeredPane panel = new JLayeredPane();
         panel.setPreferredSize(new Dimension(600,131));
         try {
-            JLabel image = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/next.png"))));
-            JLabel imageLight = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/nextLight.png"))));
+            JLabel image = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/next.png")));
+            JLabel imageLight = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/nextLight.png")));
             imageLight.setVisible(false);
             image.setVisible(true);
             image.setBounds(0,0,600,131);
@@ -112,8 +112,8 @@ public class InfoPanels{
             LevelData levelData = DataManager.loadLevelData(levelIdentifier);
             PlayerData playerData = DataManager.loadPlayerData();
 
-            ImageIcon starHollow = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/starHollow.png")));
-            ImageIcon starFull = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/starFull.png")));
+            ImageIcon starHollow = new ImageIcon(AssetManager.getImage("/images/levelInfo/starHollow.png"));
+            ImageIcon starFull = new ImageIcon(AssetManager.getImage("/images/levelInfo/starFull.png"));
             JLabel star1 = new JLabel(starHollow);
             star1.setBounds(37,16,170,162);
             JLabel star2 = new JLabel(starHollow);
@@ -11,12 +11,15 @@ import data.DataManager;
 import data.LevelData;
 import data.LevelIdentifier;
 import data.PlayerData;
+import game.GameAction;
 import game.GamePanel;
 import game.gameobjects.Board;
+import game.replay.Playback;
+import game.utils.GamePanelGraphics;
+import misc.AssetManager;
 import models.App;
 
 import java.io.File;
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -48,6 +51,7 @@ public class LevelMenu extends JFrame{
     static PlayerData playerData;
     static LevelData levelData;
     static GamePanel gamePanel;
+    static Playback playback;
 
     
 
@@ -55,21 +59,21 @@ public class LevelMenu extends JFrame{
     void init(LevelIdentifier levelIdentifier){
         LevelMenu.levelIdentifier = levelIdentifier;
         try {
-            playerData = DataManager.loadPlayerData();
+            playerData = playback == null ? DataManager.loadPlayerData() : playback.replay().createPlayerData();
             levelData = DataManager.loadLevelData(levelIdentifier);
             setHealthbarMaxValue((int)levelData.getEntityHealth());
             setHealthbarValue((int)levelData.getEntityHealth());
             setTurnsLeft(levelData.getTurns());
 
-            gamePanel = new GamePanel(levelData, playerData, this);
+            gamePanel = new GamePanel(levelData, playerData, this, playback);
             gamePanel.setBounds(160, 125, gamePanel.getPreferredSize().width, gamePanel.getPreferredSize().height);
             pane.add(gamePanel, 0);
 
             attack.addMouseListener(new MouseAdapter() {
                 @Override
                 public void mouseClicked(MouseEvent e) {
-                    if (e.getButton() == MouseEvent.BUTTON1 && !attack.cover.isVisible()) gamePanel.getAbilityManager().attemptAttack();
-                    else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction("abortSelection");
+                    if (e.getButton() == MouseEvent.BUTTON1 && !attack.cover.isVisible()) gamePanel.getActionHandler().scheduleAction(GameAction.ATTACK);
+                    else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction(GameAction.ABORT_SELECTION);
                 }
             });
 
@@ -79,8 +83,8 @@ public class LevelMenu extends JFrame{
                 activeAbility1.addMouseListener(new MouseAdapter() {
                     @Override
                     public void mouseClicked(MouseEvent e) {
-                        if (e.getButton() == MouseEvent.BUTTON1 && !activeAbility1.cover.isVisible()) gamePanel.getAbilityManager().attemptActive1();
-                        else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction("abortSelection");
+                        if (e.getButton() == MouseEvent.BUTTON1 && !activeAbility1.cover.isVisible()) gamePanel.getActionHandler().scheduleAction(GameAction.ACTIVE1);
+                        else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction(GameAction.ABORT_SELECTION);
                     }
                 });
             }
@@ -89,8 +93,8 @@ public class LevelMenu extends JFrame{
                 activeAbility2.addMouseListener(new MouseAdapter() {
                     @Override
                     public void mouseClicked(MouseEvent e) {
-                        if (e.getButton() == MouseEvent.BUTTON1 && !activeAbility2.cover.isVisible()) gamePanel.getAbilityManager().attemptActive2();
-                        else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction("abortSelection");
+                        if (e.getButton() == MouseEvent.BUTTON1 && !activeAbility2.cover.isVisible()) gamePanel.getActionHandler().scheduleAction(GameAction.ACTIVE2);
+                        else if (e.getButton() == MouseEvent.BUTTON3 && gamePanel.getBoard().getState() == Board.SELECTING) gamePanel.getActionHandler().scheduleAction(GameAction.ABORT_SELECTION);
                     }
                 });
             }
@@ -174,7 +178,17 @@ public class LevelMenu extends JFrame{
     }
     
     public LevelMenu(LevelIdentifier levelIdentifier) {
+        this(levelIdentifier, null);
+    }
+
+    /**
+     * Creates the level window, in which a replay is watched instead of playing the level if one is given.
+     * @param levelIdentifier level
+     * @param playback replay of the level and its settings, or null
+     */
+    public LevelMenu(LevelIdentifier levelIdentifier, Playback playback) {
         super("Neptune-48");
+        LevelMenu.playback = playback;
         setResizable(false);
         this.width = 815;
         this.height = 1000;
@@ -201,7 +215,7 @@ public class LevelMenu extends JFrame{
         pauseCover.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (e.getButton() == MouseEvent.BUTTON1) gamePanel.getActionHandler().scheduleAction("pause");
+                if (e.getButton() == MouseEvent.BUTTON1) gamePanel.getActionHandler().scheduleAction(GameAction.PAUSE);
             }
             @Override
             public void mouseEntered(MouseEvent e) {
@@ -218,7 +232,7 @@ public class LevelMenu extends JFrame{
         pauseBack.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (e.getButton() == MouseEvent.BUTTON1) gamePanel.getActionHandler().scheduleAction("pause");
+                if (e.getButton() == MouseEvent.BUTTON1) gamePanel.getActionHandler().scheduleAction(GameAction.PAUSE);
             }
             @Override
             public void mouseEntered(MouseEvent e) {
@@ -457,7 +471,7 @@ public class LevelMenu extends JFrame{
      */
     static ImageIcon getIcon(String location, int width, int height){
         try {
-            return new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/" + location)).getScaledInstance(width, height, 16));
+            return new ImageIcon(GamePanelGraphics.getCachedSmoothImage("/images/" + location, width, height));
         } catch (Exception e) {System.err.println("LevelMenu -> getIcon("+location+") -> " + e.getMessage());}
         return null;
     }
@@ -472,8 +486,8 @@ public class LevelMenu extends JFrame{
             centerPanel.setBackground(new Color(23,63,31));
             centerPanel.setBounds(100,360,600,280);
             
-            ImageIcon back = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenu.png")));
-            ImageIcon backLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenuLight.png")));
+            ImageIcon back = new ImageIcon(AssetManager.getImage("/images/level/toMenu.png"));
+            ImageIcon backLight = new ImageIcon(AssetManager.getImage("/images/level/toMenuLight.png"));
             JLabel backButton = new JLabel(back);
             backButton.setBounds(24,161,551,81);
             backButton.addMouseListener(new MouseAdapter(){
@@ -493,8 +507,8 @@ public class LevelMenu extends JFrame{
                 }
             });
 
-            ImageIcon restart = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restart.png")));
-            ImageIcon restartLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restartLight.png")));
+            ImageIcon restart = new ImageIcon(AssetManager.getImage("/images/level/restart.png"));
+            ImageIcon restartLight = new ImageIcon(AssetManager.getImage("/images/level/restartLight.png"));
             JLabel restartButton = new JLabel(restart);
             restartButton.setBounds(24,38,551,81);
             restartButton.addMouseListener(new MouseAdapter(){
@@ -527,7 +541,7 @@ public class LevelMenu extends JFrame{
             backGroundDark.addMouseListener(new MouseAdapter(){
                 @Override
                 public void mouseClicked(MouseEvent e) {
-                    gamePanel.getActionHandler().scheduleAction("unpause");
+                    gamePanel.getActionHandler().scheduleAction(GameAction.UNPAUSE);
                 }
             });
             pane.setVisible(true);
@@ -565,8 +579,8 @@ public class LevelMenu extends JFrame{
             
 
 
-            ImageIcon back = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenu.png")));
-            ImageIcon backLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenuLight.png")));
+            ImageIcon back = new ImageIcon(AssetManager.getImage("/images/level/toMenu.png"));
+            ImageIcon backLight = new ImageIcon(AssetManager.getImage("/images/level/toMenuLight.png"));
             JLabel backButton = new JLabel(back);
             backButton.setBounds(24,611 - 35,551,81);
             backButton.addMouseListener(new MouseAdapter(){
@@ -584,8 +598,8 @@ public class LevelMenu extends JFrame{
                 }
             });
 
-            ImageIcon restart = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restart.png")));
-            ImageIcon restartLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restartLight.png")));
+            ImageIcon restart = new ImageIcon(AssetManager.getImage("/images/level/restart.png"));
+            ImageIcon restartLight = new ImageIcon(AssetManager.getImage("/images/level/restartLight.png"));
             JLabel restartButton = new JLabel(restart);
             restartButton.setBounds(24,538- 50 - 20,551,81);
             restartButton.addMouseListener(new MouseAdapter(){
@@ -646,8 +660,8 @@ public class LevelMenu extends JFrame{
             panel.setBounds(0,20 + 112,600,300);
             centerPanel.add(panel);
             
-            ImageIcon back = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenu.png")));
-            ImageIcon backLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/toMenuLight.png")));
+            ImageIcon back = new ImageIcon(AssetManager.getImage("/images/level/toMenu.png"));
+            ImageIcon backLight = new ImageIcon(AssetManager.getImage("/images/level/toMenuLight.png"));
             JLabel backButton = new JLabel(back);
             backButton.setBounds(24,611 - 35,551,81);
             backButton.addMouseListener(new MouseAdapter(){
@@ -665,8 +679,8 @@ public class LevelMenu extends JFrame{
                 }
             });
 
-            ImageIcon restart = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restart.png")));
-            ImageIcon restartLight = new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/level/restartLight.png")));
+            ImageIcon restart = new ImageIcon(AssetManager.getImage("/images/level/restart.png"));
+            ImageIcon restartLight = new ImageIcon(AssetManager.getImage("/images/level/restartLight.png"));
             JLabel restartButton = new JLabel(restart);
             restartButton.setBounds(24,538- 50 - 20,551,81);
             restartButton.addMouseListener(new MouseAdapter(){
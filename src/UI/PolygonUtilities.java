@@ -1,12 +1,11 @@
 package UI;
-import models.App;
+import misc.AssetManager;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
 
-import javax.imageio.ImageIO;
 
 public class PolygonUtilities {
     static Polygon[] polygons = new Polygon[6];
@@ -48,7 +47,7 @@ public class PolygonUtilities {
             }
             try {
                 if(overlayColor.equalsIgnoreCase("green") || overlayColor.equalsIgnoreCase("red")){
-                    overlay = new JLabel(new ImageIcon(ImageIO.read(App.class.getResourceAsStream("/images/levelInfo/"+ num + "overlay" + overlayColor + ".png"))));
+                    overlay = new JLabel(new ImageIcon(AssetManager.getImage("/images/levelInfo/"+ num + "overlay" + overlayColor + ".png")));
                     switch(num){
                         case 0:
                             overlay.setBounds(572,2 + yOffset,240,370);
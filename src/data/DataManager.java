@@ -31,6 +31,16 @@ public class DataManager {
         return data;
     }
 
+    /**
+     * Checks whether data of the level with given index exists.
+     *
+     * @param level container of the level's identifying properties.
+     * @return true if the level can be loaded with {@link DataManager#loadLevelData(LevelIdentifier)}
+     */
+    public static boolean isLevelDataAvailable(LevelIdentifier level) {
+        return App.class.getResource("/data/levels/"+level.difficulty()+"/level"+level.index()+".dat") != null;
+    }
+
     /**
      * Writes given {@link LevelData} object into a file inside "resources\\data\\levels" as "level" + level's index.
      * <br>
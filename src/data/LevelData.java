@@ -14,6 +14,9 @@ import java.util.Map;
  * @author Artem Novak
  */
 public class LevelData implements Serializable {
+    // Fixed so that level files stay readable when methods of the class change.
+    private static final long serialVersionUID = -4310356903080954762L;
+
     private LevelIdentifier levelIdentifier;
     private LevelIdentifier nextLevelIdentifier;
     private long entityHealth;
@@ -37,7 +40,7 @@ public class LevelData implements Serializable {
      * @param turns maximal turns for the level (in seconds)
      * @param twoStarThreshold minimal remaining turns necessary to obtain two stars for the level (and the reward ability)
      * @param threeStarThreshold minimal remaining turns necessary to obtain three stars for the level
-     * @param gameMode one of {@link game.GamePanel#GAME_MODE_ATTACK} and {{@link game.GamePanel#GAME_MODE_REPAIR}}
+     * @param gameMode one of {@link game.GameSession#GAME_MODE_ATTACK} and {{@link game.GameSession#GAME_MODE_REPAIR}}
      * @param obstacleWeights map of obstacle NameIDs to their relative occurrence weights
      * @param minObstacleInterval minimal interval in turns between two consecutive obstacles
      * @param maxObstacleInterval maximal interval in turns between two consecutive obstacles
@@ -66,17 +69,16 @@ public class LevelData implements Serializable {
      * @throws IOException if any of the images failed to load
      */
     public GamePanelGraphics generateGraphics() throws IOException {
-        int tileSize;
-        int tileOffset;
-        if (levelIdentifier.difficulty().equals("normal")) {
-            tileSize = 84;
-            tileOffset = 10;
-        }
-        else {
-            tileSize = 105;
-            tileOffset = 12;
-        }
-        return new GamePanelGraphics(tileSize, tileOffset, getBoardSize(), getBoardSize(), gameMode, levelIdentifier.index());
+        return new GamePanelGraphics(getTileSize(), getTileOffset(), getBoardSize(), getBoardSize(), gameMode, levelIdentifier.index());
+    }
+
+    /**
+     * Generates a game graphics object with this level's sizes but no textures, for sessions that are not rendered.
+     *
+     * @return new headless {@link GamePanelGraphics} object
+     */
+    public GamePanelGraphics generateHeadlessGraphics() {
+        return GamePanelGraphics.createHeadless(getTileSize(), getTileOffset());
     }
 
     public LevelIdentifier getLevelIdentifier() {
@@ -96,6 +98,24 @@ public class LevelData implements Serializable {
         return levelIdentifier.difficulty().equals("normal") ? 5 : 4;
     }
 
+    /**
+     * Finds size of one tile in pixels.
+     *
+     * @return 84 if difficulty is "normal" and 105 otherwise
+     */
+    public int getTileSize() {
+        return levelIdentifier.difficulty().equals("normal") ? 84 : 105;
+    }
+
+    /**
+     * Finds offset between tiles (and between a tile and the board edge) in pixels.
+     *
+     * @return 10 if difficulty is "normal" and 12 otherwise
+     */
+    public int getTileOffset() {
+        return levelIdentifier.difficulty().equals("normal") ? 10 : 12;
+    }
+
     public long getEntityHealth() {
         return entityHealth;
     }
@@ -1,14 +1,43 @@
 package game;
 
-import java.util.LinkedList;
+import game.events.InputListener;
 
 /**
- * Class that implements methods for scheduling actions to be processed in the game loop by certain NameIDs.
+ * Class that implements methods for scheduling actions to be processed in the game loop.
+ * <br>
+ * Input listeners (the producer, normally the AWT event thread) post timestamped schedule and release events into a lock-free
+ * single-producer/single-consumer ring buffer. The game loop (the consumer) drains the buffer before each query and applies
+ * the events in order to the list of scheduled actions, which is owned by the consumer only. Scheduling an action that is already
+ * scheduled moves it to the end of the list, so every action is scheduled at most once.
+ * <br>
+ * Methods are split by thread: {@link ActionHandler#scheduleAction(GameAction)} and {@link ActionHandler#releaseAction(GameAction)}
+ * are to be called by the producer, all other methods by the consumer.
+ * <br>
+ * While a replay is played, actions are injected by the consumer itself, and posted input other than pausing is ignored.
  *
  * @author Artem Novak
  */
 public class ActionHandler {
-    private LinkedList<String> scheduledActions = new LinkedList<>();
+    // Must be a power of 2
+    private static final int CAPACITY = 64;
+    private static final int MASK = CAPACITY - 1;
+    private static final int SCHEDULE = 0, RELEASE = 1;
+
+    // Ring buffer: slots are written by the producer before publishing the tail and read by the consumer before publishing the head.
+    private final int[] eventCodes = new int[CAPACITY];
+    private final long[] eventTimes = new long[CAPACITY];
+    private volatile int head, tail;
+    private int lastPostedCode = -1; // Producer-only
+
+    // Scheduled actions in the order of scheduling, consumer-only
+    private final GameAction[] scheduled = new GameAction[GameAction.count()];
+    private final long[] scheduleTimes = new long[GameAction.count()];
+    private final boolean[] isScheduled = new boolean[GameAction.count()];
+    private int scheduledCount;
+    private long lastInputLatency = -1;
+    private boolean replaying;
+
+    private volatile InputListener inputListener;
 
     /**
      * Determines whether there are any scheduled actions.
@@ -16,52 +45,160 @@ public class ActionHandler {
      * @return true if there is at least one scheduled action
      */
     public boolean anyActionScheduled() {
-        return !scheduledActions.isEmpty();
+        drain();
+        return scheduledCount > 0;
     }
 
     /**
-     * Gets the most prioritized action's NameID.
+     * Gets the most prioritized action.
      *
-     * @return prioritized action (the earliest scheduled)
+     * @return prioritized action (the earliest scheduled), or null if there are no scheduled actions
      */
-    public String getPriorityAction() {
-        return scheduledActions.peek();
+    public GameAction getPriorityAction() {
+        drain();
+        return scheduledCount == 0 ? null : scheduled[0];
     }
 
     /**
      * Checks whether an action is a priority action.
      *
-     * @param nameID action's NameID
+     * @param action action
      * @return true if it is scheduled and is the head of the list (scheduled the earliest)
      */
-    public boolean isPriorityAction(String nameID) {
-        String priority = getPriorityAction();
-        return priority != null && priority.equals(nameID);
+    public boolean isPriorityAction(GameAction action) {
+        return getPriorityAction() == action;
+    }
+
+    /**
+     * Schedules an action to be processed inside the game loop. Is to be called by the producer thread.
+     * <br>
+     * Repeated schedules of an action (e.g. generated by key auto-repeat) that arrive before the game loop sees the first one are coalesced.
+     *
+     * @param action action
+     */
+    public void scheduleAction(GameAction action) {
+        post(action, SCHEDULE);
+    }
+
+    /**
+     * Withdraws an action if it is still scheduled by the time the game loop sees this call (e.g. on key release).
+     * Is to be called by the producer thread.
+     *
+     * @param action action
+     */
+    public void releaseAction(GameAction action) {
+        post(action, RELEASE);
     }
 
     /**
-     * Schedules an action by NameID to be processed inside the game loop.
+     * Schedules an action directly, as if it had been posted and seen by the game loop (e.g. to replay recorded input).
+     * Is to be called by the consumer thread.
      *
-     * @param nameID action's NameID
+     * @param action action
      */
-    public void scheduleAction(String nameID) {
-        scheduledActions.remove(nameID);
-        scheduledActions.add(nameID);
+    public void injectAction(GameAction action) {
+        drain();
+        schedule(action, System.nanoTime());
     }
 
     /**
-     * Clears one instance of a particular action from the list of actions to be processed by the game loop.
+     * Clears an action from the list of actions to be processed by the game loop, normally after it has been processed.
+     * Is to be called by the consumer thread.
      *
-     * @param nameID action's NameID
+     * @param action action
      */
-    public void clearAction(String nameID) {
-        scheduledActions.remove(nameID);
+    public void clearAction(GameAction action) {
+        drain();
+        if (!isScheduled[action.ordinal()]) return;
+        lastInputLatency = System.nanoTime() - scheduleTimes[action.ordinal()];
+        remove(action);
     }
 
     /**
-     * Clears all scheduled actions.
+     * Clears all scheduled actions, including ones not yet seen by the game loop. Is to be called by the consumer thread.
      */
     public void clearAll() {
-        scheduledActions = new LinkedList<>();
+        drain();
+        while (scheduledCount > 0) remove(scheduled[0]);
+    }
+
+    /**
+     * Gets the time an action was scheduled at.
+     *
+     * @param action action
+     * @return {@link System#nanoTime()} at the moment the action was scheduled, or -1 if it is not scheduled
+     */
+    public long getScheduleTime(GameAction action) {
+        drain();
+        return isScheduled[action.ordinal()] ? scheduleTimes[action.ordinal()] : -1;
+    }
+
+    /**
+     * @return nanoseconds between scheduling and clearing of the last processed action, or -1 if no action has been processed yet
+     */
+    public long getLastInputLatency() {
+        return lastInputLatency;
+    }
+
+    /**
+     * Sets whether a replay is being played, in which case posted actions other than {@link GameAction#PAUSE} and {@link GameAction#UNPAUSE}
+     * are ignored. Is to be called by the consumer thread.
+     *
+     * @param replaying true if input is injected by a replay
+     */
+    public void setReplaying(boolean replaying) {
+        this.replaying = replaying;
+    }
+
+    /**
+     * Sets the listener that is notified about posted input, e.g. to wake up the game loop.
+     *
+     * @param inputListener listener, or null
+     */
+    public void setInputListener(InputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    private void post(GameAction action, int type) {
+        int code = action.ordinal() << 1 | type;
+        int t = tail;
+        // Coalescing with the last event only while it is not consumed, so that the game loop sees every distinct press.
+        if (code == lastPostedCode && t != head) return;
+        if (t - head == CAPACITY) return; // The game loop is not draining, input is dropped instead of blocking the event thread.
+        eventCodes[t & MASK] = code;
+        eventTimes[t & MASK] = System.nanoTime();
+        lastPostedCode = code;
+        tail = t + 1;
+        InputListener listener = inputListener;
+        if (listener != null) listener.onInputPosted(action);
+    }
+
+    private void drain() {
+        int h = head, t = tail;
+        if (h == t) return;
+        for (; h != t; h++) {
+            int code = eventCodes[h & MASK];
+            GameAction action = GameAction.byOrdinal(code >>> 1);
+            if (replaying && action != GameAction.PAUSE && action != GameAction.UNPAUSE) continue;
+            if ((code & 1) == SCHEDULE) schedule(action, eventTimes[h & MASK]);
+            else remove(action);
+        }
+        head = h;
+    }
+
+    private void schedule(GameAction action, long time) {
+        remove(action);
+        scheduled[scheduledCount++] = action;
+        scheduleTimes[action.ordinal()] = time;
+        isScheduled[action.ordinal()] = true;
+    }
+
+    private void remove(GameAction action) {
+        if (!isScheduled[action.ordinal()]) return;
+        isScheduled[action.ordinal()] = false;
+        int i = 0;
+        while (scheduled[i] != action) i++;
+        System.arraycopy(scheduled, i + 1, scheduled, i, scheduledCount - i - 1);
+        scheduled[--scheduledCount] = null;
     }
 }
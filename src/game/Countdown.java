@@ -1,7 +1,5 @@
 package game;
 
-import UI.LevelMenu;
-
 /**
  * Implements turn-based countdown allowing for modifications.
  *
@@ -10,8 +8,7 @@ import UI.LevelMenu;
 public class Countdown {
     public static final int IDLE = 0, TICKING = 1;
 
-    private final GamePanel gp;
-    private final LevelMenu ui;
+    private final GameSession session;
 
     private int dedicatedTurns;
     private int turns;
@@ -21,13 +18,12 @@ public class Countdown {
      * Constructs a countdown from given turn number to zero.
      *
      * @param turns number of turns dedicated for the level
-     * @param gp base GamePanel
+     * @param session base session
      */
-    public Countdown(int turns, GamePanel gp) {
+    public Countdown(int turns, GameSession session) {
         this.dedicatedTurns = turns;
         this.turns = turns;
-        this.gp = gp;
-        this.ui = gp.getBase();
+        this.session = session;
     }
 
     /**
@@ -49,7 +45,7 @@ public class Countdown {
         turns = Math.max(turns + delta, 0);
         if (turns <= 0) state = IDLE;
         if (oldTurns != turns) {
-            ui.setTurnsLeft(turns);
+            session.notifyTurnsLeftChanged(turns);
         }
     }
 
@@ -66,9 +62,9 @@ public class Countdown {
      */
     public void start() {
         state = TICKING;
-        gp.getBoard().addTurnListener(() -> {
+        session.getBoard().addTurnListener(() -> {
             if (state == TICKING) offsetTurns(-1);
-            if (turns <= 0 && gp.getState() != GamePanel.ENDING) gp.loseLevel();
+            if (turns <= 0 && session.getState() != GameSession.ENDING) session.loseLevel();
         });
     }
 }
@@ -0,0 +1,32 @@
+package game;
+
+/**
+ * Enum of player actions that can be scheduled to be processed in the game loop via {@link ActionHandler}.
+ *
+ * @author Artem Novak
+ */
+public enum GameAction {
+    UP, DOWN, LEFT, RIGHT,
+    ATTACK, ACTIVE1, ACTIVE2,
+    PAUSE, UNPAUSE,
+    SELECT_TILE, ABORT_SELECTION;
+
+    private static final GameAction[] VALUES = values();
+
+    /**
+     * Gets an action by its ordinal without copying the array of values.
+     *
+     * @param ordinal action's ordinal
+     * @return action
+     */
+    public static GameAction byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @return number of actions
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+}
@@ -9,11 +9,11 @@ public abstract class GameModifier {
     // States
     public static final int APPLICABLE = 0, UNAPPLICABLE = 1, APPLYING = 2;
 
-    protected GamePanel gp;
+    protected GameSession session;
     protected int state;
 
-    public GameModifier(GamePanel gp) {
-        this.gp = gp;
+    public GameModifier(GameSession session) {
+        this.session = session;
     }
 
     /**
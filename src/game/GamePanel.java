@@ -3,63 +3,74 @@ package game;
 import UI.LevelMenu;
 import data.DataManager;
 import data.LevelData;
-import data.LevelIdentifier;
 import data.PlayerData;
 import game.abilities.AbilityManager;
+import game.abilities.ActiveAbility;
 import game.events.*;
 import game.gameobjects.Board;
-import game.gameobjects.BoardCell;
 import game.gameobjects.Entity;
-import game.gameobjects.Tile;
 import game.gameobjects.particles.ParticleManager;
+import game.instrumentation.DebugOverlay;
+import game.instrumentation.Instrumentation;
 import game.obstacles.ObstacleManager;
+import game.pacing.FrameScheduler;
+import game.rendering.ActiveRenderer;
+import game.rendering.DirtyRegion;
+import game.replay.Playback;
+import game.replay.ReplayPlayer;
+import game.replay.ReplayRecorder;
 import game.utils.GamePanelGraphics;
+import game.utils.SessionRandom;
 import misc.AudioManager;
 
-import java.util.ArrayList;
-import java.util.List;
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
 
 /**
  * Implementation of the panel in which the core game loop (2048 gameplay, attacking, triggering abilities etc.) happens.
+ * <br>
+ * Game logic itself lives in {@link GameSession}, the panel runs it in real time, renders it and connects it to audio and the level menu.
  *
  * @author Artem Novak
  */
 public class GamePanel extends JPanel implements Runnable {
     // How many logical updates and visual repaints are done per second
     public static final int TPS = 60;
+    /**
+     * Frame scheduler used by the game loop ("spin", "hybrid" or "idle"), may be overridden with the "neptune.pacing" system property.
+     */
+    public static final String DEFAULT_PACING = "idle";
+    /**
+     * Rendering mode: "active" renders frames on the game loop thread with an {@link ActiveRenderer}, "passive" renders them in paintComponent.
+     * May be overridden with the "neptune.rendering" system property.
+     */
+    public static final String DEFAULT_RENDERING = "passive";
+    /**
+     * Whether played sessions are recorded into replays (see {@link ReplayRecorder}), may be overridden with the "neptune.replays" system property.
+     */
+    public static final boolean DEFAULT_RECORDING = true;
     // Game state
-    public static final int PLAYING = 0, PAUSED = 1, ENDING = 2, ENDED = 3;
+    public static final int PLAYING = GameSession.PLAYING, PAUSED = GameSession.PAUSED, ENDING = GameSession.ENDING, ENDED = GameSession.ENDED;
     // Game mode
-    public static final int GAME_MODE_ATTACK = 0, GAME_MODE_REPAIR = 1;
+    public static final int GAME_MODE_ATTACK = GameSession.GAME_MODE_ATTACK, GAME_MODE_REPAIR = GameSession.GAME_MODE_REPAIR;
 
-    private final LevelData levelData;
-    private final PlayerData playerData;
+    private final GameSession session;
     private final LevelMenu base;
-    private final GamePanelGraphics graphics;
 
-    private final ActionHandler actionHandler = new ActionHandler();
     private final KeyHandler keyHandler;
     private final MouseHandler mouseHandler;
+    private final FrameScheduler scheduler;
+    private final ActiveRenderer renderer; // Null if rendering is passive
+    private final Instrumentation instrumentation;
+    private final ReplayRecorder recorder; // Null if the session is not recorded
+    private final ReplayPlayer replayPlayer; // Null unless a replay is watched
+    private final int speed; // Updates per tick
+    private final DebugOverlay debugOverlay;
+    private volatile boolean debugOverlayVisible;
+    private volatile boolean repaintRequested; // Whether the next frame has to be rendered completely
     private final Thread gameThread = new Thread(this);
 
-    private final Countdown countdown;
-    private final Board board;
-    private final Entity entity;
-    private final ObstacleManager obstacleManager;
-    private final AbilityManager abilityManager;
-    private final ParticleManager particleManager;
-
-    private final List<GameOverListener> gameOverListeners = new ArrayList<>();
-    private final List<StateListener> stateListeners = new ArrayList<>();
-
-    private final int baseTileDamage;
-    private final int gameMode;
-
-    private int state = PLAYING;
-
     /**
      * Constructs a game panel with given graphics manager object.
      *
@@ -68,54 +79,108 @@ public class GamePanel extends JPanel implements Runnable {
      * @param base base {@link LevelMenu} of this panel
      */
     public GamePanel(LevelData levelData, PlayerData playerData, LevelMenu base) throws IOException {
+        this(levelData, playerData, base, null);
+    }
+
+    /**
+     * Constructs a game panel that plays a replay instead of taking the player's input (except for pausing),
+     * or a regular one if there is no replay.
+     *
+     * @param levelData {@link LevelData} object storing information about this panel's level
+     * @param playerData {@link PlayerData} object with the loadout of the session (for a replay, see {@link game.replay.Replay#createPlayerData()})
+     * @param base base {@link LevelMenu} of this panel
+     * @param playback replay to play and its settings, or null
+     */
+    public GamePanel(LevelData levelData, PlayerData playerData, LevelMenu base, Playback playback) throws IOException {
         this.base = base;
         setBackground(base.getBackground());
-        this.levelData = levelData;
-        this.playerData = playerData;
-        this.baseTileDamage = levelData.getBaseTileDamage();
-        this.graphics = levelData.generateGraphics();
-        this.gameMode = levelData.getGameMode();
-        this.particleManager = new ParticleManager(this);
-        this.entity = new Entity(0, 0, levelData.getEntityHealth(), levelData.getEntityTolerance(), this);
-        this.board = new Board(0, GamePanelGraphics.ENTITY_HEIGHT + GamePanelGraphics.ENTITY_BOARD_DISTANCE, levelData.getBoardSize(), levelData.getBoardSize(), 1, this);
-        board.generateRandomTile();
-        board.generateRandomTile();
-        this.countdown = new Countdown(levelData.getTurns(), this);
-        this.obstacleManager = new ObstacleManager(levelData.getObstacleWeights(), levelData.getMinObstacleInterval(), levelData.getMaxObstacleInterval(), this);
-        this.abilityManager = new AbilityManager(playerData.getActiveAbility1(), playerData.getActiveAbility2(), playerData.getPassiveAbility(), this);
+        if (playback == null) {
+            this.session = new GameSession(levelData, playerData, levelData.generateGraphics());
+            this.replayPlayer = null;
+            this.speed = 1;
+            boolean recording = Boolean.parseBoolean(System.getProperty("neptune.replays", String.valueOf(DEFAULT_RECORDING)));
+            this.recorder = recording ? ReplayRecorder.start(session) : null;
+        }
+        else {
+            this.session = new GameSession(levelData, playerData, levelData.generateGraphics(), new SessionRandom(playback.replay().getSeed()));
+            this.replayPlayer = new ReplayPlayer(playback.replay(), session);
+            replayPlayer.seek(playback.startTurn());
+            session.getActionHandler().setReplaying(true);
+            this.speed = playback.speed();
+            this.recorder = null;
+        }
+        Board board = session.getBoard();
+        this.scheduler = FrameScheduler.byName(System.getProperty("neptune.pacing", DEFAULT_PACING), TPS, FrameScheduler.DEFAULT_MAX_CATCH_UP, this::isIdle);
+        session.getActionHandler().setInputListener(action -> scheduler.wakeUp());
+        String rendering = System.getProperty("neptune.rendering", DEFAULT_RENDERING);
+        this.renderer = switch (rendering) {
+            case "active" -> new ActiveRenderer(this, this::renderScene);
+            case "passive" -> null;
+            default -> throw new IllegalArgumentException("Unknown rendering mode \"" + rendering + "\"");
+        };
         this.keyHandler = new KeyHandler(this);
         base.addKeyListener(keyHandler);
         this.mouseHandler = new MouseHandler(this);
         base.addMouseListener(mouseHandler);
-        this.setDoubleBuffered(true);
+        base.addMouseMotionListener(mouseHandler);
+        board.setPointerLocator(replayPlayer == null ? mouseHandler::getPointerLocation : replayPlayer::getPointerLocation);
+        this.instrumentation = Instrumentation.attach(session);
+        this.debugOverlay = new DebugOverlay(instrumentation, scheduler.getStatistics());
+        this.setDoubleBuffered(renderer == null);
         this.setFocusable(true);
         this.setPreferredSize(new Dimension(GamePanelGraphics.ENTITY_WIDTH, board.getPreferredHeight() + GamePanelGraphics.ENTITY_BOARD_DISTANCE + GamePanelGraphics.ENTITY_HEIGHT));
-        board.setX((GamePanelGraphics.ENTITY_WIDTH - board.getPreferredWidth())/2f);
-
-        // Tracking level 11 tiles and starting an attack with one as soon as it appears.
-        board.addTurnListener(() -> {
-            if (state != ENDING) {
-                List<BoardCell> cells = board.getCellsByPredicate(x -> {
-                    Tile tile = board.getTileInCell(x);
-                    return tile != null && tile.getLevel() == 11;
-                });
-                if (!cells.isEmpty()) {
-                    setState(ENDING);
-                    board.addStateListener(new StateListener() {
-                        @Override
-                        public void onStateChanged(int oldState, int newState) {
-                            if (oldState == Board.ANIMATING && newState == Board.IDLE) {
-                                // When there are actually no other scheduled animations left (if there are, they set board's state to ANIMATING).
-                                if (board.getState() == Board.IDLE) {
-                                    board.removeStateListener(this);
-                                    abilityManager.getAttack().startAttack(cells.get(0));
-                                }
-                            }
-                        }
-                    });
+
+        session.addSessionListener(new SessionListener() {
+            @Override
+            public void onSoundEffect(String nameID) {
+                AudioManager.playSFX(nameID);
+            }
+
+            @Override
+            public void onTurnsLeftChanged(int turns) {
+                base.setTurnsLeft(turns);
+            }
+
+            @Override
+            public void onHealthChanged(long health) {
+                base.setHealthbarValue((int)health);
+            }
+
+            @Override
+            public void onAbilityUpdated(ActiveAbility ability) {
+                updateAbilityElement(ability);
+            }
+        });
+        session.addGameOverListener(new GameOverListener() {
+            @Override
+            public void onLose() {
+                AudioManager.clearBG();
+                AudioManager.playSFX("lose");
+                base.setLoseOverlay();
+            }
+
+            @Override
+            public void onWin(boolean abilityUnlocked) {
+                if (session.isResultRecorded() && replayPlayer == null) {
+                    try {
+                        DataManager.savePlayerData(playerData);
+                    }
+                    catch (IOException e) {
+                        e.printStackTrace();
+                    }
                 }
+                AudioManager.clearBG();
+                AudioManager.playSFX("win");
+                base.setWinOverlay(session.getStars());
             }
         });
+        // Displaying the state the session was created with.
+        base.setHealthbarValue((int)session.getEntity().getHealth());
+        base.setTurnsLeft(session.getCountdown().getTurns());
+        AbilityManager abilityManager = session.getAbilityManager();
+        updateAbilityElement(abilityManager.getAttack());
+        if (abilityManager.getActive1() != null) updateAbilityElement(abilityManager.getActive1());
+        if (abilityManager.getActive2() != null) updateAbilityElement(abilityManager.getActive2());
 
         AudioManager.setBG("level"+levelData.getLevelIdentifier().index());
         AudioManager.playBG();
@@ -124,126 +189,93 @@ public class GamePanel extends JPanel implements Runnable {
 
     @Override
     public void run() {
-        double frameInterval = 1000000000/TPS;
-        double delta = 0;
-        long lastTime = System.nanoTime();
-        long currentTime;
-        countdown.start();
-
-        while (state != ENDED) {
-            currentTime = System.nanoTime();
-            delta += (currentTime - lastTime)/frameInterval;
-            lastTime = currentTime;
-
-            if (delta >= 1) {
-                for (int i = 0; i < (int)delta; i++) {
-                    update();
-                }
-                if (state == PLAYING || state == ENDING) {
-                    repaint();
-                    if (state == ENDING && board.getState() == Board.IDLE && entity.getState() == Entity.IDLE && particleManager.getState() == ParticleManager.IDLE) setState(ENDED);
-                }
-
-                if ((state == PLAYING) && actionHandler.isPriorityAction("pause")) {
-                    setState(PAUSED);
-                    actionHandler.clearAction("pause");
-                    base.setPauseOverlay();
-                    base.getAttack().setHighlightVisible(false);
-                    base.getActiveAbility1().setHighlightVisible(false);
-                    base.getActiveAbility2().setHighlightVisible(false);
-                }
-                else if (state == PAUSED && actionHandler.isPriorityAction("unpause")) {
-                    setState(PLAYING);
-                    actionHandler.clearAction("unpause");
-                    base.clearOverlay();
-                }
-                delta -= (int)delta;
+        while (session.getState() != ENDED) {
+            int ticks = scheduler.awaitFrame();
+            for (int i = 0; i < ticks; i++) {
+                update();
+            }
+            if (session.getState() == PLAYING || session.getState() == ENDING) render();
+            else if (renderer != null && renderer.isFrameLost()) renderer.renderFrame();
+
+            ActionHandler actionHandler = session.getActionHandler();
+            if ((session.getState() == PLAYING) && actionHandler.isPriorityAction(GameAction.PAUSE)) {
+                session.setState(PAUSED);
+                actionHandler.clearAction(GameAction.PAUSE);
+                base.setPauseOverlay();
+                base.getAttack().setHighlightVisible(false);
+                base.getActiveAbility1().setHighlightVisible(false);
+                base.getActiveAbility2().setHighlightVisible(false);
+            }
+            else if (session.getState() == PAUSED && actionHandler.isPriorityAction(GameAction.UNPAUSE)) {
+                session.setState(PLAYING);
+                actionHandler.clearAction(GameAction.UNPAUSE);
+                base.clearOverlay();
             }
         }
+        if (recorder != null) recorder.close();
         AudioManager.clearBG();
         base.removeKeyListener(keyHandler);
         base.removeMouseListener(mouseHandler);
+        base.removeMouseMotionListener(mouseHandler);
     }
 
     /**
-     * Updates all components of the panel.
+     * Updates all components of the panel (several times per tick if a replay is played faster).
      */
     public void update() {
-        if (state != PAUSED) {
-            if (state != ENDING) {
-                abilityManager.update();
-            }
-            entity.update();
-            board.update();
-            particleManager.update();
+        for (int i = 0; i < speed; i++) {
+            if (replayPlayer != null) replayPlayer.beforeTick();
+            session.update();
+        }
+    }
+
+    /**
+     * Renders the part of the game changed since the last frame: directly in active rendering mode, or by requesting a repaint otherwise.
+     * Nothing is rendered if nothing has changed.
+     */
+    public void render() {
+        DirtyRegion dirtyRegion = session.getGameGraphics().getDirtyRegion();
+        if (repaintRequested || debugOverlayVisible) {
+            repaintRequested = false;
+            dirtyRegion.addAll();
+        }
+        if (renderer != null) renderer.renderFrame(dirtyRegion);
+        else {
+            Rectangle region = dirtyRegion.poll(getWidth(), getHeight());
+            if (region != null) repaint(region);
         }
     }
 
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D)g;
-        entity.render(g2d);
-        board.render(g2d);
-        particleManager.render(g2d);
+        if (renderer != null) {
+            if (!renderer.present(g)) scheduler.wakeUp();
+        }
+        else renderScene((Graphics2D)g);
         g.dispose();
     }
 
     /**
-     * Finishes the game without any changes to {@link PlayerData} object and triggers {@link GameOverListener#onLose()} methods.
+     * Renders the entity, the board and the particles.
+     *
+     * @param g2d Graphics2D instance for rendering
      */
-    public void loseLevel() {
-        setState(ENDING);
-        if (board.getState() == Board.SELECTING) board.abortSelection();
-        board.setLocked(true);
-
-        addStateListener((oldState, newState) -> {
-            for (GameOverListener listener : new ArrayList<>(gameOverListeners)) listener.onLose();
-            AudioManager.clearBG();
-            AudioManager.playSFX("lose");
-            base.setLoseOverlay();
-        });
+    private void renderScene(Graphics2D g2d) {
+        instrumentation.startFrame();
+        session.getEntity().render(g2d);
+        session.getBoard().render(g2d);
+        session.getParticleManager().render(g2d);
+        instrumentation.endFrame(renderer != null);
+        if (debugOverlayVisible) debugOverlay.render(g2d, 0, 0);
     }
 
-    /**
-     * Finishes the game, writes necessary information about level completion into the {@link PlayerData} object
-     * and triggers {@link GameOverListener#onWin(boolean)} methods.
-     */
-    public void winLevel() {
-        setState(ENDING);
-        if (board.getState() == Board.SELECTING) board.abortSelection();
-        board.setLocked(true);
-
-        LevelIdentifier level = levelData.getLevelIdentifier();
-        boolean unlockedAbility;
-        int stars = 1;
-        if (countdown.getTurns() >= levelData.getThreeStarThreshold()) stars = 3;
-        else if (countdown.getTurns() >= levelData.getTwoStarThreshold()) stars = 2;
-        unlockedAbility = stars > 1 && !playerData.getUnlockedAbilities().contains(levelData.getRewardAbility());
-        // Checking whether new information should be written.
-        if (!playerData.isLevelCompleted(level) || countdown.getTurns() > playerData.getLevelTurnsLeft(level)) {
-            playerData.setLevelBestResult(level, countdown.getTurns(), stars);
-            if (levelData.getNextLevelIdentifier() != null && !playerData.isLevelUnlocked(levelData.getNextLevelIdentifier())) playerData.unlockLevel(levelData.getNextLevelIdentifier());
-            if (unlockedAbility) playerData.unlockAbility(levelData.getRewardAbility());
-            try {
-                DataManager.savePlayerData(playerData);
-            }
-            catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        final int result = stars; // Final variable that can be used inside the listener
-        addStateListener((oldState, newState) -> {
-            for (GameOverListener listener : new ArrayList<>(gameOverListeners)) listener.onWin(unlockedAbility);
-            AudioManager.clearBG();
-            AudioManager.playSFX("win");
-            base.setWinOverlay(result);
-        });
+    public GameSession getSession() {
+        return session;
     }
 
     public GamePanelGraphics getGameGraphics() {
-        return graphics;
+        return session.getGameGraphics();
     }
 
     public LevelMenu getBase() {
@@ -251,79 +283,101 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     public ActionHandler getActionHandler() {
-        return actionHandler;
+        return session.getActionHandler();
     }
 
     public Board getBoard() {
-        return board;
+        return session.getBoard();
     }
 
     public Entity getEntity() {
-        return entity;
+        return session.getEntity();
     }
 
     public int getState() {
-        return state;
+        return session.getState();
     }
 
-    public void setState(int state) {
-        if (state < 0 || state > 3) throw new IllegalArgumentException("GamePanel does not support state " + state);
-        if (state != this.state) {
-            int oldState = this.state;
-            this.state = state;
-            for (StateListener listener : new ArrayList<>(stateListeners)) listener.onStateChanged(oldState, state);
-        }
-    }
-
-    /**
-     * Returns this GamePanel's {@link Countdown} object.
-     *
-     * @return countdown
-     */
     public Countdown getCountdown() {
-        return countdown;
-    }
-
-    public int getBaseTileDamage() {
-        return baseTileDamage;
+        return session.getCountdown();
     }
 
     public ObstacleManager getObstacleManager() {
-        return obstacleManager;
+        return session.getObstacleManager();
     }
 
     public AbilityManager getAbilityManager() {
-        return abilityManager;
+        return session.getAbilityManager();
     }
 
     public ParticleManager getParticleManager() {
-        return particleManager;
-    }
-
-    public int getGameMode() {
-        return gameMode;
+        return session.getParticleManager();
     }
 
-    public void addGameOverListener(GameOverListener listener) {
-        gameOverListeners.add(listener);
+    public FrameScheduler getScheduler() {
+        return scheduler;
     }
 
-    public void removeGameOverListener(GameOverListener listener) {
-        gameOverListeners.remove(listener);
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
     }
 
-    public void addStateListener(StateListener listener) {
-        stateListeners.add(listener);
+    /**
+     * @return player of the watched replay, or null if the panel is played
+     */
+    public ReplayPlayer getReplayPlayer() {
+        return replayPlayer;
     }
 
-    public void removeStateListener(StateListener listener) {
-        stateListeners.remove(listener);
+    /**
+     * Shows the debug overlay if it is hidden or hides it otherwise. While the overlay is shown, the game loop does not idle,
+     * so that the overlay stays up to date. May be called by any thread.
+     */
+    public void toggleDebugOverlay() {
+        debugOverlayVisible = !debugOverlayVisible;
+        repaintRequested = true;
+        scheduler.wakeUp();
+        repaint();
     }
 
     /**
      * Sets the game state to {@link GamePanel#ENDED} and, therefore, finishes related processes.
      */
     public void close() {
-        setState(ENDED);
+        session.close();
+        scheduler.wakeUp();
+    }
+
+    /**
+     * Determines whether the game loop has nothing to do until input arrives: the game is paused, or it is being played,
+     * but nothing is animated, no tile selection (which follows the pointer) is ongoing and no input is waiting to be processed (including events of a watched replay).
+     * In active rendering mode, a frame that has lost its contents also has to be rendered first.
+     * The loop never idles while the debug overlay is shown.
+     * Is called by the game loop thread.
+     *
+     * @return true if the game loop may sleep
+     */
+    private boolean isIdle() {
+        ActionHandler actionHandler = session.getActionHandler();
+        return switch (session.getState()) {
+            case PAUSED -> !actionHandler.isPriorityAction(GameAction.UNPAUSE);
+            case PLAYING -> session.isIdle() && !actionHandler.anyActionScheduled() && (replayPlayer == null || !replayPlayer.hasNext());
+            default -> false;
+        } && (renderer == null || !renderer.isFrameLost()) && !debugOverlayVisible;
+    }
+
+    /**
+     * Mirrors state of an active ability onto its element in the level menu.
+     *
+     * @param ability active ability
+     */
+    private void updateAbilityElement(ActiveAbility ability) {
+        AbilityManager abilityManager = session.getAbilityManager();
+        LevelMenu.Ability element;
+        if (ability == abilityManager.getAttack()) element = base.getAttack();
+        else if (ability == abilityManager.getActive1()) element = base.getActiveAbility1();
+        else element = base.getActiveAbility2();
+        if (ability.getState() == GameModifier.APPLICABLE) element.removeCover();
+        else element.setCover(ability.getCurrentCooldown());
     }
 }
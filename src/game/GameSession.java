@@ -0,0 +1,479 @@
+package game;
+
+import data.LevelData;
+import data.LevelIdentifier;
+import data.PlayerData;
+import game.abilities.AbilityManager;
+import game.abilities.ActiveAbility;
+import game.events.*;
+import game.gameobjects.Board;
+import game.gameobjects.BoardCell;
+import game.gameobjects.Entity;
+import game.gameobjects.particles.ParticleManager;
+import game.instrumentation.Instrumentation;
+import game.obstacles.ObstacleManager;
+import game.utils.GamePanelGraphics;
+import game.utils.SessionRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of a single playthrough of a level: board, entity, countdown, obstacles and abilities, along with the win and lose rules.
+ * <br>
+ * The session knows nothing about Swing, audio or the level menu. {@link GamePanel} drives it frame by frame and attaches
+ * presentation through {@link SessionListener}s and {@link GameOverListener}s. A session created with headless graphics
+ * can instead be played directly through {@link GameSession#move(int)}, {@link GameSession#attack(BoardCell)} etc.,
+ * which resolve all animations instantly, so no display, textures or game thread are needed.
+ *
+ * @author Artem Novak
+ */
+public class GameSession {
+    // Game state
+    public static final int PLAYING = 0, PAUSED = 1, ENDING = 2, ENDED = 3;
+    // Game mode
+    public static final int GAME_MODE_ATTACK = 0, GAME_MODE_REPAIR = 1;
+
+    private final LevelData levelData;
+    private final PlayerData playerData;
+    private final GamePanelGraphics graphics;
+    private final SessionRandom random;
+
+    private final ActionHandler actionHandler = new ActionHandler();
+
+    private final Countdown countdown;
+    private final Board board;
+    private final Entity entity;
+    private final ObstacleManager obstacleManager;
+    private final AbilityManager abilityManager;
+    private final ParticleManager particleManager;
+
+    private final List<SessionListener> sessionListeners = new ArrayList<>();
+    private final List<GameOverListener> gameOverListeners = new ArrayList<>();
+    private final List<StateListener> stateListeners = new ArrayList<>();
+    private final List<PlayerInputListener> playerInputListeners = new ArrayList<>();
+
+    private final int baseTileDamage;
+    private final int gameMode;
+
+    private int state = PLAYING;
+    private int stars;
+    private boolean resultRecorded;
+    private long tick;
+
+    private Instrumentation instrumentation;
+
+    /**
+     * Constructs a session that is not meant to be rendered.
+     *
+     * @param levelData {@link LevelData} object storing information about the level
+     * @param playerData {@link PlayerData} object storing information about the player profile (selected abilities, results)
+     */
+    public GameSession(LevelData levelData, PlayerData playerData) {
+        this(levelData, playerData, levelData.generateHeadlessGraphics(), new SessionRandom());
+    }
+
+    /**
+     * Constructs a session that is not meant to be rendered, with all of its game logic randomness determined by the seed.
+     *
+     * @param levelData {@link LevelData} object storing information about the level
+     * @param playerData {@link PlayerData} object storing information about the player profile (selected abilities, results)
+     * @param seed seed of the session's randomness (see {@link SessionRandom})
+     */
+    public GameSession(LevelData levelData, PlayerData playerData, long seed) {
+        this(levelData, playerData, levelData.generateHeadlessGraphics(), new SessionRandom(seed));
+    }
+
+    /**
+     * Constructs a session with given graphics manager object.
+     *
+     * @param levelData {@link LevelData} object storing information about the level
+     * @param playerData {@link PlayerData} object storing information about the player profile (selected abilities, results)
+     * @param graphics graphics manager of the level (see {@link GamePanelGraphics#createHeadless(int, int)} for sessions that are not rendered)
+     */
+    public GameSession(LevelData levelData, PlayerData playerData, GamePanelGraphics graphics) {
+        this(levelData, playerData, graphics, new SessionRandom());
+    }
+
+    /**
+     * Constructs a session with given graphics manager object and random number service.
+     *
+     * @param levelData {@link LevelData} object storing information about the level
+     * @param playerData {@link PlayerData} object storing information about the player profile (selected abilities, results)
+     * @param graphics graphics manager of the level
+     * @param random random number service providing all randomness of the session (tile spawns, obstacles, abilities, cosmetics)
+     */
+    public GameSession(LevelData levelData, PlayerData playerData, GamePanelGraphics graphics, SessionRandom random) {
+        this.levelData = levelData;
+        this.playerData = playerData;
+        this.graphics = graphics;
+        this.random = random;
+        this.baseTileDamage = levelData.getBaseTileDamage();
+        this.gameMode = levelData.getGameMode();
+        this.particleManager = graphics.isHeadless() ? null : new ParticleManager(graphics, random.getCosmetics());
+        this.entity = new Entity(0, 0, levelData.getEntityHealth(), levelData.getEntityTolerance(), this);
+        this.board = new Board(0, GamePanelGraphics.ENTITY_HEIGHT + GamePanelGraphics.ENTITY_BOARD_DISTANCE, levelData.getBoardSize(), levelData.getBoardSize(), 1, this);
+        board.setX((GamePanelGraphics.ENTITY_WIDTH - board.getPreferredWidth())/2f);
+        board.generateRandomTile();
+        board.generateRandomTile();
+        this.countdown = new Countdown(levelData.getTurns(), this);
+        this.obstacleManager = new ObstacleManager(levelData.getObstacleWeights(), levelData.getMinObstacleInterval(), levelData.getMaxObstacleInterval(), this);
+        this.abilityManager = new AbilityManager(playerData.getActiveAbility1(), playerData.getActiveAbility2(), playerData.getPassiveAbility(), this);
+
+        // Tracking level 11 tiles and starting an attack with one as soon as it appears.
+        board.addTurnListener(() -> {
+            if (state != ENDING) {
+                if (board.getTileCount(11) > 0) {
+                    BoardCell cell = board.getCell(board.getTileMask(11), 0);
+                    setState(ENDING);
+                    board.addStateListener(new StateListener() {
+                        @Override
+                        public void onStateChanged(int oldState, int newState) {
+                            if (oldState == Board.ANIMATING && newState == Board.IDLE) {
+                                // When there are actually no other scheduled animations left (if there are, they set board's state to ANIMATING).
+                                if (board.getState() == Board.IDLE) {
+                                    board.removeStateListener(this);
+                                    abilityManager.getAttack().startAttack(cell);
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+        });
+
+        countdown.start();
+    }
+
+    /**
+     * Updates all components of the session by one frame.
+     */
+    public void update() {
+        if (state != PAUSED) {
+            long time = instrumentation == null ? 0 : instrumentation.startTick();
+            if (state != ENDING) {
+                abilityManager.update();
+            }
+            time = lap(Instrumentation.ABILITIES, time);
+            entity.update();
+            time = lap(Instrumentation.ENTITY, time);
+            board.update();
+            time = lap(Instrumentation.BOARD, time);
+            if (particleManager != null) particleManager.update();
+            lap(Instrumentation.PARTICLES, time);
+            if (state == ENDING && isIdle()) setState(ENDED);
+            if (instrumentation != null) instrumentation.endTick();
+            tick++;
+        }
+    }
+
+    /**
+     * Records an update of a subsystem if the session is instrumented.
+     *
+     * @return time the next subsystem's update starts at
+     */
+    private long lap(int subsystem, long start) {
+        return instrumentation == null ? 0 : instrumentation.lap(subsystem, start);
+    }
+
+    /**
+     * Makes a turn in the given direction and settles the session.
+     *
+     * @param direction one of {@link Board#UP}, {@link Board#DOWN}, {@link Board#LEFT}, {@link Board#RIGHT}
+     * @return true if the turn was made
+     */
+    public boolean move(int direction) {
+        if (state != PLAYING || board.isLocked() || board.getState() == Board.SELECTING) return false;
+        boolean turnMade = board.move(direction);
+        settle();
+        return turnMade;
+    }
+
+    /**
+     * Attacks from the given cell and settles the session.
+     *
+     * @param cell cell of the tile to attack with
+     * @return true if the attack was made
+     */
+    public boolean attack(BoardCell cell) {
+        return applyAbility(abilityManager.getAttack(), abilityManager::attemptAttack, cell);
+    }
+
+    /**
+     * Applies the first active ability, selecting the given cells if it requires a selection, and settles the session.
+     *
+     * @param cells cells to select
+     * @return true if the ability was applied (or, for abilities that wait for an event, started applying)
+     */
+    public boolean useActive1(BoardCell... cells) {
+        return applyAbility(abilityManager.getActive1(), abilityManager::attemptActive1, cells);
+    }
+
+    /**
+     * Applies the second active ability, selecting the given cells if it requires a selection, and settles the session.
+     *
+     * @param cells cells to select
+     * @return true if the ability was applied (or, for abilities that wait for an event, started applying)
+     */
+    public boolean useActive2(BoardCell... cells) {
+        return applyAbility(abilityManager.getActive2(), abilityManager::attemptActive2, cells);
+    }
+
+    /**
+     * Instantly resolves all animations along with the logic deferred until their end, and finishes the game if it is ending.
+     * Is meant for sessions that are not rendered and is called by all of their actions.
+     */
+    public void settle() {
+        board.settle();
+        if (state == ENDING && isIdle()) setState(ENDED);
+    }
+
+    /**
+     * Finishes the game without any changes to {@link PlayerData} object and triggers {@link GameOverListener#onLose()} methods.
+     */
+    public void loseLevel() {
+        setState(ENDING);
+        if (board.getState() == Board.SELECTING) board.abortSelection();
+        board.setLocked(true);
+
+        addStateListener((oldState, newState) -> {
+            for (GameOverListener listener : new ArrayList<>(gameOverListeners)) listener.onLose();
+        });
+    }
+
+    /**
+     * Finishes the game, writes necessary information about level completion into the {@link PlayerData} object
+     * and triggers {@link GameOverListener#onWin(boolean)} methods.
+     */
+    public void winLevel() {
+        setState(ENDING);
+        if (board.getState() == Board.SELECTING) board.abortSelection();
+        board.setLocked(true);
+
+        LevelIdentifier level = levelData.getLevelIdentifier();
+        boolean unlockedAbility;
+        stars = 1;
+        if (countdown.getTurns() >= levelData.getThreeStarThreshold()) stars = 3;
+        else if (countdown.getTurns() >= levelData.getTwoStarThreshold()) stars = 2;
+        unlockedAbility = stars > 1 && !playerData.getUnlockedAbilities().contains(levelData.getRewardAbility());
+        // Checking whether new information should be written.
+        if (!playerData.isLevelCompleted(level) || countdown.getTurns() > playerData.getLevelTurnsLeft(level)) {
+            playerData.setLevelBestResult(level, countdown.getTurns(), stars);
+            if (levelData.getNextLevelIdentifier() != null && !playerData.isLevelUnlocked(levelData.getNextLevelIdentifier())) playerData.unlockLevel(levelData.getNextLevelIdentifier());
+            if (unlockedAbility) playerData.unlockAbility(levelData.getRewardAbility());
+            resultRecorded = true;
+        }
+
+        addStateListener((oldState, newState) -> {
+            for (GameOverListener listener : new ArrayList<>(gameOverListeners)) listener.onWin(unlockedAbility);
+        });
+    }
+
+    /**
+     * Requests a sound effect from the session listeners.
+     *
+     * @param nameID sound effect NameID
+     */
+    public void playSound(String nameID) {
+        for (SessionListener listener : new ArrayList<>(sessionListeners)) listener.onSoundEffect(nameID);
+    }
+
+    public void notifyTurnsLeftChanged(int turns) {
+        for (SessionListener listener : new ArrayList<>(sessionListeners)) listener.onTurnsLeftChanged(turns);
+    }
+
+    public void notifyHealthChanged(long health) {
+        for (SessionListener listener : new ArrayList<>(sessionListeners)) listener.onHealthChanged(health);
+    }
+
+    public void notifyAbilityUpdated(ActiveAbility ability) {
+        for (SessionListener listener : new ArrayList<>(sessionListeners)) listener.onAbilityUpdated(ability);
+    }
+
+    public void notifyMove(int direction) {
+        for (PlayerInputListener listener : new ArrayList<>(playerInputListeners)) listener.onMove(direction);
+    }
+
+    public void notifyAbilityAttempted(GameAction ability) {
+        for (PlayerInputListener listener : new ArrayList<>(playerInputListeners)) listener.onAbilityAttempted(ability);
+    }
+
+    public void notifyCellSelected(BoardCell cell) {
+        for (PlayerInputListener listener : new ArrayList<>(playerInputListeners)) listener.onCellSelected(cell);
+    }
+
+    public void notifySelectionAborted() {
+        for (PlayerInputListener listener : new ArrayList<>(playerInputListeners)) listener.onSelectionAborted();
+    }
+
+    public GamePanelGraphics getGameGraphics() {
+        return graphics;
+    }
+
+    public LevelData getLevelData() {
+        return levelData;
+    }
+
+    public PlayerData getPlayerData() {
+        return playerData;
+    }
+
+    /**
+     * @return random number service of the session
+     */
+    public SessionRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Sets instrumentation that records durations of this session's updates (see {@link Instrumentation#attach(GameSession)}).
+     *
+     * @param instrumentation instrumentation, or null to stop recording
+     */
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * @return number of updates made while the game was not paused (a session that is not rendered always stays at 0)
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public ActionHandler getActionHandler() {
+        return actionHandler;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public void setState(int state) {
+        if (state < 0 || state > 3) throw new IllegalArgumentException("GameSession does not support state " + state);
+        if (state != this.state) {
+            int oldState = this.state;
+            this.state = state;
+            for (StateListener listener : new ArrayList<>(stateListeners)) listener.onStateChanged(oldState, state);
+        }
+    }
+
+    /**
+     * Returns this session's {@link Countdown} object.
+     *
+     * @return countdown
+     */
+    public Countdown getCountdown() {
+        return countdown;
+    }
+
+    public int getBaseTileDamage() {
+        return baseTileDamage;
+    }
+
+    public ObstacleManager getObstacleManager() {
+        return obstacleManager;
+    }
+
+    public AbilityManager getAbilityManager() {
+        return abilityManager;
+    }
+
+    /**
+     * @return particle manager, or null if the session is not rendered
+     */
+    public ParticleManager getParticleManager() {
+        return particleManager;
+    }
+
+    public int getGameMode() {
+        return gameMode;
+    }
+
+    /**
+     * @return stars earned for the level, or 0 if it was not won
+     */
+    public int getStars() {
+        return stars;
+    }
+
+    /**
+     * @return true if the win has been written into the {@link PlayerData} object (which then needs saving)
+     */
+    public boolean isResultRecorded() {
+        return resultRecorded;
+    }
+
+    public void addSessionListener(SessionListener listener) {
+        sessionListeners.add(listener);
+    }
+
+    public void removeSessionListener(SessionListener listener) {
+        sessionListeners.remove(listener);
+    }
+
+    public void addGameOverListener(GameOverListener listener) {
+        gameOverListeners.add(listener);
+    }
+
+    public void removeGameOverListener(GameOverListener listener) {
+        gameOverListeners.remove(listener);
+    }
+
+    public void addStateListener(StateListener listener) {
+        stateListeners.add(listener);
+    }
+
+    public void removeStateListener(StateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    public void addPlayerInputListener(PlayerInputListener listener) {
+        playerInputListeners.add(listener);
+    }
+
+    public void removePlayerInputListener(PlayerInputListener listener) {
+        playerInputListeners.remove(listener);
+    }
+
+    /**
+     * Sets the game state to {@link GameSession#ENDED} and, therefore, finishes related processes.
+     */
+    public void close() {
+        setState(ENDED);
+    }
+
+    /**
+     * @return true if there are no ongoing animations
+     */
+    public boolean isIdle() {
+        return board.getState() == Board.IDLE && entity.getState() == Entity.IDLE && (particleManager == null || particleManager.getState() == ParticleManager.IDLE);
+    }
+
+    private boolean applyAbility(ActiveAbility ability, Runnable attempt, BoardCell... cells) {
+        if (state != PLAYING || ability == null || board.isLocked() || ability.getState() != GameModifier.APPLICABLE) return false;
+        boolean[] applied = new boolean[1];
+        AbilityListener listener = () -> applied[0] = true;
+        ability.addAbilityListener(listener);
+        attempt.run();
+        for (BoardCell cell : cells) board.selectCell(cell);
+        // Has effect only if given cells did not complete the selection.
+        if (board.getState() == Board.SELECTING) notifySelectionAborted();
+        board.abortSelection();
+        ability.removeAbilityListener(listener);
+        settle();
+        return applied[0] || ability.getState() == GameModifier.APPLYING;
+    }
+}
@@ -29,45 +29,42 @@ public class KeyHandler extends KeyAdapter {
     @Override
     public void keyPressed(KeyEvent e) {
         int key = e.getKeyCode();
-        if (gp.getState() == GamePanel.PLAYING) {
+        if (key == KeyEvent.VK_F3) gp.toggleDebugOverlay();
+        else if (gp.getState() == GamePanel.PLAYING) {
             if (board.getState() == Board.IDLE || board.getState() == Board.ANIMATING) {
-                if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) actionHandler.scheduleAction("up");
-                else if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) actionHandler.scheduleAction("down");
-                else if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) actionHandler.scheduleAction("left");
-                else if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) actionHandler.scheduleAction("right");
-                else if (key == KeyEvent.VK_SPACE) actionHandler.scheduleAction("attack");
-                else if (key == KeyEvent.VK_1) actionHandler.scheduleAction("active1");
-                else if (key == KeyEvent.VK_2) actionHandler.scheduleAction("active2");
-                else if (key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction("pause");
+                if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) actionHandler.scheduleAction(GameAction.UP);
+                else if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) actionHandler.scheduleAction(GameAction.DOWN);
+                else if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) actionHandler.scheduleAction(GameAction.LEFT);
+                else if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) actionHandler.scheduleAction(GameAction.RIGHT);
+                else if (key == KeyEvent.VK_SPACE) actionHandler.scheduleAction(GameAction.ATTACK);
+                else if (key == KeyEvent.VK_1) actionHandler.scheduleAction(GameAction.ACTIVE1);
+                else if (key == KeyEvent.VK_2) actionHandler.scheduleAction(GameAction.ACTIVE2);
+                else if (key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction(GameAction.PAUSE);
             }
             else if (board.getState() == Board.SELECTING) {
-                if (key == KeyEvent.VK_SPACE) actionHandler.scheduleAction("attack");
-                else if (key == KeyEvent.VK_1) actionHandler.scheduleAction("active1");
-                else if (key == KeyEvent.VK_2) actionHandler.scheduleAction("active2");
-                else if (key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction("abortSelection");
+                if (key == KeyEvent.VK_SPACE) actionHandler.scheduleAction(GameAction.ATTACK);
+                else if (key == KeyEvent.VK_1) actionHandler.scheduleAction(GameAction.ACTIVE1);
+                else if (key == KeyEvent.VK_2) actionHandler.scheduleAction(GameAction.ACTIVE2);
+                else if (key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction(GameAction.ABORT_SELECTION);
             }
         }
-        else if (gp.getState() == GamePanel.PAUSED && key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction("unpause");
+        else if (gp.getState() == GamePanel.PAUSED && key == KeyEvent.VK_ESCAPE) actionHandler.scheduleAction(GameAction.UNPAUSE);
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
         int key = e.getKeyCode();
-        if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) actionHandler.clearAction("up");
-        else if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) actionHandler.clearAction("down");
-        else if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) actionHandler.clearAction("left");
-        else if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) actionHandler.clearAction("right");
-        else if (key == KeyEvent.VK_SPACE) actionHandler.clearAction("attack");
-        else if (key == KeyEvent.VK_1) actionHandler.clearAction("active1");
-        else if (key == KeyEvent.VK_2) actionHandler.clearAction("active2");
-        else if (key == KeyEvent.VK_ESCAPE) actionHandler.clearAction("pause");
-        if (key == KeyEvent.VK_SPACE) actionHandler.clearAction("attack");
-        else if (key == KeyEvent.VK_1) actionHandler.clearAction("active1");
-        else if (key == KeyEvent.VK_2) actionHandler.clearAction("active2");
+        if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) actionHandler.releaseAction(GameAction.UP);
+        else if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) actionHandler.releaseAction(GameAction.DOWN);
+        else if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) actionHandler.releaseAction(GameAction.LEFT);
+        else if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) actionHandler.releaseAction(GameAction.RIGHT);
+        else if (key == KeyEvent.VK_SPACE) actionHandler.releaseAction(GameAction.ATTACK);
+        else if (key == KeyEvent.VK_1) actionHandler.releaseAction(GameAction.ACTIVE1);
+        else if (key == KeyEvent.VK_2) actionHandler.releaseAction(GameAction.ACTIVE2);
         else if (key == KeyEvent.VK_ESCAPE) {
-            actionHandler.clearAction("abortSelection");
-            actionHandler.clearAction("pause");
-            actionHandler.clearAction("unpause");
+            actionHandler.releaseAction(GameAction.ABORT_SELECTION);
+            actionHandler.releaseAction(GameAction.PAUSE);
+            actionHandler.releaseAction(GameAction.UNPAUSE);
         }
     }
 }
@@ -2,11 +2,17 @@ package game;
 
 import game.gameobjects.Board;
 
+import javax.swing.*;
+import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 /**
- * Class that implements methods for scheduling mouse-related game actions, namely tile selection.
+ * Class that implements methods for scheduling mouse-related game actions, namely tile selection,
+ * and tracks the pointer location for the game loop.
+ * <br>
+ * Is to be registered both as a mouse listener and as a mouse motion listener. Every mouse event publishes the pointer location
+ * relative to the game panel, so the game loop reads it without asking the window system.
  *
  * @author Artem Novak
  */
@@ -14,6 +20,7 @@ public class MouseHandler extends MouseAdapter {
     private final GamePanel gp;
     private final Board board;
     private final ActionHandler actionHandler;
+    private volatile Point pointer; // Immutable once published, null if the pointer is outside the window.
 
     /**
      * Constructs a MouseHandler.
@@ -28,14 +35,47 @@ public class MouseHandler extends MouseAdapter {
 
     @Override
     public void mousePressed(MouseEvent e) {
+        track(e);
         if (gp.getState() == GamePanel.PLAYING && board.getState() == Board.SELECTING) {
             if (e.getButton() == MouseEvent.BUTTON1) {
-                actionHandler.scheduleAction("selectTile");
+                actionHandler.scheduleAction(GameAction.SELECT_TILE);
             }
             else if (e.getButton() == MouseEvent.BUTTON3) {
-                actionHandler.scheduleAction("abortSelection");
+                actionHandler.scheduleAction(GameAction.ABORT_SELECTION);
             }
         }
     }
 
+    @Override
+    public void mouseMoved(MouseEvent e) {
+        track(e);
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        track(e);
+    }
+
+    @Override
+    public void mouseEntered(MouseEvent e) {
+        track(e);
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+        pointer = null;
+    }
+
+    /**
+     * Gets the latest pointer location. May be called by any thread.
+     *
+     * @return pointer location relative to the game panel, which must not be modified, or null if it is unknown
+     */
+    public Point getPointerLocation() {
+        return pointer;
+    }
+
+    private void track(MouseEvent e) {
+        pointer = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), gp);
+    }
 }
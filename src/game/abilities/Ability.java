@@ -1,7 +1,7 @@
 package game.abilities;
 
 import game.GameModifier;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 
 import java.util.ArrayList;
@@ -17,8 +17,8 @@ public abstract class Ability extends GameModifier {
     protected final List<AbilityListener> abilityListeners = new ArrayList<>();
     protected final AbilityManager abilityManager;
 
-    public Ability(GamePanel gp, AbilityManager abilityManager) {
-        super(gp);
+    public Ability(GameSession session, AbilityManager abilityManager) {
+        super(session);
         this.abilityManager = abilityManager;
     }
 
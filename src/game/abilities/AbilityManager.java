@@ -1,13 +1,12 @@
 package game.abilities;
 
-import UI.LevelMenu;
 import game.GameLogicException;
 import game.GameModifier;
-import game.GamePanel;
+import game.GameSession;
 import game.ActionHandler;
+import game.GameAction;
 import game.events.AbilityListener;
 import game.gameobjects.Board;
-import misc.AudioManager;
 
 /**
  * Class that handles application of abilities.
@@ -20,8 +19,7 @@ public class AbilityManager {
     private final ActiveAbility active1;
     private final ActiveAbility active2;
     private final PassiveAbility passive;
-    private final GamePanel gp;
-    private final LevelMenu ui;
+    private final GameSession session;
     private final ActionHandler actionHandler;
     private final Board board;
 
@@ -31,17 +29,16 @@ public class AbilityManager {
      * @param active1 NameID of the first selected active ability (or null if no such ability selected)
      * @param active2 NameID of the second selected active ability (or null if no such ability selected)
      * @param passive NameID of the selected passive ability (or null if no such ability selected)
-     * @param gp base {@link GamePanel}
+     * @param session base {@link GameSession}
      */
-    public AbilityManager(String active1, String active2, String passive, GamePanel gp) {
+    public AbilityManager(String active1, String active2, String passive, GameSession session) {
         if (active1 == null && active2 != null) throw new GameLogicException("Trying to pass an active ability into the second slot while the first is empty");
-        this.gp = gp;
-        this.ui = gp.getBase();
-        this.board = gp.getBoard();
-        this.actionHandler = gp.getActionHandler();
-        this.attack = new Attack(gp, this, ui.getAttack());
-        this.active1 = registerActiveAbility(active1, ui.getActiveAbility1());
-        this.active2 = registerActiveAbility(active2, ui.getActiveAbility2());
+        this.session = session;
+        this.board = session.getBoard();
+        this.actionHandler = session.getActionHandler();
+        this.attack = new Attack(session, this);
+        this.active1 = registerActiveAbility(active1);
+        this.active2 = registerActiveAbility(active2);
         this.passive = registerPassiveAbility(passive);
         attack.addAbilityListener(() -> {
             attack.updateApplicability();
@@ -52,7 +49,7 @@ public class AbilityManager {
             attack.updateApplicability();
             if (this.active1 != null) this.active1.updateApplicability();
             if (active2 != null) this.active2.updateApplicability();
-            AudioManager.playSFX("ability");
+            session.playSound("ability");
         };
         if (this.active1 != null) this.active1.addAbilityListener(abilityListener);
         if (this.active2 != null) this.active2.addAbilityListener(abilityListener);
@@ -63,12 +60,12 @@ public class AbilityManager {
      * Monitors keyboard ability activation.
      */
     public void update() {
-        if (actionHandler.anyActionScheduled()) {
-            switch (actionHandler.getPriorityAction()) {
-                case "attack" -> attemptAttack();
-                case "active1" -> attemptActive1();
-                case "active2" -> attemptActive2();
-            }
+        GameAction action = actionHandler.getPriorityAction();
+        if (action == null) return;
+        switch (action) {
+            case ATTACK -> attemptAttack();
+            case ACTIVE1 -> attemptActive1();
+            case ACTIVE2 -> attemptActive2();
         }
     }
 
@@ -78,7 +75,8 @@ public class AbilityManager {
      * Preferred method for outside access.
      */
     public void attemptAttack() {
-        actionHandler.clearAction("attack");
+        actionHandler.clearAction(GameAction.ATTACK);
+        session.notifyAbilityAttempted(GameAction.ATTACK);
         if (!board.isLocked() && attack.getState() == GameModifier.APPLICABLE) attack.startApplication();
     }
 
@@ -88,7 +86,8 @@ public class AbilityManager {
      * Preferred method for outside access.
      */
     public void attemptActive1() {
-        actionHandler.clearAction("active1");
+        actionHandler.clearAction(GameAction.ACTIVE1);
+        session.notifyAbilityAttempted(GameAction.ACTIVE1);
         if (active1 != null && !board.isLocked() && active1.getState() == GameModifier.APPLICABLE) active1.startApplication();
     }
 
@@ -98,7 +97,8 @@ public class AbilityManager {
      * Preferred method for outside access.
      */
     public void attemptActive2() {
-        actionHandler.clearAction("active2");
+        actionHandler.clearAction(GameAction.ACTIVE2);
+        session.notifyAbilityAttempted(GameAction.ACTIVE2);
         if (active2 != null && !board.isLocked() && active2.getState() == GameModifier.APPLICABLE) active2.startApplication();
     }
 
@@ -125,25 +125,25 @@ public class AbilityManager {
     private PassiveAbility registerPassiveAbility(String nameID) {
         if (nameID == null) return null;
         return switch (nameID) {
-            case "betterBaseLevel" -> new BetterBaseLevel(gp, this);
-            case "bonusDamage" -> new BonusDamage(gp, this);
-            case "bonusTurns" -> new BonusTurns(gp, this);
-            case "cooldownReduction" -> new CooldownReduction(gp, this);
-            case "resistance" -> new Resistance(gp, this);
+            case "betterBaseLevel" -> new BetterBaseLevel(session, this);
+            case "bonusDamage" -> new BonusDamage(session, this);
+            case "bonusTurns" -> new BonusTurns(session, this);
+            case "cooldownReduction" -> new CooldownReduction(session, this);
+            case "resistance" -> new Resistance(session, this);
             default -> throw new IllegalArgumentException("Passive ability " + nameID + " does not exist");
         };
     }
 
-    private ActiveAbility registerActiveAbility(String nameID, LevelMenu.Ability updatedElement) {
+    private ActiveAbility registerActiveAbility(String nameID) {
         if (nameID == null) return null;
         return switch (nameID) {
-            case "crit" -> new Crit(gp, this, updatedElement);
-            case "dispose" -> new Dispose(gp, this, updatedElement);
-            case "merge" -> new Merge(gp, this, updatedElement);
-            case "safeAttack" -> new SafeAttack(gp, this, updatedElement);
-            case "scramble" -> new Scramble(gp, this, updatedElement);
-            case "swap" -> new Swap(gp, this, updatedElement);
-            case "upgrade" -> new Upgrade(gp, this, updatedElement);
+            case "crit" -> new Crit(session, this);
+            case "dispose" -> new Dispose(session, this);
+            case "merge" -> new Merge(session, this);
+            case "safeAttack" -> new SafeAttack(session, this);
+            case "scramble" -> new Scramble(session, this);
+            case "swap" -> new Swap(session, this);
+            case "upgrade" -> new Upgrade(session, this);
             default -> throw new IllegalArgumentException("Active ability " + nameID + " does not exist");
         };
     }
@@ -1,8 +1,7 @@
 package game.abilities;
 
-import UI.LevelMenu;
 import game.GameLogicException;
-import game.GamePanel;
+import game.GameSession;
 import game.gameobjects.Board;
 
 /**
@@ -11,19 +10,17 @@ import game.gameobjects.Board;
  * @author Artem Novak
  */
 public abstract class ActiveAbility extends Ability {
-    protected final LevelMenu.Ability updatedElement;
     protected final Board board;
     protected final AbilityManager manager;
 
     protected int cooldown;
     protected int currentCooldown;
 
-    public ActiveAbility(GamePanel gp, AbilityManager abilityManager, int defaultCooldown, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager);
-        this.board = gp.getBoard();
-        this.manager = gp.getAbilityManager();
+    public ActiveAbility(GameSession session, AbilityManager abilityManager, int defaultCooldown) {
+        super(session, abilityManager);
+        this.board = session.getBoard();
+        this.manager = session.getAbilityManager();
         this.cooldown = defaultCooldown;
-        this.updatedElement = updatedElement;
         // Determines whether the ability is applicable after a turn.
         board.addTurnListener(() -> {
             if (currentCooldown > 0) setCurrentCooldown(currentCooldown - 1); // Determines applicability because of currentCooldown change.
@@ -84,8 +81,7 @@ public abstract class ActiveAbility extends Ability {
     @Override
     public void setState(int state) {
         super.setState(state);
-        if (state == APPLICABLE) updatedElement.removeCover();
-        else updatedElement.setCover(currentCooldown);
+        session.notifyAbilityUpdated(this);
     }
 
     @Override
@@ -1,8 +1,7 @@
 package game.abilities;
 
-import UI.LevelMenu;
 import game.GameLogicException;
-import game.GamePanel;
+import game.GameSession;
 import game.events.*;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
@@ -30,13 +29,13 @@ public class Attack extends ActiveAbility {
     private final Point targetPoint;
     private final ArrayList<AttackListener> attackListeners = new ArrayList<>();
 
-    public Attack(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
-        this.board = gp.getBoard();
-        this.entity = gp.getEntity();
-        GamePanelGraphics graphics = gp.getGameGraphics();
-        int targetX = (int)(gp.getEntity().getX() + (GamePanelGraphics.ENTITY_WIDTH - graphics.getTileSize())/2f);
-        int targetY = (int)(gp.getEntity().getY() + (GamePanelGraphics.ENTITY_HEIGHT - graphics.getTileSize())/2f);
+    public Attack(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
+        this.board = session.getBoard();
+        this.entity = session.getEntity();
+        GamePanelGraphics graphics = session.getGameGraphics();
+        int targetX = (int)(session.getEntity().getX() + (GamePanelGraphics.ENTITY_WIDTH - graphics.getTileSize())/2f);
+        int targetY = (int)(session.getEntity().getY() + (GamePanelGraphics.ENTITY_HEIGHT - graphics.getTileSize())/2f);
         targetPoint = new Point(targetX, targetY);
         updateApplicability();
     }
@@ -94,29 +93,26 @@ public class Attack extends ActiveAbility {
         if (tile == null) throw new GameLogicException("Trying to attack from empty cell");
         board.disposeCellContent(cell);
         board.animateTileMoveTransient(tile, targetPoint);
-        AttackEvent attackEvent = new AttackEvent(cell, tile, gp.getBaseTileDamage());
+        AttackEvent attackEvent = new AttackEvent(cell, tile, session.getBaseTileDamage());
         board.addStateListener(new StateListener() {
             @Override
             public void onStateChanged(int oldState, int newState) {
                 if (oldState == Board.ANIMATING && newState == Board.IDLE) {
                     board.removeStateListener(this);
-                    if (gp.getGameMode() == GamePanel.GAME_MODE_ATTACK) entity.animateDamage(attackEvent.getDamage());
+                    if (session.getGameMode() == GameSession.GAME_MODE_ATTACK) entity.animateDamage(attackEvent.getDamage());
                     else entity.animateHealing(attackEvent.getDamage());
                 }
             }
         });
         for (AttackListener listener : new ArrayList<>(attackListeners)) listener.onAttack(attackEvent); // Attack event may potentially be modified.
-        if (gp.getGameMode() == GamePanel.GAME_MODE_ATTACK) entity.takeDamage(attackEvent.getDamage());
+        if (session.getGameMode() == GameSession.GAME_MODE_ATTACK) entity.takeDamage(attackEvent.getDamage());
         else entity.takeHealing(attackEvent.getDamage());
         board.setState(Board.ANIMATING);
     }
 
     @Override
     protected boolean determineApplicability() {
-        return super.determineApplicability() && !board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        }).isEmpty();
+        return super.determineApplicability() && board.getUnlockedTileMask() != 0;
     }
 
     public void addAttackListener(AttackListener listener) {
@@ -1,6 +1,6 @@
 package game.abilities;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 
 import java.util.ArrayList;
@@ -13,8 +13,8 @@ import java.util.ArrayList;
 public class BetterBaseLevel extends PassiveAbility {
     public static final int LEVEL_INCREASE = 1;
 
-    public BetterBaseLevel(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
+    public BetterBaseLevel(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
     }
 
     @Override
@@ -28,7 +28,7 @@ public class BetterBaseLevel extends PassiveAbility {
     @Override
     public void startApplication() {
         super.startApplication();
-        gp.getBoard().setBaseTileLevel(gp.getBoard().getBaseTileLevel() + LEVEL_INCREASE);
+        session.getBoard().setBaseTileLevel(session.getBoard().getBaseTileLevel() + LEVEL_INCREASE);
         for (AbilityListener listener : new ArrayList<>(abilityListeners)) listener.onAbilityApplied();
     }
 }
@@ -1,6 +1,6 @@
 package game.abilities;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 
 import java.util.ArrayList;
@@ -13,8 +13,8 @@ import java.util.ArrayList;
 public class BonusDamage extends PassiveAbility {
     public static final int ADDED_PERCENTAGE = 50;
 
-    public BonusDamage(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
+    public BonusDamage(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
     }
 
     @Override
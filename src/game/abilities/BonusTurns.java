@@ -1,6 +1,6 @@
 package game.abilities;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 
 import java.util.ArrayList;
@@ -13,8 +13,8 @@ import java.util.ArrayList;
 public class BonusTurns extends PassiveAbility {
     public static final int ADDED_PERCENTAGE = 30;
 
-    public BonusTurns(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
+    public BonusTurns(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
     }
 
     @Override
@@ -28,7 +28,7 @@ public class BonusTurns extends PassiveAbility {
     @Override
     public void startApplication() {
         super.startApplication();
-        gp.getCountdown().offsetTurns((int)(gp.getCountdown().getDedicatedTurns() * ADDED_PERCENTAGE / 100f));
+        session.getCountdown().offsetTurns((int)(session.getCountdown().getDedicatedTurns() * ADDED_PERCENTAGE / 100f));
         for (AbilityListener listener : new ArrayList<>(abilityListeners)) listener.onAbilityApplied();
     }
 }
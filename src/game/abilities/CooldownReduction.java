@@ -1,6 +1,6 @@
 package game.abilities;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 
 import java.util.ArrayList;
@@ -13,8 +13,8 @@ import java.util.ArrayList;
 public class CooldownReduction extends PassiveAbility {
     public static int REDUCTION_PERCENTAGE = 40;
 
-    public CooldownReduction(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
+    public CooldownReduction(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
     }
 
     @Override
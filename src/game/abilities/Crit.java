@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.AttackEvent;
 import game.events.AttackListener;
@@ -19,8 +18,8 @@ public class Crit extends ActiveAbility {
 
     private final Attack attack;
 
-    public Crit(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Crit(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         this.attack = abilityManager.getAttack();
         updateApplicability();
     }
@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.CellSelectionListener;
 import game.gameobjects.BoardCell;
@@ -18,8 +17,8 @@ import java.util.List;
 public class Dispose extends ActiveAbility{
     public static final int DEFAULT_COOLDOWN = 15;
 
-    public Dispose(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Dispose(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         updateApplicability();
     }
 
@@ -62,6 +61,6 @@ public class Dispose extends ActiveAbility{
 
     @Override
     protected boolean determineApplicability() {
-        return super.determineApplicability() && !board.getCellsByPredicate(x -> board.getTileInCell(x) != null).isEmpty();
+        return super.determineApplicability() && board.getTileCount() > 0;
     }
 }
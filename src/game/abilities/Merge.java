@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.CellSelectionListener;
 import game.gameobjects.BoardCell;
@@ -19,8 +18,8 @@ import java.util.function.Predicate;
 public class Merge extends ActiveAbility {
     public static final int DEFAULT_COOLDOWN = 15;
 
-    public Merge(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Merge(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         updateApplicability();
     }
 
@@ -67,12 +66,11 @@ public class Merge extends ActiveAbility {
     @Override
     protected boolean determineApplicability() {
         if (super.determineApplicability()) {
-            List<BoardCell> cells = board.getCellsByPredicate(x -> {
-                Tile tile = board.getTileInCell(x);
-                return tile != null && !tile.isLocked();
-            });
-            for (BoardCell cell : cells) {
-                if (cellTileHasPair(cell)) return true;
+            int levels = 0; // Bit set of levels of the unlocked tiles checked so far.
+            for (int mask = board.getUnlockedTileMask(); mask != 0; mask &= mask - 1) {
+                int level = board.getTileInCell(board.getCell(Integer.numberOfTrailingZeros(mask))).getLevel();
+                if ((levels & (1 << level)) != 0) return true;
+                levels |= 1 << level;
             }
         }
         return false;
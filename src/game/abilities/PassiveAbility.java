@@ -1,7 +1,7 @@
 package game.abilities;
 
 import game.GameLogicException;
-import game.GamePanel;
+import game.GameSession;
 
 /**
  * Class that implements common elements of passive abilities (applied at level start and only once).
@@ -11,8 +11,8 @@ import game.GamePanel;
 public abstract class PassiveAbility extends Ability {
     protected boolean applied;
 
-    public PassiveAbility(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
+    public PassiveAbility(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
     }
 
     /**
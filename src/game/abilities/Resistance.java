@@ -1,12 +1,12 @@
 package game.abilities;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
+import game.utils.WeightedDistribution;
 import game.utils.WeightedRandom;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Class that implements functionality of "resistance" passive ability.
@@ -16,13 +16,12 @@ import java.util.Map;
 public class Resistance extends PassiveAbility {
     public static final int TRIGGER_PROBABILITY = 70;
 
-    private final WeightedRandom random = new WeightedRandom();
-    private final Map<Boolean, Integer> resultProbabilities = new HashMap<>();
+    private final WeightedRandom random;
+    private final WeightedDistribution<Boolean> resultProbabilities = new WeightedDistribution<>(List.of(true, false), TRIGGER_PROBABILITY, 100 - TRIGGER_PROBABILITY);
 
-    public Resistance(GamePanel gp, AbilityManager abilityManager) {
-        super(gp, abilityManager);
-        resultProbabilities.put(true, TRIGGER_PROBABILITY);
-        resultProbabilities.put(false, 100 - TRIGGER_PROBABILITY);
+    public Resistance(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager);
+        this.random = session.getRandom().getAbilities();
     }
 
     @Override
@@ -37,8 +36,8 @@ public class Resistance extends PassiveAbility {
     @Override
     public void startApplication() {
         super.startApplication();
-        gp.getObstacleManager().addObstacleListener(x -> {
-            if (random.weightedChoice(resultProbabilities)) x.setObstacle(null);
+        session.getObstacleManager().addObstacleListener(x -> {
+            if (resultProbabilities.sample(random)) x.setObstacle(null);
         });
         for (AbilityListener listener : new ArrayList<>(abilityListeners)) listener.onAbilityApplied();
     }
@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.AttackEvent;
 import game.events.AttackListener;
@@ -22,8 +21,8 @@ public class SafeAttack extends ActiveAbility {
 
     private final Attack attack;
 
-    public SafeAttack(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public SafeAttack(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         attack = abilityManager.getAttack();
         updateApplicability();
     }
@@ -45,7 +44,6 @@ public class SafeAttack extends ActiveAbility {
                 Tile tile = e.getTile();
                 board.unlingerTile(tile);
                 board.putTileInCell(tile, cell);
-                board.offsetTileCount(1);
                 board.addStateListener(new StateListener() {
                     @Override
                     public void onStateChanged(int oldState, int newState) {
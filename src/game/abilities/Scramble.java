@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.StateListener;
 import game.gameobjects.Board;
@@ -19,10 +18,11 @@ import java.util.function.Predicate;
 public class Scramble extends ActiveAbility {
     public static final int DEFAULT_COOLDOWN = 10;
 
-    private final Random random = new Random();
+    private final Random random;
 
-    public Scramble(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Scramble(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
+        this.random = session.getRandom().getAbilities();
         updateApplicability();
     }
 
@@ -35,17 +35,11 @@ public class Scramble extends ActiveAbility {
     public void startApplication() {
         super.startApplication();
 
-        List<BoardCell> cells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        });
-        Map<Tile, BoardCell> tilesOrigins = new HashMap<>();
+        List<BoardCell> cells = board.getCells(board.getUnlockedTileMask());
+        Map<Tile, BoardCell> tilesOrigins = new LinkedHashMap<>(); // Insertion order keeps the outcome reproducible for a given seed.
         for (BoardCell cell : cells) tilesOrigins.put(board.getTileInCell(cell), cell);
-        List<BoardCell> destinationCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile == null || !tile.isLocked();
-        });
-        Map<Tile, BoardCell> tilesDestinations = new HashMap<>(tilesOrigins);
+        List<BoardCell> destinationCells = board.getCells(board.getFreeCellMask() | board.getUnlockedTileMask());
+        Map<Tile, BoardCell> tilesDestinations = new LinkedHashMap<>(tilesOrigins);
 
         for (Tile tile : tilesOrigins.keySet()) {
             BoardCell currentDestination = tilesDestinations.get(tile);
@@ -100,9 +94,6 @@ public class Scramble extends ActiveAbility {
 
     @Override
     protected boolean determineApplicability() {
-        return super.determineApplicability() && !board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        }).isEmpty();
+        return super.determineApplicability() && board.getUnlockedTileMask() != 0;
     }
 }
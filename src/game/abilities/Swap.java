@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.CellSelectionListener;
 import game.gameobjects.BoardCell;
@@ -18,8 +17,8 @@ import java.util.List;
 public class Swap extends ActiveAbility {
     public static final int DEFAULT_COOLDOWN = 20;
 
-    public Swap(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Swap(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         updateApplicability();
     }
 
@@ -68,9 +67,6 @@ public class Swap extends ActiveAbility {
 
     @Override
     protected boolean determineApplicability() {
-        return super.determineApplicability() && board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        }).size() > 1;
+        return super.determineApplicability() && Integer.bitCount(board.getUnlockedTileMask()) > 1;
     }
 }
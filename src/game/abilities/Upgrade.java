@@ -1,7 +1,6 @@
 package game.abilities;
 
-import UI.LevelMenu;
-import game.GamePanel;
+import game.GameSession;
 import game.events.AbilityListener;
 import game.events.CellSelectionListener;
 import game.gameobjects.BoardCell;
@@ -18,8 +17,8 @@ import java.util.List;
 public class Upgrade extends ActiveAbility {
     public static final int DEFAULT_COOLDOWN = 35;
 
-    public Upgrade(GamePanel gp, AbilityManager abilityManager, LevelMenu.Ability updatedElement) {
-        super(gp, abilityManager, DEFAULT_COOLDOWN, updatedElement);
+    public Upgrade(GameSession session, AbilityManager abilityManager) {
+        super(session, abilityManager, DEFAULT_COOLDOWN);
         updateApplicability();
     }
 
@@ -49,7 +48,7 @@ public class Upgrade extends ActiveAbility {
             public void onSelectionCompleted(List<BoardCell> cells) {
                 board.removeCellSelectionListener(this);
                 Tile tile = board.getTileInCell(cells.get(0));
-                tile.setLevel(tile.getLevel() + 1);
+                board.setTileLevel(cells.get(0), tile.getLevel() + 1);
                 tile.upgradeAnimation();
                 currentCooldown = cooldown;
                 for (AbilityListener listener : new ArrayList<>(abilityListeners)) listener.onAbilityApplied();
@@ -65,9 +64,6 @@ public class Upgrade extends ActiveAbility {
 
     @Override
     protected boolean determineApplicability() {
-        return super.determineApplicability() && !board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked() && tile.getLevel() < 9;
-        }).isEmpty();
+        return super.determineApplicability() && board.getUnlockedTileMask(0, 8) != 0;
     }
 }
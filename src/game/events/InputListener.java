@@ -0,0 +1,18 @@
+package game.events;
+
+import game.GameAction;
+
+/**
+ * Interface that allows to register input posted to a {@link game.ActionHandler}.
+ * Methods are triggered by the thread that posts input (normally the AWT event thread).
+ *
+ * @author Artem Novak
+ */
+public interface InputListener {
+    /**
+     * Is triggered after an action is scheduled or released.
+     *
+     * @param action action
+     */
+    void onInputPosted(GameAction action);
+}
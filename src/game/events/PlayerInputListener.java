@@ -0,0 +1,40 @@
+package game.events;
+
+import game.GameAction;
+import game.gameobjects.BoardCell;
+
+/**
+ * Interface that allows to register player input at the moment the game logic applies it (e.g. to record a replay).
+ * Input that is scheduled but never applied (e.g. released before the game loop sees it) is not reported,
+ * and neither are actions the game takes on its own (e.g. the final attack or aborting a selection when the game ends).
+ * Methods are triggered by the thread that runs the session.
+ *
+ * @author Artem Novak
+ */
+public interface PlayerInputListener {
+    /**
+     * Is triggered before the board is moved.
+     *
+     * @param direction one of {@link game.gameobjects.Board#UP}, {@link game.gameobjects.Board#DOWN}, {@link game.gameobjects.Board#LEFT}, {@link game.gameobjects.Board#RIGHT}
+     */
+    void onMove(int direction);
+
+    /**
+     * Is triggered before an attempt to apply an ability, whether the ability turns out to be applicable or not.
+     *
+     * @param ability {@link GameAction#ATTACK}, {@link GameAction#ACTIVE1} or {@link GameAction#ACTIVE2}
+     */
+    void onAbilityAttempted(GameAction ability);
+
+    /**
+     * Is triggered before a selectable cell is selected or deselected.
+     *
+     * @param cell cell
+     */
+    void onCellSelected(BoardCell cell);
+
+    /**
+     * Is triggered before an ongoing selection is aborted.
+     */
+    void onSelectionAborted();
+}
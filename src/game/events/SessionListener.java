@@ -0,0 +1,39 @@
+package game.events;
+
+import game.abilities.ActiveAbility;
+
+/**
+ * Interface that allows presentation (audio, UI) to follow a {@link game.GameSession} without the session depending on it.
+ * All methods do nothing by default, so only the relevant ones need to be implemented.
+ *
+ * @author Artem Novak
+ */
+public interface SessionListener {
+    /**
+     * Is triggered when the game requests a sound effect.
+     *
+     * @param nameID sound effect NameID
+     */
+    default void onSoundEffect(String nameID) {}
+
+    /**
+     * Is triggered after the number of turns left changes.
+     *
+     * @param turns turns left
+     */
+    default void onTurnsLeftChanged(int turns) {}
+
+    /**
+     * Is triggered when a change of entity's health is to be displayed (normally after the corresponding animation starts).
+     *
+     * @param health entity's health
+     */
+    default void onHealthChanged(long health) {}
+
+    /**
+     * Is triggered after an active ability's state or current cooldown changes.
+     *
+     * @param ability updated ability
+     */
+    default void onAbilityUpdated(ActiveAbility ability) {}
+}
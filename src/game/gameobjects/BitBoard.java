@@ -0,0 +1,713 @@
+package game.gameobjects;
+
+import game.GameLogicException;
+
+import java.util.Arrays;
+
+/**
+ * Packed primitive model of the logical board state.
+ * <br>
+ * Every cell takes 4 bits: 0 stands for an empty cell and level + 1 for a tile of that level.
+ * The first 16 cells are stored in one long and the rest (up to 9 more, enough for a 5x5 board) in another.
+ * Locked (frozen) tiles and garbage (level 0) tiles are additionally tracked in separate bit masks,
+ * and the number of tiles of every level is kept up to date with every change.
+ * So are the numbers of adjacent pairs of tiles that can merge, which makes checks for possible moves constant-time.
+ * <br>
+ * The model also keeps Zobrist hashes (XORs of fixed random keys of every cell's content and lock) of itself and of its images under
+ * every symmetry of the board (see {@link BitBoard#getSymmetryCount()}), updated with every change of a cell. They make a constant-time
+ * identity of a position ({@link BitBoard#getZobristHash()}) and of the class of its symmetric positions ({@link BitBoard#getCanonicalHash()}),
+ * which are the same for equal positions across runs of the game.
+ * Moves are resolved line by line through lookups into precomputed {@link MoveTable} entries.
+ * <br>
+ * {@link Board} keeps its logic here and mirrors the result onto {@link Tile} objects only for animation,
+ * which also allows to run turns with no rendering objects at all (simulation, AI etc.).
+ *
+ * @author Artem Novak
+ */
+public class BitBoard {
+    // Directions
+    public static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+
+    // Limits
+    public static final int MAX_SIZE = 5;
+    public static final int MAX_LEVEL = 11;
+
+    // Level of an empty cell
+    public static final int EMPTY = -1;
+
+    // Symmetries of the board, the first 4 of which are symmetries of rectangular boards and the rest only of square ones
+    public static final int IDENTITY = 0, ROTATE_180 = 1, MIRROR_COLS = 2, MIRROR_ROWS = 3, ROTATE_90 = 4, ROTATE_270 = 5, TRANSPOSE = 6, ANTI_TRANSPOSE = 7;
+
+    private static final int GARBAGE_CODE = 1;
+    private static final int LOW_CELLS = 16;
+    private static final int CODES = 16;
+    // Zobrist keys of every code (0 for an empty cell) and of a lock in every cell, fixed so that hashes do not change between runs
+    private static final long[][] CODE_KEYS = new long[MAX_SIZE * MAX_SIZE][CODES];
+    private static final long[] LOCK_KEYS = new long[MAX_SIZE * MAX_SIZE];
+
+    static {
+        long state = 0x4E5054554E45L; // "NEPTUNE"
+        for (int index = 0; index < MAX_SIZE * MAX_SIZE; index++) {
+            for (int code = 1; code < CODES; code++) CODE_KEYS[index][code] = mix(state += 0x9E3779B97F4A7C15L);
+            LOCK_KEYS[index] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final int[][][] lines; // Cell indices of every line for every direction, ordered from the edge the tiles move towards.
+    private final int[] moveTargets;
+    private final int[] lineCodes = new int[MAX_SIZE]; // Buffer for encoding a single line.
+    private final int[] levelCounts = new int[MAX_LEVEL + 1];
+    private final int firstColMask, lastColMask;
+    private final int[][] symmetricIndices; // Index of every cell in the image of the board under every symmetry.
+    private final long emptyHash;
+    private final long[] hashes; // Zobrist hashes of the images of the board under every symmetry.
+
+    private long lowCells;
+    private long highCells;
+    private int occupiedMask;
+    private int lockMask;
+    private int garbageMask;
+    private int mergeMask;
+    private int horizontalPairs, verticalPairs; // Adjacent pairs of equal unlocked tiles that can merge.
+
+    /**
+     * Creates an empty board model.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if the board cannot be packed into the model
+     */
+    public BitBoard(int rows, int cols) throws IllegalArgumentException {
+        if (rows < 1 || rows > MAX_SIZE) throw new IllegalArgumentException("Unsupported number of rows: " + rows);
+        if (cols < 1 || cols > MAX_SIZE) throw new IllegalArgumentException("Unsupported number of columns: " + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.cellCount = rows * cols;
+        this.lines = generateLines(rows, cols);
+        this.moveTargets = new int[cellCount];
+        Arrays.fill(moveTargets, -1);
+        int firstCol = 0;
+        for (int i = 0; i < rows; i++) firstCol |= 1 << (i * cols);
+        this.firstColMask = firstCol;
+        this.lastColMask = firstCol << (cols - 1);
+        this.symmetricIndices = generateSymmetries(rows, cols);
+        this.emptyHash = mix(rows * MAX_SIZE + cols);
+        this.hashes = new long[symmetricIndices.length];
+        Arrays.fill(hashes, emptyHash);
+    }
+
+    /**
+     * Creates a copy of the given model.
+     *
+     * @param other model to copy
+     */
+    public BitBoard(BitBoard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.cellCount = other.cellCount;
+        this.lines = other.lines;
+        this.moveTargets = new int[cellCount];
+        this.firstColMask = other.firstColMask;
+        this.lastColMask = other.lastColMask;
+        this.symmetricIndices = other.symmetricIndices;
+        this.emptyHash = other.emptyHash;
+        this.hashes = new long[symmetricIndices.length];
+        copyFrom(other);
+    }
+
+    /**
+     * Overwrites state of this model with the state of another model of the same dimensions.
+     *
+     * @param other model to copy from
+     * @throws IllegalArgumentException if dimensions of the models differ
+     */
+    public void copyFrom(BitBoard other) throws IllegalArgumentException {
+        if (other.rows != rows || other.cols != cols) throw new IllegalArgumentException("Cannot copy a " + other.rows + "x" + other.cols + " board into a " + rows + "x" + cols + " one");
+        lowCells = other.lowCells;
+        highCells = other.highCells;
+        occupiedMask = other.occupiedMask;
+        lockMask = other.lockMask;
+        garbageMask = other.garbageMask;
+        mergeMask = other.mergeMask;
+        horizontalPairs = other.horizontalPairs;
+        verticalPairs = other.verticalPairs;
+        System.arraycopy(other.moveTargets, 0, moveTargets, 0, cellCount);
+        System.arraycopy(other.levelCounts, 0, levelCounts, 0, levelCounts.length);
+        System.arraycopy(other.hashes, 0, hashes, 0, hashes.length);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Converts a position on the board into a cell index.
+     *
+     * @param row row
+     * @param col column
+     * @return cell index (row-major)
+     */
+    public int indexOf(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Gets level of the tile in the cell.
+     *
+     * @param index cell index
+     * @return level of the tile, or {@link BitBoard#EMPTY} if the cell is empty
+     */
+    public int getLevel(int index) {
+        return codeAt(index) - 1;
+    }
+
+    public boolean isEmpty(int index) {
+        return (occupiedMask & (1 << index)) == 0;
+    }
+
+    public boolean isLocked(int index) {
+        return (lockMask & (1 << index)) != 0;
+    }
+
+    public boolean isGarbage(int index) {
+        return (garbageMask & (1 << index)) != 0;
+    }
+
+    /**
+     * Puts a tile into the cell, overriding its previous content.
+     *
+     * @param index cell index
+     * @param level level of the tile
+     * @param locked whether the tile is locked
+     * @throws GameLogicException if the level is nonexistent
+     */
+    public void set(int index, int level, boolean locked) throws GameLogicException {
+        if (level < 0 || level > MAX_LEVEL) throw new GameLogicException("Trying to put a tile of nonexistent level " + level);
+        setCode(index, level + 1);
+        setLockBit(index, locked);
+    }
+
+    /**
+     * Changes level of the tile in the cell.
+     *
+     * @param index cell index
+     * @param level new level
+     * @throws GameLogicException if the cell is empty or the level is nonexistent
+     */
+    public void setLevel(int index, int level) throws GameLogicException {
+        if (isEmpty(index)) throw new GameLogicException("Trying to change level of an empty cell " + index);
+        if (level < 0 || level > MAX_LEVEL) throw new GameLogicException("Trying to set tile to nonexistent level " + level);
+        setCode(index, level + 1);
+    }
+
+    /**
+     * Locks or unlocks the tile in the cell.
+     *
+     * @param index cell index
+     * @param locked whether the tile is to be locked
+     * @throws GameLogicException if the cell is empty
+     */
+    public void setLocked(int index, boolean locked) throws GameLogicException {
+        if (isEmpty(index)) throw new GameLogicException("Trying to lock an empty cell " + index);
+        setLockBit(index, locked);
+    }
+
+    /**
+     * Empties the cell.
+     *
+     * @param index cell index
+     */
+    public void clear(int index) {
+        setCode(index, 0);
+        setLockBit(index, false);
+    }
+
+    /**
+     * Empties the whole board.
+     */
+    public void clearAll() {
+        lowCells = 0;
+        highCells = 0;
+        occupiedMask = 0;
+        lockMask = 0;
+        garbageMask = 0;
+        mergeMask = 0;
+        horizontalPairs = 0;
+        verticalPairs = 0;
+        Arrays.fill(moveTargets, -1);
+        Arrays.fill(levelCounts, 0);
+        Arrays.fill(hashes, emptyHash);
+    }
+
+    public int getTileCount() {
+        return Integer.bitCount(occupiedMask);
+    }
+
+    public boolean isFull() {
+        return getTileCount() == cellCount;
+    }
+
+    /**
+     * @param level tile level
+     * @return number of tiles of the level on the board
+     */
+    public int getLevelCount(int level) {
+        return levelCounts[level];
+    }
+
+    /**
+     * @return mask with bit i set if cell i is empty
+     */
+    public int getFreeMask() {
+        return ~occupiedMask & ((1 << cellCount) - 1);
+    }
+
+    /**
+     * @return mask with bit i set if cell i contains a tile that is not locked
+     */
+    public int getUnlockedMask() {
+        return occupiedMask & ~lockMask;
+    }
+
+    /**
+     * @return mask with bit i set if cell i is occupied
+     */
+    public int getOccupiedMask() {
+        return occupiedMask;
+    }
+
+    /**
+     * @return mask with bit i set if cell i contains a locked tile
+     */
+    public int getLockMask() {
+        return lockMask;
+    }
+
+    /**
+     * @return mask with bit i set if cell i contains a garbage (level 0) tile
+     */
+    public int getGarbageMask() {
+        return garbageMask;
+    }
+
+    /**
+     * @return packed 4-bit codes of the first 16 cells
+     */
+    public long getLowCells() {
+        return lowCells;
+    }
+
+    /**
+     * @return packed 4-bit codes of the cells after the first 16
+     */
+    public long getHighCells() {
+        return highCells;
+    }
+
+    /**
+     * @return number of adjacent pairs of unlocked tiles that can merge with each other
+     */
+    public int getMergeablePairCount() {
+        return horizontalPairs + verticalPairs;
+    }
+
+    /**
+     * Checks in constant time whether a move in the given direction would change the board:
+     * either an unlocked tile has an empty cell next to it in that direction, or two adjacent tiles along it can merge.
+     *
+     * @param direction one of {@link BitBoard#UP}, {@link BitBoard#DOWN}, {@link BitBoard#LEFT}, {@link BitBoard#RIGHT}
+     * @return true if at least one tile would move or merge
+     * @throws IllegalArgumentException if the direction is unknown
+     */
+    public boolean canMove(int direction) throws IllegalArgumentException {
+        int free = getFreeMask(), unlocked = getUnlockedMask();
+        return switch (direction) {
+            case UP -> verticalPairs > 0 || (unlocked & (free << cols)) != 0;
+            case DOWN -> verticalPairs > 0 || (unlocked & (free >>> cols)) != 0;
+            case LEFT -> horizontalPairs > 0 || (unlocked & (free << 1) & ~firstColMask) != 0;
+            case RIGHT -> horizontalPairs > 0 || (unlocked & (free >>> 1) & ~lastColMask) != 0;
+            default -> throw new IllegalArgumentException("Unknown direction " + direction);
+        };
+    }
+
+    /**
+     * @return true if a move in at least one direction would change the board
+     */
+    public boolean hasLegalMove() {
+        return canMove(UP) || canMove(DOWN) || canMove(LEFT) || canMove(RIGHT);
+    }
+
+    /**
+     * Logically performs a move in the given direction, following the original 2048 rules:
+     * tiles slide towards the edge until they meet another tile or a locked tile, equal unlocked tiles merge,
+     * and a tile can only be merged into once per move. Every line is resolved with a single {@link MoveTable} lookup.
+     * <br>
+     * Destinations of the tiles are available through {@link BitBoard#getMoveTarget(int)} and merge results through
+     * {@link BitBoard#getMergeMask()} until the next move.
+     *
+     * @param direction one of {@link BitBoard#UP}, {@link BitBoard#DOWN}, {@link BitBoard#LEFT}, {@link BitBoard#RIGHT}
+     * @return true if the board changed
+     */
+    public boolean move(int direction) {
+        mergeMask = 0;
+        boolean changed = false;
+        for (int[] line : lines[direction]) {
+            long entry = MoveTable.lookup(encodeLine(line), line.length);
+            boolean lineChanged = (entry & MoveTable.CHANGED) != 0;
+            for (int position = 0; position < line.length; position++) {
+                int index = line[position];
+                if (lineCodes[position] == 0) {
+                    moveTargets[index] = -1;
+                    continue;
+                }
+                int targetIndex = line[MoveTable.destination(entry, position)];
+                moveTargets[index] = targetIndex;
+                if (lineChanged && lineCodes[position] != MoveTable.WALL) {
+                    setCode(index, 0);
+                }
+            }
+            if (lineChanged) {
+                for (int position = 0; position < line.length; position++) {
+                    int code = MoveTable.resultCode(entry, position);
+                    if (code != 0 && code != MoveTable.WALL) setCode(line[position], code);
+                    if (MoveTable.isMerge(entry, position)) mergeMask |= 1 << line[position];
+                }
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Gets destination of the tile that was located in the cell before the latest move.
+     *
+     * @param index original cell index
+     * @return destination cell index, or -1 if the cell was empty
+     */
+    public int getMoveTarget(int index) {
+        return moveTargets[index];
+    }
+
+    /**
+     * @return mask with bit i set if a merge resulted in cell i during the latest move
+     */
+    public int getMergeMask() {
+        return mergeMask;
+    }
+
+    /**
+     * Finds the n-th (counting from 0) cell index contained in the mask, in ascending order.
+     *
+     * @param mask cell mask
+     * @param n ordinal of the cell
+     * @return cell index
+     * @throws IllegalArgumentException if the mask contains less than n + 1 cells
+     */
+    public static int nthIndex(int mask, int n) throws IllegalArgumentException {
+        if (n < 0 || n >= Integer.bitCount(mask)) throw new IllegalArgumentException("Mask " + Integer.toBinaryString(mask) + " has no cell number " + n);
+        for (int i = 0; i < n; i++) mask &= mask - 1;
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Returns cell indices of all lines in the given direction.
+     * Each line is ordered starting from the edge the tiles move towards.
+     *
+     * @param direction direction
+     * @return lines (shared array, must not be modified)
+     */
+    int[][] getLines(int direction) {
+        return lines[direction];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BitBoard other) {
+            return other.rows == rows && other.cols == cols && other.lowCells == lowCells && other.highCells == highCells && other.lockMask == lockMask;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lowCells * 31 + highCells) * 31 + lockMask;
+    }
+
+    /**
+     * @return Zobrist hash of the position (levels of the tiles, including garbage, and locks), maintained incrementally
+     */
+    public long getZobristHash() {
+        return hashes[IDENTITY];
+    }
+
+    /**
+     * @param symmetry symmetry of the board
+     * @return Zobrist hash of the image of the position under the symmetry, i.e. of the position {@link BitBoard#transform(int)} would make
+     * @throws IllegalArgumentException if the symmetry is not a symmetry of the board
+     */
+    public long getZobristHash(int symmetry) throws IllegalArgumentException {
+        checkSymmetry(symmetry);
+        return hashes[symmetry];
+    }
+
+    /**
+     * @return number of symmetries of the board: 8 (the dihedral group) for a square board, 4 for a rectangular one
+     */
+    public int getSymmetryCount() {
+        return hashes.length;
+    }
+
+    /**
+     * Finds the symmetry that maps the position onto the representative of its class, which is the image with the smallest Zobrist hash.
+     * Symmetric positions (e.g. mirrored ones) share the representative.
+     *
+     * @return symmetry, the first one if several images share the hash (e.g. because the position is symmetric itself)
+     */
+    public int getCanonicalSymmetry() {
+        int canonical = IDENTITY;
+        for (int symmetry = 1; symmetry < hashes.length; symmetry++) {
+            if (hashes[symmetry] < hashes[canonical]) canonical = symmetry;
+        }
+        return canonical;
+    }
+
+    /**
+     * @return Zobrist hash of the representative of the position's class, which is the same for all symmetric positions
+     */
+    public long getCanonicalHash() {
+        return hashes[getCanonicalSymmetry()];
+    }
+
+    /**
+     * Replaces the position with the representative of its class (see {@link BitBoard#getCanonicalSymmetry()}).
+     *
+     * @return symmetry that was applied
+     */
+    public int canonicalize() {
+        int symmetry = getCanonicalSymmetry();
+        transform(symmetry);
+        return symmetry;
+    }
+
+    /**
+     * Replaces the position with its image under a symmetry. The results of the latest move are discarded.
+     *
+     * @param symmetry symmetry of the board
+     * @throws IllegalArgumentException if the symmetry is not a symmetry of the board
+     */
+    public void transform(int symmetry) throws IllegalArgumentException {
+        checkSymmetry(symmetry);
+        if (symmetry == IDENTITY) return;
+        long oldLowCells = lowCells, oldHighCells = highCells;
+        int oldLockMask = lockMask;
+        clearAll();
+        int[] targets = symmetricIndices[symmetry];
+        for (int index = 0; index < cellCount; index++) {
+            int code = (int)((index < LOW_CELLS ? oldLowCells >>> (index << 2) : oldHighCells >>> ((index - LOW_CELLS) << 2)) & 0xF);
+            if (code == 0) continue;
+            setCode(targets[index], code);
+            setLockBit(targets[index], (oldLockMask & (1 << index)) != 0);
+        }
+    }
+
+    /**
+     * @param symmetry symmetry of the board
+     * @param index cell index
+     * @return index the cell has in the image of the board under the symmetry
+     * @throws IllegalArgumentException if the symmetry is not a symmetry of the board
+     */
+    public int transformIndex(int symmetry, int index) throws IllegalArgumentException {
+        checkSymmetry(symmetry);
+        return symmetricIndices[symmetry][index];
+    }
+
+    /**
+     * Maps a direction onto the image of the board under a symmetry, so that a move in the resulting direction on the image
+     * is the image of the move in the original direction.
+     *
+     * @param symmetry any of the 8 symmetries
+     * @param direction one of {@link BitBoard#UP}, {@link BitBoard#DOWN}, {@link BitBoard#LEFT}, {@link BitBoard#RIGHT}
+     * @return direction on the image
+     * @throws IllegalArgumentException if the symmetry or the direction is unknown
+     */
+    public static int transformDirection(int symmetry, int direction) throws IllegalArgumentException {
+        if (direction < UP || direction > RIGHT) throw new IllegalArgumentException("Unknown direction " + direction);
+        if (symmetry < IDENTITY || symmetry > ANTI_TRANSPOSE) throw new IllegalArgumentException("Unknown symmetry " + symmetry);
+        // Images of a step from the centre of a 3x3 board
+        int[] centre = transformCell(symmetry, 1, 1, 3, 3);
+        int[] step = transformCell(symmetry, 1 + (direction == UP ? -1 : direction == DOWN ? 1 : 0), 1 + (direction == LEFT ? -1 : direction == RIGHT ? 1 : 0), 3, 3);
+        int rowStep = step[0] - centre[0], colStep = step[1] - centre[1];
+        if (rowStep != 0) return rowStep < 0 ? UP : DOWN;
+        return colStep < 0 ? LEFT : RIGHT;
+    }
+
+    /**
+     * @return 64-bit hash of the board state, suitable as a transposition table key (the maintained {@link BitBoard#getZobristHash()})
+     */
+    public long hash64() {
+        return getZobristHash();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int index = indexOf(i, j);
+                str.append(isEmpty(index) ? "-" : getLevel(index)).append(isLocked(index) ? "* " : " ");
+            }
+            str.append("\n");
+        }
+        return str.toString();
+    }
+
+    /**
+     * Encodes codes of the line's cells into the line buffer, replacing locked tiles with walls.
+     *
+     * @param line cell indices of the line
+     * @return the line buffer
+     */
+    private int[] encodeLine(int[] line) {
+        for (int position = 0; position < line.length; position++) {
+            int index = line[position];
+            lineCodes[position] = isLocked(index) ? MoveTable.WALL : codeAt(index);
+        }
+        return lineCodes;
+    }
+
+    private int codeAt(int index) {
+        if (index < LOW_CELLS) return (int)(lowCells >>> (index << 2)) & 0xF;
+        return (int)(highCells >>> ((index - LOW_CELLS) << 2)) & 0xF;
+    }
+
+    private void setCode(int index, int code) {
+        int oldCode = codeAt(index);
+        if (oldCode == code) return;
+        for (int symmetry = 0; symmetry < hashes.length; symmetry++) {
+            long[] keys = CODE_KEYS[symmetricIndices[symmetry][index]];
+            hashes[symmetry] ^= keys[oldCode] ^ keys[code];
+        }
+        countPairs(index, -1);
+        if (oldCode != 0) levelCounts[oldCode - 1]--;
+        if (code != 0) levelCounts[code - 1]++;
+        if (index < LOW_CELLS) {
+            int shift = index << 2;
+            lowCells = (lowCells & ~(0xFL << shift)) | ((long)code << shift);
+        }
+        else {
+            int shift = (index - LOW_CELLS) << 2;
+            highCells = (highCells & ~(0xFL << shift)) | ((long)code << shift);
+        }
+        int bit = 1 << index;
+        if (code == 0) occupiedMask &= ~bit;
+        else occupiedMask |= bit;
+        if (code == GARBAGE_CODE) garbageMask |= bit;
+        else garbageMask &= ~bit;
+        countPairs(index, 1);
+    }
+
+    private void setLockBit(int index, boolean locked) {
+        if (locked == isLocked(index)) return;
+        for (int symmetry = 0; symmetry < hashes.length; symmetry++) hashes[symmetry] ^= LOCK_KEYS[symmetricIndices[symmetry][index]];
+        countPairs(index, -1);
+        if (locked) lockMask |= 1 << index;
+        else lockMask &= ~(1 << index);
+        countPairs(index, 1);
+    }
+
+    /**
+     * Adds (sign = 1) or removes (sign = -1) pairs the cell forms with its neighbours to the running counts of mergeable pairs.
+     */
+    private void countPairs(int index, int sign) {
+        int code = codeAt(index);
+        if (code == 0 || code > MAX_LEVEL || isLocked(index)) return; // Max level tiles do not merge.
+        int col = index % cols;
+        if (col > 0 && isMergeableWith(index - 1, code)) horizontalPairs += sign;
+        if (col < cols - 1 && isMergeableWith(index + 1, code)) horizontalPairs += sign;
+        if (index >= cols && isMergeableWith(index - cols, code)) verticalPairs += sign;
+        if (index + cols < cellCount && isMergeableWith(index + cols, code)) verticalPairs += sign;
+    }
+
+    private boolean isMergeableWith(int index, int code) {
+        return codeAt(index) == code && !isLocked(index);
+    }
+
+    private static int[][][] generateLines(int rows, int cols) {
+        int[][][] lines = new int[4][][];
+        lines[UP] = new int[cols][rows];
+        lines[DOWN] = new int[cols][rows];
+        lines[LEFT] = new int[rows][cols];
+        lines[RIGHT] = new int[rows][cols];
+        for (int j = 0; j < cols; j++) {
+            for (int i = 0; i < rows; i++) {
+                lines[UP][j][i] = i * cols + j;
+                lines[DOWN][j][i] = (rows - 1 - i) * cols + j;
+            }
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                lines[LEFT][i][j] = i * cols + j;
+                lines[RIGHT][i][j] = i * cols + (cols - 1 - j);
+            }
+        }
+        return lines;
+    }
+
+    private void checkSymmetry(int symmetry) throws IllegalArgumentException {
+        if (symmetry < IDENTITY || symmetry >= hashes.length) throw new IllegalArgumentException("Symmetry " + symmetry + " does not preserve a " + rows + "x" + cols + " board");
+    }
+
+    /**
+     * @return index of every cell in the image of the board under every symmetry that preserves its dimensions
+     */
+    private static int[][] generateSymmetries(int rows, int cols) {
+        int[][] symmetries = new int[rows == cols ? 8 : 4][rows * cols];
+        for (int symmetry = 0; symmetry < symmetries.length; symmetry++) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    int[] image = transformCell(symmetry, i, j, rows, cols);
+                    symmetries[symmetry][i * cols + j] = image[0] * cols + image[1];
+                }
+            }
+        }
+        return symmetries;
+    }
+
+    /**
+     * @return row and column of the cell's image under the symmetry
+     */
+    private static int[] transformCell(int symmetry, int row, int col, int rows, int cols) {
+        int lastRow = rows - 1, lastCol = cols - 1;
+        return switch (symmetry) {
+            case IDENTITY -> new int[] {row, col};
+            case ROTATE_180 -> new int[] {lastRow - row, lastCol - col};
+            case MIRROR_COLS -> new int[] {row, lastCol - col};
+            case MIRROR_ROWS -> new int[] {lastRow - row, col};
+            case ROTATE_90 -> new int[] {col, lastRow - row};
+            case ROTATE_270 -> new int[] {lastCol - col, row};
+            case TRANSPOSE -> new int[] {col, row};
+            case ANTI_TRANSPOSE -> new int[] {lastCol - col, lastRow - row};
+            default -> throw new IllegalArgumentException("Unknown symmetry " + symmetry);
+        };
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
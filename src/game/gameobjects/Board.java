@@ -1,23 +1,25 @@
 package game.gameobjects;
 
 import game.GameLogicException;
-import game.GamePanel;
+import game.GameSession;
 import game.ActionHandler;
+import game.GameAction;
 import game.events.CellSelectionListener;
 import game.events.StateListener;
 import game.events.TurnListener;
 import game.utils.GamePanelGraphics;
+import game.utils.WeightedDistribution;
 import game.utils.WeightedRandom;
-import misc.AudioManager;
 
 import java.awt.*;
-import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Class that implements logical and rendering functionality of the board.
@@ -30,9 +32,14 @@ public class Board extends GameObject {
     public static final int IDLE = 0, ANIMATING = 1, SELECTING = 2;
 
     // Directions
-    private static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+    public static final int UP = BitBoard.UP, DOWN = BitBoard.DOWN, LEFT = BitBoard.LEFT, RIGHT = BitBoard.RIGHT;
 
-    private final WeightedRandom random = new WeightedRandom();
+    // Number of selection overlays kept for reuse
+    private static final int MAX_CACHED_OVERLAYS = 16;
+    // New tiles are of the base level 3 times out of 4, and one level higher otherwise
+    private static final WeightedDistribution<Integer> NEW_TILE_LEVEL_OFFSETS = new WeightedDistribution<>(List.of(0, 1), 3, 1);
+
+    private final WeightedRandom random;
     private final List<Tile> transientTiles = new LinkedList<>(); // Tiles that are no longer logically present and are to be deleted after finishing current animation cycle.
     private final SelectionHandler selectionHandler;
     private final List<TurnListener> turnListeners = new ArrayList<>();
@@ -42,33 +49,44 @@ public class Board extends GameObject {
     private final int cols;
     private final int preferredWidth;
     private final int preferredHeight;
-    private final GamePanelGraphics graphics;
+    private final GameSession session;
     private final ActionHandler actionHandler;
 
     private int state = IDLE;
     private int baseTileLevel;
-    private final Tile[][] board;
-    private int tileCount;
+    private final BitBoard model; // Logical state of the board.
+    private final Tile[][] board; // Mirror of the logical state used for rendering and animation.
+    private final BoardCell[] cells; // Shared cell objects by cell index, so that index-based queries do not allocate.
     private int moveDirection;
     private boolean turnReactionScheduled;
     private boolean locked = false;
 
     private int highlightFrames = 0;
-
-    public Board(int x, int y, int rows, int cols, int baseTileLevel, GamePanel gp) throws IllegalArgumentException {
-        super(x, y, gp);
+    // Background with all static tiles (see Board#updateStaticLayer), confined to the rendering thread and created when first rendered.
+    private BufferedImage staticLayer;
+    private final Tile[] layerTiles; // Tile drawn into each cell of the static layer, null if the cell only shows the background.
+    private final int[] layerLevels; // Visual level of the tile drawn into each cell of the static layer.
+    private Supplier<Point> pointerLocator = () -> null; // Pointer location relative to the game panel, null if unknown.
+
+    public Board(int x, int y, int rows, int cols, int baseTileLevel, GameSession session) throws IllegalArgumentException {
+        super(x, y, session.getGameGraphics());
         if (rows < 2) throw new IllegalArgumentException("Cannot have less than 2 rows");
         if (cols < 2) throw new IllegalArgumentException("Cannot have less than 2 columns");
         if (baseTileLevel < 1 || baseTileLevel > 11)
             throw new IllegalArgumentException("Illegal base tile level: " + baseTileLevel);
-        this.gp = gp;
-        this.graphics = gp.getGameGraphics();
-        this.actionHandler = gp.getActionHandler();
+        this.session = session;
+        this.actionHandler = session.getActionHandler();
+        this.random = session.getRandom().getSpawns();
         this.rows = rows;
         this.cols = cols;
         this.baseTileLevel = baseTileLevel;
         this.selectionHandler = new SelectionHandler();
+        model = new BitBoard(rows, cols);
         board = new Tile[rows][cols];
+        cells = new BoardCell[rows * cols];
+        for (int i = 0; i < cells.length; i++) cells[i] = new BoardCell(i / cols, i % cols);
+        layerTiles = new Tile[rows * cols];
+        layerLevels = new int[rows * cols];
         preferredWidth = graphics.getTileSize() * cols + graphics.getTileOffset() * (cols + 1);
         preferredHeight = graphics.getTileSize() * rows + graphics.getTileOffset() * (rows + 1);
     }
@@ -82,41 +100,47 @@ public class Board extends GameObject {
         public List<BoardCell> selected = new ArrayList<>();
         private Predicate<BoardCell> predicate;
         private int maxSelection;
-        private final BufferedImage highlight;
+        private BoardCell hovered; // Cell under the pointer as of the last update, highlighted if selectable.
+        // Images are only generated when the selection is first rendered.
+        private BufferedImage highlight;
         private BufferedImage overlay;
+        // Overlays by mask of selectable cells, so that a predicate seen before (e.g. between the steps of a swap) costs only a lookup.
+        private final LinkedHashMap<Integer, BufferedImage> overlays = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+                return size() > MAX_CACHED_OVERLAYS;
+            }
+        };
 
-        /**
-         * Prepares a new SelectionHandler instance (predicate and maxSelection have to be set later).
-         */
-        private SelectionHandler() {
-            highlight = new BufferedImage(graphics.getTileSize(), graphics.getTileSize(), BufferedImage.TYPE_INT_ARGB);
+        private void generateHighlight() {
+            highlight = GamePanelGraphics.createCompatibleImage(graphics.getTileSize(), graphics.getTileSize(), Transparency.TRANSLUCENT);
             Graphics2D g2d = (Graphics2D) highlight.getGraphics();
-            g2d.setColor(graphics.getColor("highlight"));
+            g2d.setColor(graphics.getColor(GamePanelGraphics.COLOR_HIGHLIGHT));
             g2d.fillRect(0, 0, graphics.getTileSize(), graphics.getTileSize());
             g2d.dispose();
         }
 
         /**
-         * Generates a new dark overlay over non-selectable cells based on the selectability predicate.
+         * Takes the dark overlay over non-selectable cells from the cache, or generates it: the whole board is darkened,
+         * and then the selectable cells are cleared.
          */
-        public void resetOverlay() {
-            overlay = new BufferedImage(preferredWidth, preferredHeight, BufferedImage.TYPE_INT_ARGB);
-            Area overlayArea = new Area(new Rectangle(0, 0, preferredWidth, preferredHeight));
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    BoardCell cell = new BoardCell(i, j);
-                    if (predicate.test(cell)) {
-                        Point point = pointByCell(cell);
-                        point.x -= Board.this.x;
-                        point.y -= Board.this.y;
-                        overlayArea.subtract(new Area(new Rectangle(point.x, point.y, graphics.getTileSize(), graphics.getTileSize())));
-                    }
-                }
-            }
+        public void generateOverlay() {
+            int mask = 0;
+            for (int index = 0; index < cells.length; index++) if (predicate.test(cells[index])) mask |= 1 << index;
+            overlay = overlays.get(mask);
+            if (overlay != null) return;
+            overlay = GamePanelGraphics.createCompatibleImage(preferredWidth, preferredHeight, Transparency.TRANSLUCENT);
             Graphics2D g2d = (Graphics2D) overlay.getGraphics();
-            g2d.setColor(graphics.getColor("darken"));
-            g2d.fill(overlayArea);
+            g2d.setColor(graphics.getColor(GamePanelGraphics.COLOR_DARKEN));
+            g2d.fillRect(0, 0, preferredWidth, preferredHeight);
+            g2d.setComposite(AlphaComposite.Clear);
+            int tileSize = graphics.getTileSize(), pitch = tileSize + graphics.getTileOffset();
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int index = Integer.numberOfTrailingZeros(rest);
+                g2d.fillRect(graphics.getTileOffset() + index % cols * pitch, graphics.getTileOffset() + index / cols * pitch, tileSize, tileSize);
+            }
             g2d.dispose();
+            overlays.put(mask, overlay);
         }
 
         /**
@@ -125,27 +149,20 @@ public class Board extends GameObject {
          */
         public void update() {
             if (predicate == null) throw new GameLogicException("Updating a selector without a selection predicate");
-            if (actionHandler.isPriorityAction("selectTile")) {
-                actionHandler.clearAction("selectTile");
-                BoardCell cell = cellByMouseLocation();
-                if (cell != null && predicate.test(cell)) {
-                    if (selected.contains(cell)) {
-                        selected.remove(cell);
-                        for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionUpdated(selected);
-                    }
-                    else {
-                        selected.add(cell);
-                        for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionUpdated(selected);
-                        if (selected.size() == maxSelection) {
-                            setState(IDLE);
-                            for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionCompleted(selected);
-                            selected = new ArrayList<>();
-                            predicate = null;
-                        }
-                    }
-                }
+            if (actionHandler.isPriorityAction(GameAction.SELECT_TILE)) {
+                actionHandler.clearAction(GameAction.SELECT_TILE);
+                selectCell(cellByMouseLocation());
+            }
+            if (actionHandler.isPriorityAction(GameAction.ABORT_SELECTION)) {
+                session.notifySelectionAborted();
+                abortSelection();
+            }
+            BoardCell cell = cellByMouseLocation();
+            if (cell == null ? hovered != null : !cell.equals(hovered)) {
+                if (hovered != null) markCellDirty(hovered);
+                if (cell != null) markCellDirty(cell);
+                hovered = cell;
             }
-            if (actionHandler.isPriorityAction("abortSelection")) abortSelection();
         }
 
         /**
@@ -155,21 +172,18 @@ public class Board extends GameObject {
          */
         public void render(Graphics2D g2d) {
             if (predicate == null) throw new GameLogicException("Rendering a selector without a selection predicate");
+            if (highlight == null) generateHighlight();
+            if (overlay == null) generateOverlay();
             g2d.drawImage(overlay, (int)Board.this.x, (int)Board.this.y, null);
             for (BoardCell cell : selected) highlightCell(cell, g2d);
-            BoardCell cell = cellByMouseLocation();
-            if (cell != null && predicate.test(cell)) {
-                highlightCell(cell, g2d);
+            if (hovered != null && predicate.test(hovered)) {
+                highlightCell(hovered, g2d);
             }
         }
 
         private BoardCell cellByMouseLocation() {
-            Point mouseScreenLocation = MouseInfo.getPointerInfo().getLocation();
-            Point gpScreenLocation = gp.getLocationOnScreen();
-            Point mouseGameLocation = new Point(mouseScreenLocation.x - gpScreenLocation.x,
-                    mouseScreenLocation.y - gpScreenLocation.y);
-            return cellByPoint(mouseGameLocation);
-
+            Point mouseGameLocation = pointerLocator.get();
+            return mouseGameLocation == null ? null : cellByPoint(mouseGameLocation);
         }
 
         private void highlightCell(BoardCell cell, Graphics2D g2d) {
@@ -179,6 +193,10 @@ public class Board extends GameObject {
     }
 
     public void update() {
+        if (highlightFrames > 0) {
+            highlightFrames--;
+            markDirty();
+        }
         if (state == IDLE || state == ANIMATING) {
             if (!locked) handleTurnInput();
             updateTiles(); // May change board state.
@@ -189,34 +207,39 @@ public class Board extends GameObject {
         else updateTiles();
     }
 
+    /**
+     * Renders the static layer (the background with all tiles that are not animated), and the other tiles on top of it.
+     *
+     * @param g2d Graphics2D instance for rendering
+     */
     public void render(Graphics2D g2d) {
-        g2d.drawImage(graphics.getTexture("boardBG"), (int)x, (int)y, null);
+        updateStaticLayer();
+        g2d.drawImage(staticLayer, (int)x, (int)y, null);
         if (state != ANIMATING || moveDirection == UP) {
-            for (Tile[] row : board) {
-                for (Tile tile : row) if (tile != null) tile.render(g2d);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) renderDynamicTile(i, j, g2d);
             }
         }
         else if (moveDirection == DOWN) {
             for (int i = rows - 1; i >= 0; i--) {
-                for (Tile tile : board[i]) if (tile != null) tile.render(g2d);
+                for (int j = 0; j < cols; j++) renderDynamicTile(i, j, g2d);
             }
         }
         else if (moveDirection == LEFT) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) if (board[i][j] != null) board[i][j].render(g2d);
+                for (int i = 0; i < rows; i++) renderDynamicTile(i, j, g2d);
             }
         }
         else {
             for (int j = cols - 1; j >= 0; j--) {
-                for (int i = 0; i < rows; i++) if (board[i][j] != null) board[i][j].render(g2d);
+                for (int i = 0; i < rows; i++) renderDynamicTile(i, j, g2d);
             }
         }
         for (Tile tile : transientTiles) tile.render(g2d);
         if (state == SELECTING) selectionHandler.render(g2d);
         if (highlightFrames > 0) {
-            g2d.setColor(graphics.getColor("damageOverlay"));
+            g2d.setColor(graphics.getColor(GamePanelGraphics.COLOR_DAMAGE_OVERLAY));
             g2d.fillRect((int)x, (int)y, preferredWidth, preferredHeight);
-            highlightFrames--;
         }
     }
 
@@ -229,10 +252,10 @@ public class Board extends GameObject {
     public void initSelection(Predicate<BoardCell> predicate, int maxSelection) {
         if (maxSelection > rows*cols) throw new GameLogicException("Specified max number of selectable cells is larger than overall number of cells");
         abortSelection();
-        AudioManager.playSFX("selectionStart");
+        session.playSound("selectionStart");
         selectionHandler.predicate = predicate;
         selectionHandler.maxSelection = maxSelection;
-        selectionHandler.resetOverlay();
+        selectionHandler.overlay = null;
         flush();
         setState(SELECTING);
     }
@@ -242,7 +265,7 @@ public class Board extends GameObject {
      */
     public void abortSelection() {
         if (state == SELECTING) {
-            actionHandler.clearAction("abortSelection");
+            actionHandler.clearAction(GameAction.ABORT_SELECTION);
             selectionHandler.selected = new ArrayList<>();
             selectionHandler.predicate = null;
             setState(IDLE);
@@ -250,6 +273,33 @@ public class Board extends GameObject {
         }
     }
 
+    /**
+     * Toggles selection of the cell if a selection is ongoing and the cell is selectable.
+     * The selection is completed as soon as the max number of cells is selected.
+     *
+     * @param cell cell (null is ignored)
+     */
+    public void selectCell(BoardCell cell) {
+        if (state != SELECTING || cell == null || !selectionHandler.predicate.test(cell)) return;
+        session.notifyCellSelected(cell);
+        List<BoardCell> selected = selectionHandler.selected;
+        markCellDirty(cell);
+        if (selected.contains(cell)) {
+            selected.remove(cell);
+            for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionUpdated(selected);
+        }
+        else {
+            selected.add(cell);
+            for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionUpdated(selected);
+            if (selected.size() == selectionHandler.maxSelection) {
+                setState(IDLE);
+                for (CellSelectionListener listener : new ArrayList<>(cellSelectionListeners)) listener.onSelectionCompleted(selected);
+                selectionHandler.selected = new ArrayList<>();
+                selectionHandler.predicate = null;
+            }
+        }
+    }
+
     public List<BoardCell> getSelectedCells() {
         return selectionHandler.selected;
     }
@@ -262,15 +312,19 @@ public class Board extends GameObject {
     public void changeSelectionPredicate(Predicate<BoardCell> predicate) {
         if (state == SELECTING) {
             selectionHandler.predicate = predicate;
-            selectionHandler.resetOverlay();
+            selectionHandler.overlay = null;
+            markDirty();
         }
     }
 
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
-        for (Tile[] row : board) {
-            for (Tile tile : row) str.append(tile == null ? "-" : tile.getLevel()).append(" ");
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int index = model.indexOf(i, j);
+                str.append(model.isEmpty(index) ? "-" : model.getLevel(index)).append(" ");
+            }
             str.append("\n");
         }
         return str.toString();
@@ -286,6 +340,7 @@ public class Board extends GameObject {
 
     public void addDamageHighlight() {
         highlightFrames = GamePanelGraphics.ANIMATION_CYCLE;
+        markDirty();
     }
 
     public int getState() {
@@ -297,19 +352,11 @@ public class Board extends GameObject {
         if (state != this.state) {
             int oldState = this.state;
             this.state = state;
+            if (oldState == SELECTING || state == SELECTING) markDirty(); // The selection overlay appears or disappears
             for (StateListener listener : new ArrayList<>(stateListeners)) listener.onStateChanged(oldState, state);
         }
     }
 
-    /**
-     * Potentially dangerous method for modifying inner tile counter. Use with care!
-     *
-     * @param delta number that is added to the count
-     */
-    public void offsetTileCount(int delta) {
-        tileCount += delta;
-    }
-
     public int getBaseTileLevel() {
         return baseTileLevel;
     }
@@ -335,7 +382,43 @@ public class Board extends GameObject {
         return cols;
     }
 
-    public int getTileCount() {return tileCount;}
+    public int getTileCount() {return model.getTileCount();}
+
+    /**
+     * Checks in constant time whether a turn in the given direction is possible (would move or merge at least one tile).
+     *
+     * @param direction one of {@link Board#UP}, {@link Board#DOWN}, {@link Board#LEFT}, {@link Board#RIGHT}
+     * @return true if the turn is possible
+     */
+    public boolean canMove(int direction) {
+        return model.canMove(direction);
+    }
+
+    /**
+     * @return true if a turn in at least one direction is possible
+     */
+    public boolean hasLegalMove() {
+        return model.hasLegalMove();
+    }
+
+    /**
+     * Returns the logical model backing this board. It is meant for reading (e.g. by simulation or AI, which should copy it),
+     * all changes have to go through the board so that they are mirrored onto the tiles.
+     *
+     * @return board model
+     */
+    public BitBoard getModel() {
+        return model;
+    }
+
+    /**
+     * Sets the source of the pointer location used for cell selection.
+     *
+     * @param pointerLocator supplier of the pointer location relative to the game panel (may supply null if it is unknown)
+     */
+    public void setPointerLocator(Supplier<Point> pointerLocator) {
+        this.pointerLocator = pointerLocator;
+    }
 
     /**
      * Adds a turn listener.
@@ -389,14 +472,11 @@ public class Board extends GameObject {
      * Reacts appropriately if the tile is unable to be generated (board full).
      */
     public void generateRandomTile() throws GameLogicException {
-        if (tileCount == rows * cols) throw new GameLogicException("Attempt to generate a tile on a full board");
-        List<BoardCell> cells = getCellsByPredicate(x -> getTileInCell(x) == null);
-        if (!cells.isEmpty()) {
-            BoardCell cell = cells.get(random.nextInt(0, cells.size()));
-            HashMap<Integer, Integer> newTileWeights = new HashMap<>();
-            newTileWeights.put(baseTileLevel, 3);
-            newTileWeights.put(baseTileLevel+1, 1);
-            generateTile(cell, random.<Integer>weightedChoice(newTileWeights));
+        if (model.isFull()) throw new GameLogicException("Attempt to generate a tile on a full board");
+        int freeCells = getFreeCellCount();
+        if (freeCells > 0) {
+            BoardCell cell = getCell(getFreeCellMask(), random.nextInt(0, freeCells));
+            generateTile(cell, baseTileLevel + NEW_TILE_LEVEL_OFFSETS.sample(random));
         }
     }
 
@@ -407,11 +487,10 @@ public class Board extends GameObject {
      * @param level tile's level
      */
     public void generateTile(BoardCell cell, int level) throws GameLogicException {
-        if (tileCount == rows * cols) throw new GameLogicException("Attempt to generate a tile on a full board");
+        if (model.isFull()) throw new GameLogicException("Attempt to generate a tile on a full board");
         Point point = pointByCell(cell);
-        Tile tile = new Tile(point.x, point.y, level, gp);
-        board[cell.row][cell.col] = tile;
-        tileCount++;
+        Tile tile = new Tile(point.x, point.y, level, graphics);
+        putTileInCell(tile, cell);
     }
 
     /**
@@ -424,7 +503,6 @@ public class Board extends GameObject {
         Tile tile = getTileInCell(cell);
         if (tile == null) throw new GameLogicException("Trying to dispose of content of an empty cell");
         putTileInCell(null, cell);
-        tileCount--;
     }
 
     /**
@@ -456,6 +534,7 @@ public class Board extends GameObject {
      * @param tile tile
      */
     public void unlingerTile(Tile tile) {
+        tile.markDirty();
         transientTiles.remove(tile);
         tile.setLingering(false);
     }
@@ -531,10 +610,37 @@ public class Board extends GameObject {
         if (mergeBase == null) throw new GameLogicException("Trying to initiate merge while merge base cell, " + mergeBaseCell +", is empty");
         if (transientTile == null) throw new GameLogicException("Trying to initiate merge while transient tile cell, " + transientTileCell +", is empty");
         if (mergeBase.getLevel() != transientTile.getLevel()) throw new GameLogicException("Trying to merge tiles of different levels, " + mergeBase.getLevel() + " and " + transientTile.getLevel());
-        mergeBase.makeMergeBase();
         putTileInCell(null, transientTileCell);
-        animateTileMoveTransient(transientTile, pointByCell(mergeBaseCell));
-        tileCount--;
+        model.setLevel(model.indexOf(mergeBaseCell.row, mergeBaseCell.col), mergeBase.getLevel() + 1);
+        animateMerge(mergeBase, transientTile, mergeBaseCell);
+    }
+
+    /**
+     * Changes level of the tile in the given cell.
+     *
+     * @param cell cell
+     * @param level new level
+     * @throws GameLogicException if the cell is empty or the level is nonexistent
+     */
+    public void setTileLevel(BoardCell cell, int level) throws GameLogicException {
+        Tile tile = getTileInCell(cell);
+        if (tile == null) throw new GameLogicException("Trying to change level of an empty cell " + cell);
+        tile.setLevel(level);
+        model.setLevel(model.indexOf(cell.row, cell.col), level);
+    }
+
+    /**
+     * Locks or unlocks the tile in the given cell. Locked tiles neither move nor merge.
+     *
+     * @param cell cell
+     * @param locked whether the tile is to be locked
+     * @throws GameLogicException if the cell is empty
+     */
+    public void setTileLocked(BoardCell cell, boolean locked) throws GameLogicException {
+        Tile tile = getTileInCell(cell);
+        if (tile == null) throw new GameLogicException("Trying to lock an empty cell " + cell);
+        tile.setLocked(locked);
+        model.setLocked(model.indexOf(cell.row, cell.col), locked);
     }
 
     /**
@@ -551,6 +657,11 @@ public class Board extends GameObject {
         catch (IndexOutOfBoundsException e){
             throw new GameLogicException("Trying to put a tile into a nonexistent cell " + cell);
         }
+        markCellDirty(cell);
+        if (tile != null) tile.markDirty();
+        int index = model.indexOf(cell.row, cell.col);
+        if (tile == null) model.clear(index);
+        else model.set(index, tile.getLevel(), tile.isLocked());
     }
 
     /**
@@ -569,6 +680,98 @@ public class Board extends GameObject {
         }
     }
 
+    /**
+     * Gets the shared object of the cell with the given index. It must not be modified.
+     *
+     * @param index cell index (row * number of columns + column)
+     * @return cell
+     */
+    public BoardCell getCell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Gets the n-th (counting from 0, in row-major order) cell contained in the mask, without allocation.
+     *
+     * @param mask mask of cells (bit with the cell's index is set for every contained cell)
+     * @param n ordinal of the cell
+     * @return shared cell object, which must not be modified
+     */
+    public BoardCell getCell(int mask, int n) {
+        return cells[BitBoard.nthIndex(mask, n)];
+    }
+
+    /**
+     * Gets a {@link List} of cells contained in the mask, in row-major order.
+     *
+     * @param mask mask of cells
+     * @return new list of shared cell objects
+     */
+    public List<BoardCell> getCells(int mask) {
+        List<BoardCell> list = new ArrayList<>(Integer.bitCount(mask));
+        for (; mask != 0; mask &= mask - 1) list.add(cells[Integer.numberOfTrailingZeros(mask)]);
+        return list;
+    }
+
+    /**
+     * @return mask of empty cells
+     */
+    public int getFreeCellMask() {
+        return model.getFreeMask();
+    }
+
+    public int getFreeCellCount() {
+        return model.getCellCount() - model.getTileCount();
+    }
+
+    /**
+     * @return mask of cells with tiles that are not locked
+     */
+    public int getUnlockedTileMask() {
+        return model.getUnlockedMask();
+    }
+
+    /**
+     * Gets a mask of cells with unlocked tiles within the level range.
+     *
+     * @param minLevel minimal level (inclusive)
+     * @param maxLevel maximal level (inclusive)
+     * @return mask of cells
+     */
+    public int getUnlockedTileMask(int minLevel, int maxLevel) {
+        int result = 0;
+        for (int mask = model.getUnlockedMask(); mask != 0; mask &= mask - 1) {
+            int index = Integer.numberOfTrailingZeros(mask);
+            int level = model.getLevel(index);
+            if (level >= minLevel && level <= maxLevel) result |= 1 << index;
+        }
+        return result;
+    }
+
+    /**
+     * Gets a mask of cells with tiles of the level, locked or not.
+     *
+     * @param level tile level
+     * @return mask of cells
+     */
+    public int getTileMask(int level) {
+        if (model.getLevelCount(level) == 0) return 0;
+        int result = 0;
+        for (int mask = model.getOccupiedMask(); mask != 0; mask &= mask - 1) {
+            int index = Integer.numberOfTrailingZeros(mask);
+            if (model.getLevel(index) == level) result |= 1 << index;
+        }
+        return result;
+    }
+
+    /**
+     * @param level tile level
+     * @return number of tiles of the level on the board
+     */
+    public int getTileCount(int level) {
+        return model.getLevelCount(level);
+    }
+
     /**
      * Gets a {@link List} of cells that satisfy the {@link Predicate}.
      *
@@ -586,6 +789,18 @@ public class Board extends GameObject {
         return cells;
     }
 
+    /**
+     * Instantly finishes all started animations along with the ones scheduled after them.
+     * <br>
+     * Animations only progress in {@link Board#update()}, so a board that is not rendered has to be settled after every action
+     * to run the logic deferred until the end of the animations (see {@link GameSession#settle()}).
+     */
+    public void settle() {
+        if (state == SELECTING) return;
+        if (state == IDLE && isAnimating()) setState(ANIMATING);
+        flush();
+    }
+
     /**
      * Finishes all tile animations and deletes transient tiles if animating.
      */
@@ -597,59 +812,109 @@ public class Board extends GameObject {
                     if (tile != null) tile.flush();
                 }
             }
+            for (Tile tile : transientTiles) tile.markDirty();
             transientTiles.removeIf(x -> true);
             setState(IDLE);
         }
     }
 
     /**
-     * Finds the board cell corresponding to given point
+     * Brings the static layer up to date. A tile is static if it is idle, visible, not visually locked and in its cell's place,
+     * so it looks exactly like a tile of its level in that cell. Only the cells whose static tile has changed since the last frame
+     * (appeared, disappeared, was replaced or changed level) are redrawn.
+     */
+    private void updateStaticLayer() {
+        BufferedImage background = graphics.getTexture(GamePanelGraphics.TEXTURE_BOARD_BG);
+        if (staticLayer == null) {
+            staticLayer = GamePanelGraphics.createCompatibleImage(preferredWidth, preferredHeight, Transparency.OPAQUE);
+            Graphics2D g2d = staticLayer.createGraphics();
+            g2d.drawImage(background, 0, 0, null);
+            g2d.dispose();
+        }
+        int tileSize = graphics.getTileSize(), pitch = tileSize + graphics.getTileOffset();
+        Graphics2D g2d = null;
+        for (int index = 0; index < layerTiles.length; index++) {
+            int cellX = graphics.getTileOffset() + index % cols * pitch, cellY = graphics.getTileOffset() + index / cols * pitch;
+            Tile tile = board[index / cols][index % cols];
+            boolean isStatic = tile != null && tile.getState() == Tile.IDLE && tile.isVisible() && !tile.isVisuallyLocked()
+                    && (int)tile.getX() == (int)x + cellX && (int)tile.getY() == (int)y + cellY;
+            Tile layerTile = isStatic ? tile : null;
+            int level = isStatic ? tile.getLevel() + tile.getLevelVisualOffset() : -1;
+            if (layerTiles[index] == layerTile && layerLevels[index] == level) continue;
+            if (g2d == null) g2d = staticLayer.createGraphics();
+            g2d.drawImage(background, cellX, cellY, cellX + tileSize, cellY + tileSize, cellX, cellY, cellX + tileSize, cellY + tileSize, null);
+            if (isStatic) g2d.drawImage(graphics.getTileTexture(level), cellX, cellY, null);
+            layerTiles[index] = layerTile;
+            layerLevels[index] = level;
+        }
+        if (g2d != null) g2d.dispose();
+    }
+
+    /**
+     * Renders the tile in the cell unless it is drawn as a part of the static layer.
+     */
+    private void renderDynamicTile(int row, int col, Graphics2D g2d) {
+        Tile tile = board[row][col];
+        if (tile != null && layerTiles[row * cols + col] != tile) tile.render(g2d);
+    }
+
+    /**
+     * Reports the whole board as changed.
+     */
+    private void markDirty() {
+        markDirty((int)x, (int)y, preferredWidth, preferredHeight);
+    }
+
+    private void markCellDirty(BoardCell cell) {
+        if (graphics.isHeadless()) return;
+        Point point = pointByCell(cell);
+        markDirty(point.x, point.y, graphics.getTileSize(), graphics.getTileSize());
+    }
+
+    /**
+     * Finds the board cell corresponding to given point, computing it from the tile pitch.
      *
      * @param point base-scale point relative to the GamePanel
-     * @return board cell at the given point, or null if there is no board cell at the point
+     * @return shared object of the board cell at the given point, or null if there is no board cell at the point (including the gaps between cells)
      */
     private BoardCell cellByPoint(Point point) {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                BoardCell cell = new BoardCell(i, j);
-                Point cellPoint = pointByCell(cell);
-                Rectangle bounds = new Rectangle(cellPoint.x, cellPoint.y, graphics.getTileSize(), graphics.getTileSize());
-                if (bounds.contains(point)) return cell;
-            }
-        }
-        return null;
+        int pitch = graphics.getTileSize() + graphics.getTileOffset();
+        int localX = point.x - (int)x - graphics.getTileOffset(), localY = point.y - (int)y - graphics.getTileOffset();
+        if (localX < 0 || localY < 0) return null;
+        int row = localY / pitch, col = localX / pitch;
+        if (row >= rows || col >= cols || localX % pitch >= graphics.getTileSize() || localY % pitch >= graphics.getTileSize()) return null;
+        return cells[row * cols + col];
+    }
+
+    /**
+     * Makes a turn in the given direction. Nothing happens if no tile can move that way.
+     *
+     * @param direction one of {@link Board#UP}, {@link Board#DOWN}, {@link Board#LEFT}, {@link Board#RIGHT}
+     * @return true if the turn was made
+     */
+    public boolean move(int direction) {
+        session.notifyMove(direction);
+        shift(direction);
+        moveDirection = direction;
+        boolean turnMade = turnReactionScheduled;
+        moveInputFollowup();
+        return turnMade;
     }
 
     private void handleTurnInput() {
-        if (actionHandler.anyActionScheduled()) {
-            switch (actionHandler.getPriorityAction()) {
-                case "up" -> {
-                    shiftUp();
-                    actionHandler.clearAction("up");
-                    moveDirection = UP;
-                    moveInputFollowup();
-                }
-                case "down" -> {
-                    shiftDown();
-                    actionHandler.clearAction("down");
-                    moveDirection = DOWN;
-                    moveInputFollowup();
-                }
-                case "left" -> {
-                    shiftLeft();
-                    actionHandler.clearAction("left");
-                    moveDirection = LEFT;
-                    moveInputFollowup();
-                }
-                case "right" -> {
-                    shiftRight();
-                    actionHandler.clearAction("right");
-                    moveDirection = RIGHT;
-                    moveInputFollowup();
-                }
-            }
+        GameAction action = actionHandler.getPriorityAction();
+        if (action == null) return;
+        int direction = switch (action) {
+            case UP -> UP;
+            case DOWN -> DOWN;
+            case LEFT -> LEFT;
+            case RIGHT -> RIGHT;
+            default -> -1;
+        };
+        if (direction >= 0) {
+            actionHandler.clearAction(action);
+            move(direction);
         }
-
     }
 
     /**
@@ -659,108 +924,65 @@ public class Board extends GameObject {
         if (turnReactionScheduled) {
             turnReactionScheduled = false;
             generateRandomTile();
-            AudioManager.playSFX("move");
+            session.playSound("move");
             for (TurnListener listener : new ArrayList<>(turnListeners)) listener.onTurn();
-            if (tileCount == rows * cols && checkForLoseCondition()) gp.loseLevel();
-        }
-    }
-
-    private void shiftUp() {
-        for (int j = 0; j < cols; j++) {
-            BoardCell cellEdge = new BoardCell(0, j);
-            for (int i = 1; i < rows; i++) {
-                BoardCell cellDynamic = new BoardCell(i, j);
-                if (board[i][j] != null && !board[i][j].isLocked()) {
-                    for (int z = i - 1; z >= 0; z--) {
-                        if (cellAction(new BoardCell(z, j), cellDynamic, cellEdge, -1, 0)) break;
-                    }
-                }
-            }
+            if (model.isFull() && checkForLoseCondition()) session.loseLevel();
         }
     }
 
-    private void shiftDown() {
-        for (int j = 0; j < cols; j++) {
-            BoardCell cellEdge = new BoardCell(rows - 1, j);
-            for (int i = rows - 2; i >= 0; i--) {
-                BoardCell cellDynamic = new BoardCell(i, j);
-                if (board[i][j] != null && !board[i][j].isLocked()) {
-                    for (int z = i + 1; z < rows; z++) {
-                        if (cellAction(new BoardCell(z, j), cellDynamic, cellEdge, 1, 0)) break;
-                    }
+    /**
+     * Logically shifts the board in the given direction and mirrors the result onto the tiles.
+     *
+     * @param direction direction of the shift
+     */
+    private void shift(int direction) {
+        if (!model.canMove(direction)) return;
+        flush();
+        if (!model.move(direction)) return;
+        int arrived = 0; // Cells that already received a tile during this shift.
+        for (int[] line : model.getLines(direction)) {
+            for (int index : line) {
+                int targetIndex = model.getMoveTarget(index);
+                if (targetIndex < 0) continue;
+                Tile tile = board[index / cols][index % cols];
+                BoardCell targetCell = new BoardCell(targetIndex / cols, targetIndex % cols);
+                // Merge case
+                if ((arrived & (1 << targetIndex)) != 0) {
+                    board[index / cols][index % cols] = null;
+                    animateMerge(board[targetCell.row][targetCell.col], tile, targetCell);
                 }
-            }
-        }
-    }
-
-    private void shiftLeft() {
-        for (int i = 0; i < rows; i++) {
-            BoardCell cellEdge = new BoardCell(i, 0);
-            for (int j = 1; j < cols; j++) {
-                BoardCell cellDynamic = new BoardCell(i, j);
-                if (board[i][j] != null && !board[i][j].isLocked()) {
-                    for (int z = j - 1; z >= 0; z--) {
-                        if (cellAction(new BoardCell(i, z), cellDynamic, cellEdge, 0, -1)) break;
-                    }
+                // Move case
+                else if (targetIndex != index) {
+                    board[index / cols][index % cols] = null;
+                    board[targetCell.row][targetCell.col] = tile;
+                    animateTileMove(tile, targetCell);
                 }
+                arrived |= 1 << targetIndex;
             }
         }
+        turnReactionScheduled = true;
     }
 
-    private void shiftRight() {
-        for (int i = 0; i < rows; i++) {
-            BoardCell cellEdge = new BoardCell(i, cols - 1);
-            for (int j = cols - 2; j >= 0; j--) {
-                BoardCell cellDynamic = new BoardCell(i, j);
-                if (board[i][j] != null && !board[i][j].isLocked()) {
-                    for (int z = j + 1; z < cols; z++) {
-                        if (cellAction(new BoardCell(i, z), cellDynamic, cellEdge, 0, 1)) break;
-                    }
-                }
-            }
-        }
+    /**
+     * Starts merge animation: the transient tile moves into the merge base, which then displays its upgraded level.
+     *
+     * @param mergeBase tile that remains on the board
+     * @param transientTile tile that gets deleted
+     * @param mergeBaseCell cell of the merge base
+     */
+    private void animateMerge(Tile mergeBase, Tile transientTile, BoardCell mergeBaseCell) {
+        flush();
+        mergeBase.makeMergeBase();
+        animateTileMoveTransient(transientTile, pointByCell(mergeBaseCell));
     }
 
     /**
-     * Handles turn interaction between two cells.
-     *
-     * @param cellStatic cell interaction with which is being assessed
-     * @param cellDynamic cell whose action is being assessed
-     * @param rowStep row shift per step of checking (outside this method)
-     * @param colStep col shift per step of checking (outside this method)
-     * @return true if the tiles interacted in any way (not necessarily moved), false otherwise
+     * @return true if any tile is in the middle of an animation or there are transient tiles to be deleted
      */
-    private boolean cellAction(BoardCell cellStatic, BoardCell cellDynamic, BoardCell cellEdge, int rowStep, int colStep) {
-        Tile tileStatic = getTileInCell(cellStatic);
-        Tile tileDynamic = getTileInCell(cellDynamic);
-        // Move to edge case
-        if (tileStatic == null && cellStatic.equals(cellEdge)) {
-            moveCellContent(cellDynamic, cellStatic);
-            animateTileMove(tileDynamic, cellStatic);
-            turnReactionScheduled = true;
-            return true;
-        }
-        if (tileStatic != null) {
-            // Merge case
-            if (tileStatic.getState() != Tile.MERGING && !tileStatic.isLocked() && tileStatic.getLevel() == tileDynamic.getLevel()) {
-                fullMerge(cellStatic, cellDynamic);
-                turnReactionScheduled = true;
-                return true;
-            }
-            // Move limited by other tile case
-            else {
-                cellStatic.row -= rowStep;
-                cellStatic.col -= colStep;
-                // Case where movement does not occur because of the static tile
-                if (cellStatic.equals(cellDynamic)) return true;
-                // Actual move case
-                else if (board[cellStatic.row][cellStatic.col] == null) {
-                    moveCellContent(cellDynamic, cellStatic);
-                    animateTileMove(tileDynamic, cellStatic);
-                    turnReactionScheduled = true;
-                    return true;
-                }
-            }
+    private boolean isAnimating() {
+        if (!transientTiles.isEmpty()) return true;
+        for (Tile[] row : board) {
+            for (Tile tile : row) if (tile != null && tile.getState() != Tile.IDLE) return true;
         }
         return false;
     }
@@ -788,14 +1010,8 @@ public class Board extends GameObject {
      * @return true if the player has no turns and false if they still do
      */
     private boolean checkForLoseCondition() {
-        if (tileCount == rows * cols && gp.getState() != GamePanel.ENDING) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    if ((j < cols - 1 && board[i][j].getLevel() == board[i][j + 1].getLevel() && !board[i][j].isLocked() && !board[i][j + 1].isLocked()) ||
-                            (i < rows - 1 && board[i][j].getLevel() == board[i + 1][j].getLevel() && !board[i][j].isLocked() && !board[i + 1][j].isLocked())) return false;
-                }
-            }
-            return true;
+        if (model.isFull() && session.getState() != GameSession.ENDING) {
+            return !model.hasLegalMove();
         }
         return false;
     }
@@ -1,12 +1,10 @@
 package game.gameobjects;
 
-import UI.LevelMenu;
 import game.GameLogicException;
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
 import game.gameobjects.particles.ParticleManager;
 import game.utils.GamePanelGraphics;
-import misc.AudioManager;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -25,8 +23,8 @@ public class Entity extends GameObject {
     private final long tolerance;
     private final List<StateListener> stateListeners = new ArrayList<>();
     private final int gameMode;
+    private final GameSession session;
     private final ParticleManager particleManager;
-    private final LevelMenu ui;
     private final long maxTileImpact;
 
     private long health;
@@ -41,18 +39,17 @@ public class Entity extends GameObject {
      * @param y y coordinate
      * @param maxHealth max health
      * @param tolerance tolerance to damage healing. Any damage / healing less than or equal to this number is nullified
-     * @param gp root GamePanel
+     * @param session root session
      */
-    public Entity(int x, int y, long maxHealth, long tolerance, GamePanel gp) {
-        super(x, y, gp);
-        this.gameMode = gp.getGameMode();
-        this.ui = gp.getBase();
-        this.particleManager = gp.getParticleManager();
+    public Entity(int x, int y, long maxHealth, long tolerance, GameSession session) {
+        super(x, y, session.getGameGraphics());
+        this.session = session;
+        this.gameMode = session.getGameMode();
+        this.particleManager = session.getParticleManager();
         this.maxHealth = maxHealth;
-        this.health = gameMode == GamePanel.GAME_MODE_REPAIR ? maxHealth / 10 : maxHealth;
+        this.health = gameMode == GameSession.GAME_MODE_REPAIR ? maxHealth / 10 : maxHealth;
         this.tolerance = tolerance;
-        this.maxTileImpact = (long)Math.pow(gp.getBaseTileDamage(), 11);
-        ui.setHealthbarValue((int)health);
+        this.maxTileImpact = (long)Math.pow(session.getBaseTileDamage(), 11);
     }
 
     @Override
@@ -69,7 +66,7 @@ public class Entity extends GameObject {
     @Override
     public void render(Graphics2D g2d) {
         if (state == ANIMATING) g2d.drawImage(animationImage, (int)x, (int)y, null);
-        else g2d.drawImage(graphics.getTexture("entity"), (int)x, (int)y, null);
+        else g2d.drawImage(graphics.getTexture(GamePanelGraphics.TEXTURE_ENTITY), (int)x, (int)y, null);
     }
 
     public void takeDamage(long damage) {
@@ -78,10 +75,10 @@ public class Entity extends GameObject {
             health -= damage;
             health = Math.max(health, 0);
             if (health == 0) {
-                AudioManager.playSFX("breakdown");
+                session.playSound("breakdown");
                 switch (gameMode) {
-                    case GamePanel.GAME_MODE_ATTACK -> gp.winLevel();
-                    case GamePanel.GAME_MODE_REPAIR -> gp.loseLevel();
+                    case GameSession.GAME_MODE_ATTACK -> session.winLevel();
+                    case GameSession.GAME_MODE_REPAIR -> session.loseLevel();
                 }
             }
         }
@@ -92,19 +89,20 @@ public class Entity extends GameObject {
         if (healing > tolerance) {
             health += healing;
             health = Math.min(health, maxHealth);
-            if (health == maxHealth && gameMode == GamePanel.GAME_MODE_REPAIR) gp.winLevel();
+            if (health == maxHealth && gameMode == GameSession.GAME_MODE_REPAIR) session.winLevel();
         }
     }
 
     public void animateDamage(long damage) {
         if (damage <= tolerance) damage = 0;
         if (damage >= 0) {
-            animationImage = graphics.getTexture("entityDamaged");
             if (damage > 0) {
-                ui.setHealthbarValue((int)health);
-                AudioManager.playSFX("damage");
+                session.notifyHealthChanged(health);
+                session.playSound("damage");
             }
-            else AudioManager.playSFX("negate");
+            else session.playSound("negate");
+            if (graphics.isHeadless()) return; // Nothing to animate if the session is not rendered.
+            animationImage = graphics.getTexture(GamePanelGraphics.TEXTURE_ENTITY_DAMAGED);
             if (health <= 0) particleManager.addExplosionParticle((int)x + (GamePanelGraphics.ENTITY_WIDTH - GamePanelGraphics.ENTITY_HEIGHT)/2, (int)y);
             particleManager.addHealthChangeParticle("-" + damage, new Rectangle((int)x + animationImage.getWidth() / 4, (int)y + animationImage.getHeight() / 4, animationImage.getWidth() / 2, animationImage.getHeight() / 2));
             startAnimationCycle();
@@ -113,7 +111,7 @@ public class Entity extends GameObject {
                 public void onStateChanged(int oldState, int newState) {
                     if (oldState == ANIMATING && newState == IDLE) {
                         removeStateListener(this);
-                        animationImage = graphics.getTexture("entity");
+                        animationImage = graphics.getTexture(GamePanelGraphics.TEXTURE_ENTITY);
                     }
                 }
             });
@@ -123,12 +121,13 @@ public class Entity extends GameObject {
     public void animateHealing(long healing) {
         if (healing <= tolerance) healing = 0;
         if (healing >= 0) {
-            animationImage = graphics.getTexture("entityHealed");
             if (healing > 0) {
-                ui.setHealthbarValue((int)health);
-                AudioManager.playSFX("heal");
+                session.notifyHealthChanged(health);
+                session.playSound("heal");
             }
-            else AudioManager.playSFX("negate");
+            else session.playSound("negate");
+            if (graphics.isHeadless()) return;
+            animationImage = graphics.getTexture(GamePanelGraphics.TEXTURE_ENTITY_HEALED);
             particleManager.addHealthChangeParticle("+" + healing, new Rectangle((int)x + animationImage.getWidth() / 4, (int)y + animationImage.getHeight() / 4, animationImage.getWidth() / 2, animationImage.getHeight() / 2));
             startAnimationCycle();
             addStateListener(new StateListener() {
@@ -136,7 +135,7 @@ public class Entity extends GameObject {
                 public void onStateChanged(int oldState, int newState) {
                     if (oldState == ANIMATING && newState == IDLE) {
                         removeStateListener(this);
-                        animationImage = graphics.getTexture("entity");
+                        animationImage = graphics.getTexture(GamePanelGraphics.TEXTURE_ENTITY);
                     }
                 }
             });
@@ -156,6 +155,7 @@ public class Entity extends GameObject {
         if (this.state != state) {
             int oldState = this.state;
             this.state = state;
+            markDirty();
             for (StateListener listener : new ArrayList<>(stateListeners)) listener.onStateChanged(oldState, state);
         }
     }
@@ -174,6 +174,11 @@ public class Entity extends GameObject {
 
     private void startAnimationCycle() {
         animationFramesLeft = GamePanelGraphics.ANIMATION_CYCLE;
+        markDirty(); // The animation may restart with a different image without a change of state
         setState(ANIMATING);
     }
+
+    private void markDirty() {
+        markDirty((int)x, (int)y, GamePanelGraphics.ENTITY_WIDTH, GamePanelGraphics.ENTITY_HEIGHT);
+    }
 }
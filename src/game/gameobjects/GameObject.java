@@ -1,6 +1,5 @@
 package game.gameobjects;
 
-import game.GamePanel;
 import game.utils.GamePanelGraphics;
 
 import java.awt.*;
@@ -13,7 +12,6 @@ import java.awt.*;
 public abstract class GameObject {
     protected float x;
     protected float y;
-    protected GamePanel gp;
     protected GamePanelGraphics graphics;
 
     /**
@@ -21,13 +19,12 @@ public abstract class GameObject {
      *
      * @param x x at the moment of creation
      * @param y y at the moment of creation
-     * @param gp the root {@link GamePanel} of this object
+     * @param graphics graphics of the level this object belongs to
      */
-    public GameObject(int x, int y, GamePanel gp) {
+    public GameObject(int x, int y, GamePanelGraphics graphics) {
         this.x = x;
         this.y = y;
-        this.gp = gp;
-        this.graphics = gp.getGameGraphics();
+        this.graphics = graphics;
     }
 
     /**
@@ -42,6 +39,18 @@ public abstract class GameObject {
      */
     public abstract void render(Graphics2D g2d);
 
+    /**
+     * Reports a changed part of the scene, which has to be repainted in the next frame.
+     *
+     * @param x left edge relative to the game panel
+     * @param y top edge relative to the game panel
+     * @param width width
+     * @param height height
+     */
+    protected void markDirty(int x, int y, int width, int height) {
+        graphics.getDirtyRegion().add(x, y, width, height);
+    }
+
     /**
      * @return x value relative to the game panel
      */
@@ -0,0 +1,149 @@
+package game.gameobjects;
+
+/**
+ * Precomputed results of sliding a single board line (row or column) towards its first cell.
+ * <br>
+ * A line is encoded cell by cell, starting from the edge the tiles move towards: 0 is an empty cell,
+ * level + 1 is a tile (so garbage tiles are 1) and {@link MoveTable#WALL} is a locked tile, which neither moves nor merges.
+ * Lines of up to 4 cells are packed 4 bits per cell and looked up in a table of 65,536 entries
+ * (shorter lines are padded with walls). Lines of 5 cells use a compact mixed-radix index over the 14 possible codes.
+ * <br>
+ * Every entry contains the resulting line, positions where merges happened, whether anything moved or merged,
+ * and destination position of the content of every cell.
+ *
+ * @author Artem Novak
+ */
+final class MoveTable {
+    public static final int WALL = 13;
+    public static final int MAX_LINE = 5;
+
+    // Entry layout
+    public static final int MERGE_SHIFT = 20;
+    public static final long MOVED = 1L << 25;
+    public static final long MERGED = 1L << 26;
+    public static final long CHANGED = MOVED | MERGED;
+    private static final int DESTINATION_SHIFT = 27;
+
+    private static final int CODES = WALL + 1;
+    private static final int MAX_CODE = BitBoard.MAX_LEVEL; // Tiles of max level (code MAX_LEVEL + 1) do not merge.
+
+    private MoveTable() {}
+
+    /**
+     * Table for lines of up to 4 cells, built when first needed.
+     */
+    private static class ShortLines {
+        private static final long[] TABLE = new long[1 << 16];
+
+        static {
+            int[] codes = new int[4];
+            for (int key = 0; key < TABLE.length; key++) {
+                for (int i = 0; i < 4; i++) codes[i] = (key >>> (i << 2)) & 0xF;
+                TABLE[key] = compute(codes);
+            }
+        }
+    }
+
+    /**
+     * Table for lines of 5 cells, built when first needed.
+     */
+    private static class LongLines {
+        private static final long[] TABLE = new long[CODES * CODES * CODES * CODES * CODES];
+
+        static {
+            int[] codes = new int[5];
+            for (int key = 0; key < TABLE.length; key++) {
+                int rest = key;
+                for (int i = 0; i < 5; i++) {
+                    codes[i] = rest % CODES;
+                    rest /= CODES;
+                }
+                TABLE[key] = compute(codes);
+            }
+        }
+    }
+
+    /**
+     * Looks up the result of sliding a line.
+     *
+     * @param codes line codes, starting from the edge the tiles move towards
+     * @param length number of cells in the line (1 to {@link MoveTable#MAX_LINE})
+     * @return table entry
+     */
+    public static long lookup(int[] codes, int length) {
+        if (length == MAX_LINE) {
+            int key = 0;
+            for (int i = MAX_LINE - 1; i >= 0; i--) key = key * CODES + codes[i];
+            return LongLines.TABLE[key];
+        }
+        int key = 0;
+        for (int i = 0; i < 4; i++) key |= (i < length ? codes[i] : WALL) << (i << 2);
+        return ShortLines.TABLE[key];
+    }
+
+    /**
+     * @return code of the cell at the given position after the move
+     */
+    public static int resultCode(long entry, int position) {
+        return (int)(entry >>> (position << 2)) & 0xF;
+    }
+
+    /**
+     * @return position where content of the cell at the given position ends up after the move
+     */
+    public static int destination(long entry, int position) {
+        return (int)(entry >>> (DESTINATION_SHIFT + position * 3)) & 0x7;
+    }
+
+    /**
+     * @return true if a merge resulted in the cell at the given position
+     */
+    public static boolean isMerge(long entry, int position) {
+        return (entry & (1L << (MERGE_SHIFT + position))) != 0;
+    }
+
+    /**
+     * Slides a line following the original 2048 rules: tiles slide towards the edge until they meet another tile or a wall,
+     * equal tiles merge, and a tile can only be merged into once per move.
+     *
+     * @param codes line codes
+     * @return table entry
+     */
+    private static long compute(int[] codes) {
+        int length = codes.length;
+        int[] result = codes.clone();
+        long entry = 0;
+        int target = 0; // Position the next sliding tile would occupy.
+        int mergeCandidate = -1; // Position of the tile the next sliding tile may merge into.
+        for (int position = 0; position < length; position++) {
+            int code = codes[position];
+            int destination = position;
+            if (code == WALL) {
+                target = position + 1;
+                mergeCandidate = -1;
+            }
+            else if (code != 0) {
+                if (mergeCandidate >= 0 && result[mergeCandidate] == code && code <= MAX_CODE) {
+                    result[mergeCandidate] = code + 1;
+                    result[position] = 0;
+                    destination = mergeCandidate;
+                    entry |= MERGED | (1L << (MERGE_SHIFT + mergeCandidate));
+                    mergeCandidate = -1;
+                }
+                else {
+                    if (target != position) {
+                        result[target] = code;
+                        result[position] = 0;
+                        destination = target;
+                        entry |= MOVED;
+                    }
+                    mergeCandidate = target;
+                    target++;
+                }
+            }
+            entry |= (long)destination << (DESTINATION_SHIFT + position * 3);
+        }
+        for (int position = 0; position < length; position++) entry |= (long)result[position] << (position << 2);
+        return entry;
+    }
+}
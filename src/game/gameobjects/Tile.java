@@ -1,9 +1,7 @@
 package game.gameobjects;
 
 import game.GameLogicException;
-import game.GamePanel;
 import game.utils.GamePanelGraphics;
-import misc.AudioManager;
 
 import java.awt.*;
 
@@ -33,8 +31,8 @@ public class Tile extends GameObject {
     private int animationFramesLeft;
     private boolean lingering;
 
-    public Tile(int x, int y, int level, GamePanel gp) {
-        super(x, y, gp);
+    public Tile(int x, int y, int level, GamePanelGraphics graphics) {
+        super(x, y, graphics);
         this.targetX = x;
         this.targetY = y;
         this.level = level;
@@ -44,6 +42,8 @@ public class Tile extends GameObject {
      * Updates all logical values of the tile.
      */
     public void update() {
+        boolean animating = state != IDLE;
+        if (animating) markDirty();
         if (state == MOVING || state == MERGING) {
             x += speedX;
             y += speedY;
@@ -68,6 +68,7 @@ public class Tile extends GameObject {
             }
         }
         if (state != IDLE && animationFramesLeft <= 0) flush();
+        if (animating) markDirty();
     }
 
     public void render(Graphics2D g2d) {
@@ -78,11 +79,11 @@ public class Tile extends GameObject {
             if (state == PULSATING) {
                 int size = (graphics.getTileSize() - (int)(visualOffset * 2));
                 int offset = (int)visualOffset;
-                g2d.drawImage(graphics.getTexture("tile"+(level + levelVisualOffset)), screenX + offset, screenY + offset, size, size, null);
+                g2d.drawImage(graphics.getTileTexture(level + levelVisualOffset), screenX + offset, screenY + offset, size, size, null);
             }
             else {
-                g2d.drawImage(graphics.getTexture(("tile"+(level + levelVisualOffset))), screenX, screenY, null);
-                if (visuallyLocked) g2d.drawImage(graphics.getTexture(("lockedOverlay")), screenX, screenY, null);
+                g2d.drawImage(graphics.getTileTexture(level + levelVisualOffset), screenX, screenY, null);
+                if (visuallyLocked) g2d.drawImage(graphics.getTexture(GamePanelGraphics.TEXTURE_LOCKED_OVERLAY), screenX, screenY, null);
             }
         }
     }
@@ -91,6 +92,7 @@ public class Tile extends GameObject {
      * Moves the tile to the state expected at the end of current animation cycle and switches animation state to STATIC.
      */
     public void flush() {
+        markDirty();
         x = targetX;
         y = targetY;
         speedX = 0;
@@ -102,6 +104,16 @@ public class Tile extends GameObject {
         if (state == GENERATING) visible = true;
         animationFramesLeft = 0;
         state = IDLE;
+        markDirty();
+    }
+
+    /**
+     * Reports the area the tile may currently cover, including the part outside its cell while it pulses outward.
+     */
+    void markDirty() {
+        int margin = graphics.getTilePulseOffset() + 1;
+        int size = graphics.getTileSize() + 2 * margin;
+        markDirty((int)Math.floor(x) - margin, (int)Math.floor(y) - margin, size, size);
     }
 
     public int getState() {
@@ -125,6 +137,7 @@ public class Tile extends GameObject {
     public void setLevel(int level) {
         if (level < 0 || level > 11) throw new GameLogicException("Trying to set tile to nonexistent level " + level);
         this.level = level;
+        markDirty();
     }
 
     public int getLevelVisualOffset() {
@@ -134,6 +147,7 @@ public class Tile extends GameObject {
     public void setLevelVisualOffset(int levelVisualOffset) {
         if (level + levelVisualOffset < 0 || level + levelVisualOffset > 11) throw new GameLogicException("Trying to set a level offset that will visually amount to nonexistent level " + level + levelVisualOffset);
         this.levelVisualOffset = levelVisualOffset;
+        markDirty();
     }
 
     public boolean isLocked() {
@@ -150,6 +164,7 @@ public class Tile extends GameObject {
 
     public void setVisuallyLocked(boolean visuallyLocked) {
         this.visuallyLocked = visuallyLocked;
+        markDirty();
     }
 
     public boolean isVisible() {
@@ -158,6 +173,7 @@ public class Tile extends GameObject {
 
     public void setVisible(boolean visible) {
         this.visible = visible;
+        markDirty();
     }
 
     /**
@@ -196,6 +212,7 @@ public class Tile extends GameObject {
         speedVisualOffset = (float)(Math.abs(startOffset - peakOffset) + Math.abs(peakOffset))/ GamePanelGraphics.ANIMATION_CYCLE;
         targetVisualOffset = peakOffset;
         state = PULSATING;
+        markDirty();
     }
 
     /**
@@ -242,6 +259,7 @@ public class Tile extends GameObject {
         targetVisualOffset = graphics.getTileSize()/2;
         speedVisualOffset = (float)(targetVisualOffset) / GamePanelGraphics.ANIMATION_CYCLE;
         state = PULSATING;
+        markDirty();
     }
 
     private void startAnimationCycle() {
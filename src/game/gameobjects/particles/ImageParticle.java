@@ -1,6 +1,6 @@
 package game.gameobjects.particles;
 
-import game.GamePanel;
+import game.utils.GamePanelGraphics;
 
 import java.awt.image.BufferedImage;
 
@@ -15,8 +15,8 @@ public class ImageParticle extends Particle {
     private int currentIndex;
     private int frameCounter;
 
-    public ImageParticle(int x, int y, int lifetime, int fadeoutFrame, BufferedImage[] images, int changeFrequency, GamePanel gp) {
-        super(x, y, lifetime, fadeoutFrame, gp);
+    public ImageParticle(int x, int y, int lifetime, int fadeoutFrame, BufferedImage[] images, int changeFrequency, GamePanelGraphics graphics) {
+        super(x, y, lifetime, fadeoutFrame, graphics);
         this.images = images;
         this.changeFrequency = changeFrequency;
         image = images[currentIndex];
@@ -1,6 +1,6 @@
 package game.gameobjects.particles;
 
-import game.GamePanel;
+import game.utils.GamePanelGraphics;
 import game.gameobjects.GameObject;
 
 import java.awt.*;
@@ -27,10 +27,10 @@ public abstract class Particle extends GameObject {
      * @param y y coordinate
      * @param lifetime number of frames it will display
      * @param fadeoutFrame frame on which the particle starts to fade
-     * @param gp base GamePanel
+     * @param graphics graphics of the level
      */
-    public Particle(int x, int y, int lifetime, int fadeoutFrame, GamePanel gp) {
-        super(x, y, gp);
+    public Particle(int x, int y, int lifetime, int fadeoutFrame, GamePanelGraphics graphics) {
+        super(x, y, graphics);
         this.lifetime = lifetime;
         this.framesLeft = lifetime;
         this.fadeoutFrame = fadeoutFrame;
@@ -39,6 +39,8 @@ public abstract class Particle extends GameObject {
 
     @Override
     public void update() {
+        // Every frame of a particle differs (it fades or changes image), and its area has to be cleared once it disappears
+        if (image != null) markDirty((int) x, (int) y, image.getWidth(), image.getHeight());
         framesLeft--;
         if (framesLeft <= 0) state = IDLE;
     }
@@ -51,8 +53,13 @@ public abstract class Particle extends GameObject {
         g2d.setComposite(composite);
     }
 
-    public void randomizeLocation(Rectangle bounds) {
-        Random random = new Random();
+    /**
+     * Moves the particle to a random location inside given bounds.
+     *
+     * @param bounds bounds inside which it will be positioned
+     * @param random random generator of the location
+     */
+    public void randomizeLocation(Rectangle bounds, Random random) {
         x = random.nextInt(bounds.x, bounds.x + bounds.width - width);
         y = random.nextInt(bounds.y, bounds.y + bounds.height - height);
     }
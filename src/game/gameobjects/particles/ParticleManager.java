@@ -1,12 +1,12 @@
 package game.gameobjects.particles;
 
-import game.GamePanel;
 import game.utils.GamePanelGraphics;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Class for managing in-game visual particles.
@@ -16,17 +16,21 @@ import java.util.List;
 public class ParticleManager {
     public static final int IDLE = 0, ANIMATING = 1;
 
-    private final GamePanel gp;
     private final GamePanelGraphics graphics;
     private final List<Particle> particles = new ArrayList<>();
     private final Font textParticleFont;
+    private final Random random;
 
     private int state;
 
-    public ParticleManager(GamePanel gp) {
-        this.gp = gp;
-        this.graphics = gp.getGameGraphics();
-        this.textParticleFont = gp.getGameGraphics().getFont().deriveFont(Font.PLAIN, 30);
+    /**
+     * @param graphics graphics of the level
+     * @param random random generator of particle positions
+     */
+    public ParticleManager(GamePanelGraphics graphics, Random random) {
+        this.graphics = graphics;
+        this.random = random;
+        this.textParticleFont = graphics.getFont().deriveFont(Font.PLAIN, 30);
     }
 
     public void update() {
@@ -49,18 +53,18 @@ public class ParticleManager {
      * @param bounds bounds inside which it will be randomly positioned
      */
     public void addHealthChangeParticle(String text, Rectangle bounds) {
-        TextParticle particle = new TextParticle(bounds.x, bounds.y, GamePanelGraphics.ANIMATION_CYCLE * 5, text, textParticleFont, gp);
-        particle.randomizeLocation(bounds);
+        TextParticle particle = new TextParticle(bounds.x, bounds.y, GamePanelGraphics.ANIMATION_CYCLE * 5, text, textParticleFont, graphics);
+        particle.randomizeLocation(bounds, random);
         particles.add(particle);
         state = ANIMATING;
     }
 
     public void addExplosionParticle(int x, int y) {
-        BufferedImage[] images = new BufferedImage[4];
-        for (int i = 0; i < 4; i++) {
-            images[i] = graphics.getTexture("explosion"+i);
+        BufferedImage[] images = new BufferedImage[GamePanelGraphics.EXPLOSION_FRAMES];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = graphics.getExplosionTexture(i);
         }
-        ImageParticle particle = new ImageParticle(x, y, GamePanelGraphics.ANIMATION_CYCLE * 2, GamePanelGraphics.ANIMATION_CYCLE * 6 / 5, images, GamePanelGraphics.ANIMATION_CYCLE / 2, gp);
+        ImageParticle particle = new ImageParticle(x, y, GamePanelGraphics.ANIMATION_CYCLE * 2, GamePanelGraphics.ANIMATION_CYCLE * 6 / 5, images, GamePanelGraphics.ANIMATION_CYCLE / 2, graphics);
         particles.add(particle);
         state = ANIMATING;
     }
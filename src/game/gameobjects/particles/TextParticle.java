@@ -1,6 +1,6 @@
 package game.gameobjects.particles;
 
-import game.GamePanel;
+import game.utils.GamePanelGraphics;
 import game.gameobjects.GameObject;
 
 import java.awt.*;
@@ -17,8 +17,8 @@ public class TextParticle extends Particle {
     private int width, height;
     private int state;
 
-    public TextParticle(int x, int y, int lifeTime, String text, Font font, GamePanel gp) {
-        super(x, y, lifeTime, lifeTime/4, gp);
+    public TextParticle(int x, int y, int lifeTime, String text, Font font, GamePanelGraphics graphics) {
+        super(x, y, lifeTime, lifeTime/4, graphics);
         this.text = text;
         this.font = font;
         image = generateTextImage(text, font);
@@ -34,7 +34,7 @@ public class TextParticle extends Particle {
         height = fm.getHeight();
         g2d.dispose();
 
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage result = GamePanelGraphics.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
         g2d = (Graphics2D) result.getGraphics();
 
         g2d.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
@@ -47,7 +47,7 @@ public class TextParticle extends Particle {
         g2d.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
 
         g2d.setFont(font);
-        g2d.setColor(graphics.getColor("textColor"));
+        g2d.setColor(graphics.getColor(GamePanelGraphics.COLOR_TEXT));
         g2d.drawString(text, 0, g2d.getFontMetrics().getAscent());
         g2d.dispose();
         return result;
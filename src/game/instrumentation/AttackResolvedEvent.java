@@ -0,0 +1,24 @@
+package game.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of an attack (or a repair in the repair game mode).
+ *
+ * @author Artem Novak
+ */
+@Name("neptune.AttackResolved")
+@Label("Attack Resolved")
+@Category({"Neptune 48", "Gameplay"})
+@Description("Attack with a tile, after all modifications of its damage")
+@StackTrace(false)
+public class AttackResolvedEvent extends Event {
+    @Label("Tile Level")
+    int level;
+
+    @Label("Damage Percent")
+    int damagePercent;
+
+    @Label("Damage")
+    long damage;
+}
@@ -0,0 +1,105 @@
+package game.instrumentation;
+
+import game.pacing.FrameStatistics;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Debug overlay that shows frame and tick rates, frame time percentiles, tick and render times and the allocation rate
+ * of the process. Values are taken over windows of one second and refreshed when a window ends.
+ * <br>
+ * Is to be rendered by the thread that renders frames.
+ *
+ * @author Artem Novak
+ */
+public class DebugOverlay {
+    private static final long WINDOW = 1_000_000_000;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+    private static final int PADDING = 6;
+
+    private final Instrumentation instrumentation;
+    private final FrameStatistics frameStatistics;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private long windowStart = Long.MIN_VALUE;
+    private long windowAllocated;
+    private Histogram.Snapshot frames, ticks, renders;
+    private String[] lines = {"Measuring..."};
+
+    /**
+     * @param instrumentation instrumentation of the rendered session
+     * @param frameStatistics statistics of the game loop's frame scheduler
+     */
+    public DebugOverlay(Instrumentation instrumentation, FrameStatistics frameStatistics) {
+        this.instrumentation = instrumentation;
+        this.frameStatistics = frameStatistics;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+    }
+
+    /**
+     * Renders the overlay in the top left corner of given bounds.
+     *
+     * @param g2d Graphics2D instance for rendering
+     * @param x left edge
+     * @param y top edge
+     */
+    public void render(Graphics2D g2d, int x, int y) {
+        refresh();
+        g2d.setFont(FONT);
+        FontMetrics metrics = g2d.getFontMetrics();
+        int width = 0;
+        for (String line : lines) width = Math.max(width, metrics.stringWidth(line));
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(x, y, width + 2 * PADDING, lines.length * metrics.getHeight() + 2 * PADDING);
+        g2d.setColor(Color.white);
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], x + PADDING, y + PADDING + i * metrics.getHeight() + metrics.getAscent());
+        }
+    }
+
+    private void refresh() {
+        long now = System.nanoTime();
+        if (windowStart != Long.MIN_VALUE && now - windowStart < WINDOW) return;
+        Histogram.Snapshot frames = instrumentation.getFrameHistogram().snapshot();
+        Histogram.Snapshot ticks = instrumentation.getTickHistogram().snapshot();
+        Histogram.Snapshot renders = instrumentation.getRenderHistogram().snapshot();
+        long allocated = allocatedBytes();
+        if (windowStart != Long.MIN_VALUE) {
+            double seconds = (now - windowStart) / 1e9;
+            Histogram.Snapshot windowFrames = frames.since(this.frames);
+            Histogram.Snapshot windowTicks = ticks.since(this.ticks);
+            Histogram.Snapshot windowRenders = renders.since(this.renders);
+            FrameStatistics.Report report = frameStatistics.getReport();
+            lines = new String[] {
+                    String.format("FPS %5.1f  TPS %5.1f", windowFrames.count() / seconds, report == null ? 0 : report.tickRate()),
+                    String.format("frame p50 %6.2f ms  p99 %6.2f ms", millis(windowFrames.percentile(50)), millis(windowFrames.percentile(99))),
+                    String.format("tick  p50 %6.3f ms  p99 %6.3f ms", millis(windowTicks.percentile(50)), millis(windowTicks.percentile(99))),
+                    String.format("draw  p50 %6.3f ms  p99 %6.3f ms", millis(windowRenders.percentile(50)), millis(windowRenders.percentile(99))),
+                    allocated < 0 ? "alloc n/a" : String.format("alloc %.2f MB/s", Math.max(allocated - windowAllocated, 0) / seconds / (1 << 20))
+            };
+        }
+        this.frames = frames;
+        this.ticks = ticks;
+        this.renders = renders;
+        windowAllocated = allocated;
+        windowStart = now;
+    }
+
+    /**
+     * @return bytes allocated by all live threads so far, or -1 if it cannot be measured
+     */
+    private long allocatedBytes() {
+        if (threads == null || !threads.isThreadAllocatedMemoryEnabled()) return -1;
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) total += Math.max(bytes, 0);
+        return total;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
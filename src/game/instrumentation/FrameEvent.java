@@ -0,0 +1,24 @@
+package game.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of rendering one frame of a {@link game.GamePanel}.
+ *
+ * @author Artem Novak
+ */
+@Name("neptune.Frame")
+@Label("Frame")
+@Category({"Neptune 48", "Game Loop"})
+@Description("Rendering of a frame")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Interval")
+    @Description("Time since the previous frame started rendering")
+    @Timespan
+    long interval;
+
+    @Label("Active Rendering")
+    @Description("Whether the frame was rendered on the game loop thread rather than the event dispatch thread")
+    boolean active;
+}
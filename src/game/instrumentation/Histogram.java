@@ -0,0 +1,121 @@
+package game.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, which may be recorded by several threads at once.
+ * <br>
+ * Buckets are log-linear: values below 16 get a bucket each, and every further power of 2 is split into 8 buckets of equal width,
+ * so a value is known with a relative error below 12.5% over the whole range of long values. Recording is a single atomic increment.
+ * <br>
+ * Percentiles over a period of time are taken from the difference of two {@link Snapshot}s.
+ *
+ * @author Artem Novak
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param name name of the measured value, used in reports
+     */
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a duration. Negative durations are recorded as 0.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(nanos, 0)));
+    }
+
+    /**
+     * @return counts of all buckets at this moment
+     */
+    public Snapshot snapshot() {
+        long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) values[i] = counts.get(i);
+        return new Snapshot(values);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private static int bucket(long value) {
+        if (value < LINEAR_LIMIT) return (int)value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int)(value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @return the smallest value that falls into the bucket
+     */
+    private static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Immutable counts of a histogram's buckets.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long total;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long count : counts) total += count;
+            this.total = total;
+        }
+
+        /**
+         * @param earlier snapshot of the same histogram taken earlier
+         * @return counts of values recorded between the two snapshots
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] difference = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) difference[i] = counts[i] - earlier.counts[i];
+            return new Snapshot(difference);
+        }
+
+        /**
+         * @return number of recorded values
+         */
+        public long count() {
+            return total;
+        }
+
+        /**
+         * Estimates a percentile as the middle of the bucket it falls into.
+         *
+         * @param percentile percentile from 0 to 100
+         * @return value in nanoseconds, or 0 if there are no values
+         */
+        public long percentile(double percentile) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long)Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long lower = lowerBound(i);
+                    long upper = i + 1 < BUCKETS ? lowerBound(i + 1) : Long.MAX_VALUE;
+                    return lower + (upper - lower - 1) / 2;
+                }
+            }
+            return lowerBound(BUCKETS - 1);
+        }
+    }
+}
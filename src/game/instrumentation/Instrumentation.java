@@ -0,0 +1,171 @@
+package game.instrumentation;
+
+import game.GameSession;
+import game.gameobjects.Board;
+import game.obstacles.Obstacle;
+
+/**
+ * Instrumentation of a rendered {@link GameSession}: records durations of ticks (per updated subsystem) and frames into {@link Histogram}s
+ * and emits JFR events of ticks, frames, turns, obstacles and attacks. The events only cost anything while a JFR recording enables them.
+ * <br>
+ * Tick methods are to be called by the game loop thread, frame methods by the thread that renders frames.
+ *
+ * @author Artem Novak
+ */
+public class Instrumentation {
+    // Subsystems updated every tick
+    public static final int ABILITIES = 0, ENTITY = 1, BOARD = 2, PARTICLES = 3;
+
+    private final Histogram tick = new Histogram("tick");
+    private final Histogram[] subsystems = {new Histogram("abilities"), new Histogram("entity"), new Histogram("board"), new Histogram("particles")};
+    private final Histogram render = new Histogram("render");
+    private final Histogram frameInterval = new Histogram("frame");
+
+    // Tick in progress, confined to the game loop thread
+    private final long[] subsystemTimes = new long[subsystems.length];
+    private TickEvent tickEvent;
+    private long tickStart;
+
+    // Frame in progress, confined to the rendering thread
+    private FrameEvent frameEvent;
+    private long frameStart, previousFrameStart = Long.MIN_VALUE;
+
+    /**
+     * Creates instrumentation of a session and attaches it: the session starts reporting its ticks,
+     * and turns, obstacles and attacks are reported as JFR events.
+     *
+     * @param session session to instrument
+     * @return new instrumentation
+     */
+    public static Instrumentation attach(GameSession session) {
+        Instrumentation instrumentation = new Instrumentation();
+        Board board = session.getBoard();
+        // Listeners are added after the ones of the session's own modifiers, so they see the final outcome of every event.
+        board.addTurnListener(() -> {
+            TurnResolvedEvent event = new TurnResolvedEvent();
+            if (event.shouldCommit()) {
+                event.turnsLeft = session.getCountdown().getTurns();
+                event.tiles = board.getTileCount();
+                event.inputLatency = Math.max(session.getActionHandler().getLastInputLatency(), 0);
+                event.commit();
+            }
+        });
+        session.getObstacleManager().addObstacleListener(e -> {
+            ObstacleAppliedEvent event = new ObstacleAppliedEvent();
+            if (event.shouldCommit()) {
+                Obstacle obstacle = e.getObstacle();
+                event.obstacle = obstacle == null ? null : obstacle.getNameID();
+                event.commit();
+            }
+        });
+        session.getAbilityManager().getAttack().addAttackListener(e -> {
+            AttackResolvedEvent event = new AttackResolvedEvent();
+            if (event.shouldCommit()) {
+                event.level = e.getTile().getLevel();
+                event.damagePercent = e.getDamagePercent();
+                event.damage = e.getDamage();
+                event.commit();
+            }
+        });
+        session.setInstrumentation(instrumentation);
+        return instrumentation;
+    }
+
+    /**
+     * Marks the start of a tick.
+     *
+     * @return current time, to be passed to {@link Instrumentation#lap(int, long)}
+     */
+    public long startTick() {
+        tickEvent = new TickEvent();
+        tickEvent.begin();
+        tickStart = System.nanoTime();
+        return tickStart;
+    }
+
+    /**
+     * Records the update of a subsystem.
+     *
+     * @param subsystem one of {@link Instrumentation#ABILITIES}, {@link Instrumentation#ENTITY}, {@link Instrumentation#BOARD}, {@link Instrumentation#PARTICLES}
+     * @param start time the update started at
+     * @return current time, which is the start of the next subsystem's update
+     */
+    public long lap(int subsystem, long start) {
+        long now = System.nanoTime();
+        subsystemTimes[subsystem] = now - start;
+        subsystems[subsystem].record(now - start);
+        return now;
+    }
+
+    /**
+     * Marks the end of the tick started by the latest {@link Instrumentation#startTick()}.
+     */
+    public void endTick() {
+        tick.record(System.nanoTime() - tickStart);
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.abilities = subsystemTimes[ABILITIES];
+            tickEvent.entity = subsystemTimes[ENTITY];
+            tickEvent.board = subsystemTimes[BOARD];
+            tickEvent.particles = subsystemTimes[PARTICLES];
+            tickEvent.commit();
+        }
+        tickEvent = null;
+    }
+
+    /**
+     * Marks the start of rendering a frame.
+     */
+    public void startFrame() {
+        frameEvent = new FrameEvent();
+        frameEvent.begin();
+        frameStart = System.nanoTime();
+        if (previousFrameStart != Long.MIN_VALUE) frameInterval.record(frameStart - previousFrameStart);
+    }
+
+    /**
+     * Marks the end of the frame started by the latest {@link Instrumentation#startFrame()}.
+     *
+     * @param active true if the frame was rendered on the game loop thread
+     */
+    public void endFrame(boolean active) {
+        render.record(System.nanoTime() - frameStart);
+        frameEvent.end();
+        if (frameEvent.shouldCommit()) {
+            frameEvent.interval = previousFrameStart == Long.MIN_VALUE ? 0 : frameStart - previousFrameStart;
+            frameEvent.active = active;
+            frameEvent.commit();
+        }
+        frameEvent = null;
+        previousFrameStart = frameStart;
+    }
+
+    /**
+     * @return durations of whole ticks
+     */
+    public Histogram getTickHistogram() {
+        return tick;
+    }
+
+    /**
+     * @param subsystem one of {@link Instrumentation#ABILITIES}, {@link Instrumentation#ENTITY}, {@link Instrumentation#BOARD}, {@link Instrumentation#PARTICLES}
+     * @return durations of the subsystem's updates
+     */
+    public Histogram getSubsystemHistogram(int subsystem) {
+        return subsystems[subsystem];
+    }
+
+    /**
+     * @return durations of frame rendering
+     */
+    public Histogram getRenderHistogram() {
+        return render;
+    }
+
+    /**
+     * @return intervals between starts of consecutive frames (frame times as the player sees them)
+     */
+    public Histogram getFrameHistogram() {
+        return frameInterval;
+    }
+}
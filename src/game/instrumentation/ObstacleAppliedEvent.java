@@ -0,0 +1,19 @@
+package game.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of an obstacle applied by the {@link game.obstacles.ObstacleManager}.
+ *
+ * @author Artem Novak
+ */
+@Name("neptune.ObstacleApplied")
+@Label("Obstacle Applied")
+@Category({"Neptune 48", "Gameplay"})
+@Description("Obstacle chosen to be applied after a turn")
+@StackTrace(false)
+public class ObstacleAppliedEvent extends Event {
+    @Label("Obstacle")
+    @Description("NameID of the obstacle, or null if it was blocked")
+    String obstacle;
+}
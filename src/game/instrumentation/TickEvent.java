@@ -0,0 +1,31 @@
+package game.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of one logical update of a {@link game.GameSession}, with the time taken by every updated subsystem.
+ *
+ * @author Artem Novak
+ */
+@Name("neptune.Tick")
+@Label("Tick")
+@Category({"Neptune 48", "Game Loop"})
+@Description("Logical update of the game session")
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Abilities")
+    @Timespan
+    long abilities;
+
+    @Label("Entity")
+    @Timespan
+    long entity;
+
+    @Label("Board")
+    @Timespan
+    long board;
+
+    @Label("Particles")
+    @Timespan
+    long particles;
+}
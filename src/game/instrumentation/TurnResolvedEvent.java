@@ -0,0 +1,26 @@
+package game.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of a turn resolved on the board.
+ *
+ * @author Artem Novak
+ */
+@Name("neptune.TurnResolved")
+@Label("Turn Resolved")
+@Category({"Neptune 48", "Gameplay"})
+@Description("Turn resolved on the board, after its animation")
+@StackTrace(false)
+public class TurnResolvedEvent extends Event {
+    @Label("Turns Left")
+    int turnsLeft;
+
+    @Label("Tiles")
+    int tiles;
+
+    @Label("Input Latency")
+    @Description("Time between scheduling and processing of the latest input action, if any")
+    @Timespan
+    long inputLatency;
+}
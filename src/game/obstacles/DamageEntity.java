@@ -1,12 +1,12 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.gameobjects.Entity;
 
 /**
  * Class that implements "damageEntity" obstacle.
  * <br>
- * This obstacle is intended for {@link game.GamePanel#GAME_MODE_ATTACK} only.
+ * This obstacle is intended for {@link game.GameSession#GAME_MODE_ATTACK} only.
  *
  * @author Artem Novak
  */
@@ -16,9 +16,9 @@ public class DamageEntity extends Obstacle {
     private final Entity entity;
     private final long damage;
 
-    public DamageEntity(GamePanel gp) {
-        super(gp);
-        this.entity = gp.getEntity();
+    public DamageEntity(GameSession session) {
+        super(session);
+        this.entity = session.getEntity();
         damage = (long)(entity.getMaxHealth() * DAMAGE_PERCENTAGE / 100f);
     }
 
@@ -1,13 +1,12 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
+import game.gameobjects.BitBoard;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
 import game.gameobjects.Tile;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -17,13 +16,14 @@ import java.util.Random;
  */
 public class Downgrade extends Obstacle{
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public Downgrade(GamePanel gp) {
-        super(gp);
-        board = gp.getBoard();
+    public Downgrade(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        board = session.getBoard();
     }
 
     @Override
@@ -33,9 +33,9 @@ public class Downgrade extends Obstacle{
 
     @Override
     public void startApplication() {
-        BoardCell cell = lastCheckCells.get(random.nextInt(0, lastCheckCells.size()));
+        BoardCell cell = board.getCell(lastCheckMask, random.nextInt(0, Integer.bitCount(lastCheckMask)));
         Tile tile = board.getTileInCell(cell);
-        tile.setLevel(tile.getLevel() - 1);
+        board.setTileLevel(cell, tile.getLevel() - 1);
         tile.setLevelVisualOffset(tile.getLevelVisualOffset()+1);
         board.addStateListener(new StateListener() {
             @Override
@@ -52,10 +52,7 @@ public class Downgrade extends Obstacle{
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && tile.getLevel() > 1 && !tile.isLocked();
-        });
-        return super.determineApplicability() && !lastCheckCells.isEmpty();
+        lastCheckMask = board.getUnlockedTileMask(2, BitBoard.MAX_LEVEL);
+        return super.determineApplicability() && lastCheckMask != 0;
     }
 }
@@ -1,14 +1,12 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
 import game.events.TurnListener;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
 import game.gameobjects.Tile;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -20,13 +18,14 @@ public class Freeze extends Obstacle {
     public static final int FREEZE_TURNS = 30;
 
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public Freeze(GamePanel gp) {
-        super(gp);
-        this.board = gp.getBoard();
+    public Freeze(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        this.board = session.getBoard();
     }
 
     @Override
@@ -36,9 +35,9 @@ public class Freeze extends Obstacle {
 
     @Override
     public void startApplication() {
-        BoardCell cell = lastCheckCells.get(random.nextInt(0, lastCheckCells.size()));
+        BoardCell cell = board.getCell(lastCheckMask, random.nextInt(0, Integer.bitCount(lastCheckMask)));
         Tile tile = board.getTileInCell(cell);
-        tile.setLocked(true);
+        board.setTileLocked(cell, true);
         board.addStateListener(new StateListener() {
             @Override
             public void onStateChanged(int oldState, int newState) {
@@ -53,7 +52,9 @@ public class Freeze extends Obstacle {
                             if (tile.isLocked()) {
                                 freezeCounter++;
                                 if (freezeCounter > FREEZE_TURNS) {
-                                    tile.setLocked(false);
+                                    // Locked tiles stay in place, so the tile is either still in its cell or no longer on the board.
+                                    if (board.getTileInCell(cell) == tile) board.setTileLocked(cell, false);
+                                    else tile.setLocked(false);
                                     tile.setVisuallyLocked(false);
                                 }
                             }
@@ -71,10 +72,7 @@ public class Freeze extends Obstacle {
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        });
-        return super.determineApplicability() && !lastCheckCells.isEmpty();
+        lastCheckMask = board.getUnlockedTileMask();
+        return super.determineApplicability() && lastCheckMask != 0;
     }
 }
@@ -1,11 +1,9 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -15,13 +13,14 @@ import java.util.Random;
  */
 public class GarbageTile extends Obstacle {
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public GarbageTile(GamePanel gp) {
-        super(gp);
-        this.board = gp.getBoard();
+    public GarbageTile(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        this.board = session.getBoard();
     }
 
     @Override
@@ -31,13 +30,13 @@ public class GarbageTile extends Obstacle {
 
     @Override
     public void startApplication() {
-        BoardCell cell = lastCheckCells.get(random.nextInt(0, lastCheckCells.size()));
+        BoardCell cell = board.getCell(lastCheckMask, random.nextInt(0, Integer.bitCount(lastCheckMask)));
         board.generateTile(cell, 0);
     }
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> board.getTileInCell(x) == null);
-        return super.determineApplicability() && !lastCheckCells.isEmpty();
+        lastCheckMask = board.getFreeCellMask();
+        return super.determineApplicability() && lastCheckMask != 0;
     }
 }
@@ -1,6 +1,6 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.gameobjects.Entity;
 
 /**
@@ -14,9 +14,9 @@ public class HealEntity extends Obstacle {
     private final Entity entity;
     private final long healing;
 
-    public HealEntity(GamePanel gp) {
-        super(gp);
-        this.entity = gp.getEntity();
+    public HealEntity(GameSession session) {
+        super(session);
+        this.entity = session.getEntity();
         healing = (long)(entity.getMaxHealth() * HEAL_PERCENTAGE / 100f);
     }
 
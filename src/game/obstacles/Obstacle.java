@@ -1,7 +1,7 @@
 package game.obstacles;
 
 import game.GameModifier;
-import game.GamePanel;
+import game.GameSession;
 
 /**
  * Class that describes an abstract game obstacle.
@@ -12,11 +12,11 @@ public abstract class Obstacle extends GameModifier {
     /**
      * Constructs an abstract obstacle.
      *
-     * @param gp GamePanel to interact with
+     * @param session session to interact with
      */
-    public Obstacle(GamePanel gp) {
-        super(gp);
-        gp.getBoard().addTurnListener(this::updateApplicability);
+    public Obstacle(GameSession session) {
+        super(session);
+        session.getBoard().addTurnListener(this::updateApplicability);
     }
 
     @Override
@@ -27,8 +27,13 @@ public abstract class Obstacle extends GameModifier {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return getNameID().hashCode();
+    }
+
     @Override
     protected boolean determineApplicability() {
-         return gp.getState() != GamePanel.ENDING;
+         return session.getState() != GameSession.ENDING;
     }
 }
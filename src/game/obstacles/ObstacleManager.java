@@ -1,16 +1,13 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.ObstacleEvent;
 import game.events.ObstacleListener;
 import game.gameobjects.Board;
+import game.utils.WeightedDistribution;
 import game.utils.WeightedRandom;
-import misc.AudioManager;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Class that handles application of in-game obstacles.
@@ -20,11 +17,14 @@ import java.util.Map;
 public class ObstacleManager {
     private final int minInterval;
     private final int maxInterval;
-    private final Map<Obstacle, Integer> obstacleWeights = new HashMap<>();
-    private final Map<Boolean, Integer> triggerLikelihood = new HashMap<>();
-    private final WeightedRandom random = new WeightedRandom();
+    private final WeightedDistribution<Obstacle> obstacles;
+    private final int[] baseWeights;
+    private final Map<String, Integer> obstacleNameWeights;
+    // Weight of "true" stays 1, weight of "false" ramps down as turns elapse
+    private final WeightedDistribution<Boolean> triggerLikelihood = new WeightedDistribution<>(List.of(true, false), 1, 0);
+    private final WeightedRandom random;
     private final List<ObstacleListener> obstacleListeners = new ArrayList<>();
-    private final GamePanel gp;
+    private final GameSession session;
     private final Board board;
 
     private int turnsElapsed = 0;
@@ -36,20 +36,22 @@ public class ObstacleManager {
      * @param obstacleWeights map of obstacle NameIDs to their weights (relative likelihood of occurrence when an abstract obstacle is triggered)
      * @param minInterval minimal interval in turns between two obstacles
      * @param maxInterval maximal interval in turns between two obstacles
-     * @param gp {@link GamePanel}
+     * @param session {@link GameSession}
      */
-    public ObstacleManager(Map<String, Integer> obstacleWeights, int minInterval, int maxInterval, GamePanel gp) {
-        this.gp = gp;
-        this.board = gp.getBoard();
-        for (String nameID : obstacleWeights.keySet()) {
-            Integer weight = obstacleWeights.get(nameID);
-            this.obstacleWeights.put(registerObstacle(nameID), weight);
-        }
+    public ObstacleManager(Map<String, Integer> obstacleWeights, int minInterval, int maxInterval, GameSession session) {
+        this.session = session;
+        this.board = session.getBoard();
+        this.random = session.getRandom().getObstacles();
+        this.obstacleNameWeights = Collections.unmodifiableMap(new LinkedHashMap<>(obstacleWeights));
+        Map<Obstacle, Integer> registeredWeights = new LinkedHashMap<>();
+        for (String nameID : obstacleWeights.keySet()) registeredWeights.put(registerObstacle(nameID), obstacleWeights.get(nameID));
+        this.obstacles = new WeightedDistribution<>(registeredWeights);
+        this.baseWeights = new int[obstacles.size()];
+        for (int i = 0; i < baseWeights.length; i++) baseWeights[i] = obstacles.getWeight(i);
         this.minInterval = minInterval;
         this.maxInterval = maxInterval;
-        triggerLikelihood.put(true, 1);
         attemptObstacle();
-        gp.getBoard().addTurnListener(() -> {
+        session.getBoard().addTurnListener(() -> {
             turnsElapsed++;
             attemptObstacle();
         });
@@ -57,44 +59,58 @@ public class ObstacleManager {
 
     private Obstacle registerObstacle(String nameID) {
         return switch (nameID) {
-            case "damageEntity" -> new DamageEntity(gp);
-            case "downgrade" -> new Downgrade(gp);
-            case "freeze" -> new Freeze(gp);
-            case "garbageTile" -> new GarbageTile(gp);
-            case "healEntity" -> new HealEntity(gp);
-            case "randomDispose" -> new RandomDispose(gp);
-            case "randomScramble" -> new RandomScramble(gp);
-            case "randomSwap" -> new RandomSwap(gp);
-            case "subtractTurns" -> new SubtractTurns(gp);
+            case "damageEntity" -> new DamageEntity(session);
+            case "downgrade" -> new Downgrade(session);
+            case "freeze" -> new Freeze(session);
+            case "garbageTile" -> new GarbageTile(session);
+            case "healEntity" -> new HealEntity(session);
+            case "randomDispose" -> new RandomDispose(session);
+            case "randomScramble" -> new RandomScramble(session);
+            case "randomSwap" -> new RandomSwap(session);
+            case "subtractTurns" -> new SubtractTurns(session);
             default -> throw new IllegalArgumentException("Obstacle " + nameID + " does not exist");
         };
     }
 
     private void attemptObstacle() {
         if (turnsElapsed >= minInterval) {
-            triggerLikelihood.put(false, maxInterval + 1 - turnsElapsed);
-            if (random.weightedChoice(triggerLikelihood)) {
-                Obstacle obstacle = null;
-                Map<Obstacle, Integer> runtimeLikelihoods = new HashMap<>(obstacleWeights);
-                do {
-                    runtimeLikelihoods.remove(obstacle);
-                    obstacle = random.weightedChoice(runtimeLikelihoods);
-                    if (obstacle == null) break;
-                } while (obstacle.getState() != Obstacle.APPLICABLE);
-                if (runtimeLikelihoods.isEmpty()) return; // Happens when no obstacle could be applied. Turn counter is not reset, so if it exceeds max interval, attempt next turn is guaranteed.
+            triggerLikelihood.setWeight(1, Math.max(maxInterval + 1 - turnsElapsed, 0));
+            if (triggerLikelihood.sample(random)) {
+                // Inapplicable obstacles are excluded for the rest of the attempt by zeroing their weights
+                int index;
+                while ((index = obstacles.sampleIndex(random)) >= 0 && obstacles.get(index).getState() != Obstacle.APPLICABLE) {
+                    obstacles.setWeight(index, 0);
+                }
+                for (int i = 0; i < baseWeights.length; i++) obstacles.setWeight(i, baseWeights[i]);
+                if (index < 0) return; // Happens when no obstacle could be applied. Turn counter is not reset, so if it exceeds max interval, attempt next turn is guaranteed.
+                Obstacle obstacle = obstacles.get(index);
                 ObstacleEvent e = new ObstacleEvent(obstacle);
                 for (ObstacleListener listener : new ArrayList<>(obstacleListeners)) listener.onObstacleSelected(e);
                 latestObstacle = e.getObstacle();
                 if (latestObstacle != null) {
                     latestObstacle.startApplication();
-                    AudioManager.playSFX("obstacle");
+                    session.playSound("obstacle");
                     board.addDamageHighlight();
                 }
-                else AudioManager.playSFX("obstacleBlocked");
+                else session.playSound("obstacleBlocked");
                 turnsElapsed = 0;
             }
         }
     }
+    /**
+     * Calculates the chance that an obstacle is triggered on a turn, the same way it is rolled in the game.
+     *
+     * @param turnsElapsed turns elapsed since the latest obstacle, including the turn in question
+     * @param minInterval minimal interval in turns between two obstacles
+     * @param maxInterval maximal interval in turns between two obstacles
+     * @return probability from 0 to 1
+     */
+    public static double getTriggerChance(int turnsElapsed, int minInterval, int maxInterval) {
+        if (turnsElapsed < minInterval) return 0;
+        int notTriggered = maxInterval + 1 - turnsElapsed;
+        return notTriggered <= 0 ? 1 : 1.0 / (1 + notTriggered);
+    }
+
     public void addObstacleListener(ObstacleListener listener) {
         obstacleListeners.add(listener);
     }
@@ -111,4 +127,26 @@ public class ObstacleManager {
     public Obstacle getLatestObstacle() {
         return latestObstacle;
     }
+
+    /**
+     * @return map of obstacle NameIDs to their weights (unmodifiable)
+     */
+    public Map<String, Integer> getObstacleWeights() {
+        return obstacleNameWeights;
+    }
+
+    public int getMinInterval() {
+        return minInterval;
+    }
+
+    public int getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * @return turns elapsed since the latest obstacle
+     */
+    public int getTurnsElapsed() {
+        return turnsElapsed;
+    }
 }
@@ -1,13 +1,12 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
+import game.gameobjects.BitBoard;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
 import game.gameobjects.Tile;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -17,13 +16,14 @@ import java.util.Random;
  */
 public class RandomDispose extends Obstacle {
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public RandomDispose(GamePanel gp) {
-        super(gp);
-        this.board = gp.getBoard();
+    public RandomDispose(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        this.board = session.getBoard();
     }
 
     @Override
@@ -33,7 +33,7 @@ public class RandomDispose extends Obstacle {
 
     @Override
     public void startApplication() {
-        BoardCell cell = lastCheckCells.get(random.nextInt(0, lastCheckCells.size()));
+        BoardCell cell = board.getCell(lastCheckMask, random.nextInt(0, Integer.bitCount(lastCheckMask)));
         Tile tile = board.getTileInCell(cell);
         board.lingerTile(tile);
         board.disposeCellContent(cell);
@@ -52,10 +52,7 @@ public class RandomDispose extends Obstacle {
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && tile.getLevel() > 0  && !tile.isLocked();
-        });
-        return super.determineApplicability() && !lastCheckCells.isEmpty();
+        lastCheckMask = board.getUnlockedTileMask(1, BitBoard.MAX_LEVEL);
+        return super.determineApplicability() && lastCheckMask != 0;
     }
 }
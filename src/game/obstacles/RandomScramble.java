@@ -1,6 +1,6 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
@@ -16,13 +16,14 @@ import java.util.function.Predicate;
  */
 public class RandomScramble extends Obstacle {
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public RandomScramble(GamePanel gp) {
-        super(gp);
-        this.board = gp.getBoard();
+    public RandomScramble(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        this.board = session.getBoard();
     }
 
     @Override
@@ -32,13 +33,10 @@ public class RandomScramble extends Obstacle {
 
     @Override
     public void startApplication() {
-        Map<Tile, BoardCell> tilesOrigins = new HashMap<>();
-        for (BoardCell cell : lastCheckCells) tilesOrigins.put(board.getTileInCell(cell), cell);
-        List<BoardCell> destinationCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile == null || !tile.isLocked();
-        });
-        Map<Tile, BoardCell> tilesDestinations = new HashMap<>(tilesOrigins);
+        Map<Tile, BoardCell> tilesOrigins = new LinkedHashMap<>(); // Insertion order keeps the outcome reproducible for a given seed.
+        for (BoardCell cell : board.getCells(lastCheckMask)) tilesOrigins.put(board.getTileInCell(cell), cell);
+        List<BoardCell> destinationCells = board.getCells(board.getFreeCellMask() | board.getUnlockedTileMask());
+        Map<Tile, BoardCell> tilesDestinations = new LinkedHashMap<>(tilesOrigins);
 
         for (Tile tile : tilesOrigins.keySet()) {
             BoardCell currentDestination = tilesDestinations.get(tile);
@@ -84,10 +82,7 @@ public class RandomScramble extends Obstacle {
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && !tile.isLocked();
-        });
-        return super.determineApplicability() && lastCheckCells.size() > 3;
+        lastCheckMask = board.getUnlockedTileMask();
+        return super.determineApplicability() && Integer.bitCount(lastCheckMask) > 3;
     }
 }
@@ -1,12 +1,12 @@
 package game.obstacles;
 
-import game.GamePanel;
+import game.GameSession;
 import game.events.StateListener;
+import game.gameobjects.BitBoard;
 import game.gameobjects.Board;
 import game.gameobjects.BoardCell;
 import game.gameobjects.Tile;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -17,13 +17,14 @@ import java.util.Random;
  */
 public class RandomSwap extends Obstacle {
     private final Board board;
-    private final Random random = new Random();
+    private final Random random;
 
-    private List<BoardCell> lastCheckCells = new ArrayList<>();
+    private int lastCheckMask; // Cells the obstacle could be applied to at the latest applicability check.
 
-    public RandomSwap(GamePanel gp) {
-        super(gp);
-        board = gp.getBoard();
+    public RandomSwap(GameSession session) {
+        super(session);
+        this.random = session.getRandom().getObstacles();
+        board = session.getBoard();
     }
 
     @Override
@@ -33,7 +34,7 @@ public class RandomSwap extends Obstacle {
 
     @Override
     public void startApplication() {
-        List<BoardCell> swappableCells = new ArrayList<>(lastCheckCells);
+        List<BoardCell> swappableCells = board.getCells(lastCheckMask);
         int index1 = random.nextInt(0, swappableCells.size());
         BoardCell cell1 = swappableCells.get(index1);
         swappableCells.remove(index1);
@@ -57,10 +58,7 @@ public class RandomSwap extends Obstacle {
 
     @Override
     protected boolean determineApplicability() {
-        lastCheckCells = board.getCellsByPredicate(x -> {
-            Tile tile = board.getTileInCell(x);
-            return tile != null && tile.getLevel() > 0  && !tile.isLocked();
-        });
-        return super.determineApplicability() && lastCheckCells.size() > 1;
+        lastCheckMask = board.getUnlockedTileMask(1, BitBoard.MAX_LEVEL);
+        return super.determineApplicability() && Integer.bitCount(lastCheckMask) > 1;
     }
 }
@@ -1,10 +1,10 @@
 package game.obstacles;
 
 import game.Countdown;
-import game.GamePanel;
+import game.GameSession;
 
 /**
- * Class that implements functionality of "subtractTime" obstacle.
+ * Class that implements functionality of "subtractTurns" obstacle.
  *
  * @author Artem Novak
  */
@@ -14,15 +14,15 @@ public class SubtractTurns extends Obstacle {
     private final Countdown countdown;
     private final int turnsSubtracted;
 
-    public SubtractTurns(GamePanel gp) {
-        super(gp);
-        countdown = gp.getCountdown();
-        turnsSubtracted = Math.round(gp.getCountdown().getDedicatedTurns() * SUBTRACTED_PERCENTAGE / 100f);
+    public SubtractTurns(GameSession session) {
+        super(session);
+        countdown = session.getCountdown();
+        turnsSubtracted = Math.round(session.getCountdown().getDedicatedTurns() * SUBTRACTED_PERCENTAGE / 100f);
     }
 
     @Override
     public String getNameID() {
-        return "subtractTime";
+        return "subtractTurns";
     }
 
     @Override
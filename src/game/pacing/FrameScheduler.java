@@ -0,0 +1,100 @@
+package game.pacing;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Base class of frame pacing for the game loop. Implements a fixed timestep: every frame simulates a whole number of ticks
+ * of a constant length, and a frame that comes late simulates the ticks it missed, but no more than the maximal catch-up.
+ * Time beyond that is dropped, so that a long stall (e.g. a slow render or a suspended window) does not cause
+ * a spiral of updates. Subclasses decide how to wait for the next tick.
+ * <br>
+ * Methods are to be called by the game loop thread, except for {@link FrameScheduler#wakeUp()}.
+ *
+ * @author Artem Novak
+ */
+public abstract class FrameScheduler {
+    public static final int DEFAULT_MAX_CATCH_UP = 5;
+
+    protected final long tickInterval;
+    private final int maxCatchUp;
+    private final FrameStatistics statistics;
+    private long nextTick = Long.MIN_VALUE;
+
+    /**
+     * @param tps target number of ticks per second
+     * @param maxCatchUp maximal number of ticks simulated in one frame, at least 1
+     */
+    protected FrameScheduler(int tps, int maxCatchUp) {
+        if (tps <= 0) throw new IllegalArgumentException("Tick rate must be positive");
+        if (maxCatchUp < 1) throw new IllegalArgumentException("Maximal catch-up must be at least 1 tick");
+        this.tickInterval = 1_000_000_000L / tps;
+        this.maxCatchUp = maxCatchUp;
+        this.statistics = new FrameStatistics(tickInterval);
+    }
+
+    /**
+     * Creates a scheduler by its name.
+     *
+     * @param name "spin", "hybrid" or "idle"
+     * @param tps target number of ticks per second
+     * @param maxCatchUp maximal number of ticks simulated in one frame
+     * @param idleCondition condition under which the game loop has nothing to do until input arrives, used only by "idle"
+     * @return new scheduler instance
+     */
+    public static FrameScheduler byName(String name, int tps, int maxCatchUp, BooleanSupplier idleCondition) {
+        return switch (name) {
+            case "spin" -> new SpinScheduler(tps, maxCatchUp);
+            case "hybrid" -> new HybridScheduler(tps, maxCatchUp);
+            case "idle" -> new IdleScheduler(tps, maxCatchUp, idleCondition);
+            default -> throw new IllegalArgumentException("Unknown frame scheduler \"" + name + "\"");
+        };
+    }
+
+    /**
+     * Waits until the next frame is due.
+     *
+     * @return number of ticks to simulate in the frame, from 1 to the maximal catch-up
+     */
+    public int awaitFrame() {
+        long now = System.nanoTime();
+        if (nextTick == Long.MIN_VALUE) nextTick = now;
+        if (now - nextTick < 0) {
+            waitUntil(nextTick);
+            now = System.nanoTime();
+        }
+        long lateness = now - nextTick;
+        int ticks = (int)Math.min(lateness / tickInterval + 1, maxCatchUp);
+        if (lateness >= maxCatchUp * tickInterval) nextTick = now + tickInterval;
+        else nextTick += ticks * tickInterval;
+        statistics.recordFrame(now, ticks, lateness);
+        return ticks;
+    }
+
+    /**
+     * Signals that something the game loop reacts to has happened (e.g. input has arrived or the game has been closed).
+     * May be called by any thread. Does nothing by default, as only idling schedulers wait for such signals.
+     */
+    public void wakeUp() {}
+
+    /**
+     * Makes the next tick due right away, without catching up the time since the previous one.
+     */
+    protected void resynchronize() {
+        nextTick = System.nanoTime();
+    }
+
+    /**
+     * Blocks until the given time.
+     *
+     * @param deadline {@link System#nanoTime()} value to wait until
+     */
+    protected abstract void waitUntil(long deadline);
+
+    public FrameStatistics getStatistics() {
+        return statistics;
+    }
+
+    public int getMaxCatchUp() {
+        return maxCatchUp;
+    }
+}
@@ -0,0 +1,93 @@
+package game.pacing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Statistics of frame pacing, gathered by a {@link FrameScheduler} on the game loop thread over windows of one second.
+ * Results of the last complete window are published as an immutable {@link Report} that may be read by any thread.
+ *
+ * @author Artem Novak
+ */
+public class FrameStatistics {
+    public static final long WINDOW = 1_000_000_000;
+
+    /**
+     * Results of one window.
+     *
+     * @param tickRate ticks simulated per second
+     * @param frameRate frames per second
+     * @param jitter standard deviation of frames' lateness (relative to the tick they were due at), in nanoseconds
+     * @param maxLateness maximal lateness of a frame, in nanoseconds
+     * @param idleWakeUps number of frames that followed an idle period
+     * @param cpuLoad CPU time of the game loop thread divided by the window's length, or NaN if it cannot be measured
+     */
+    public record Report(double tickRate, double frameRate, double jitter, long maxLateness, int idleWakeUps, double cpuLoad) {
+        @Override
+        public String toString() {
+            return String.format("%.1f TPS, %.1f FPS, jitter %.3f ms, max lateness %.3f ms, %d idle wake-ups, CPU %.1f%%",
+                    tickRate, frameRate, jitter / 1e6, maxLateness / 1e6, idleWakeUps, cpuLoad * 100);
+        }
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long tickInterval;
+    private volatile Report report;
+
+    // Current window, confined to the game loop thread
+    private long windowStart = Long.MIN_VALUE, windowCpuStart;
+    private int ticks, frames, idleWakeUps;
+    private double latenessSum, latenessSquareSum;
+    private long maxLateness;
+
+    FrameStatistics(long tickInterval) {
+        this.tickInterval = tickInterval;
+    }
+
+    /**
+     * @return results of the last complete window, or null if no window has been completed yet
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    public long getTickInterval() {
+        return tickInterval;
+    }
+
+    void recordFrame(long now, int ticks, long lateness) {
+        if (windowStart == Long.MIN_VALUE) startWindow(now);
+        this.ticks += ticks;
+        frames++;
+        latenessSum += lateness;
+        latenessSquareSum += (double)lateness * lateness;
+        maxLateness = Math.max(maxLateness, lateness);
+        long length = now - windowStart;
+        if (length >= WINDOW) {
+            double seconds = length / 1e9;
+            double mean = latenessSum / frames;
+            double jitter = Math.sqrt(Math.max(0, latenessSquareSum / frames - mean * mean));
+            long cpuTime = cpuTime();
+            double cpuLoad = cpuTime < 0 || windowCpuStart < 0 ? Double.NaN : (double)(cpuTime - windowCpuStart) / length;
+            report = new Report(this.ticks / seconds, frames / seconds, jitter, maxLateness, idleWakeUps, cpuLoad);
+            startWindow(now);
+        }
+    }
+
+    void recordIdle() {
+        idleWakeUps++;
+    }
+
+    private void startWindow(long now) {
+        windowStart = now;
+        windowCpuStart = cpuTime();
+        ticks = frames = idleWakeUps = 0;
+        latenessSum = latenessSquareSum = 0;
+        maxLateness = 0;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
@@ -0,0 +1,37 @@
+package game.pacing;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Frame scheduler that parks the thread until shortly before the next tick and spins for the rest of the wait.
+ * Parking costs no CPU but may wake up late, so the spin window absorbs the timer's inaccuracy.
+ *
+ * @author Artem Novak
+ */
+public class HybridScheduler extends FrameScheduler {
+    public static final long DEFAULT_SPIN_WINDOW = 1_000_000;
+
+    private final long spinWindow;
+
+    public HybridScheduler(int tps, int maxCatchUp) {
+        this(tps, maxCatchUp, DEFAULT_SPIN_WINDOW);
+    }
+
+    /**
+     * @param spinWindow time before a tick (in nanoseconds) during which the thread spins instead of parking
+     */
+    public HybridScheduler(int tps, int maxCatchUp, long spinWindow) {
+        super(tps, maxCatchUp);
+        if (spinWindow < 0) throw new IllegalArgumentException("Spin window must not be negative");
+        this.spinWindow = spinWindow;
+    }
+
+    @Override
+    protected void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > spinWindow) LockSupport.parkNanos(this, remaining - spinWindow);
+            else Thread.onSpinWait();
+        }
+    }
+}
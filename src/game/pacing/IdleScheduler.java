@@ -0,0 +1,47 @@
+package game.pacing;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hybrid frame scheduler that stops ticking while the game loop is idle (e.g. the game is paused, or nothing is animated
+ * and no input is scheduled) and sleeps until {@link FrameScheduler#wakeUp()} is called. The first frame after waking up
+ * is due right away and does not catch up the time spent sleeping.
+ * <br>
+ * Sleeps are limited by {@link IdleScheduler#IDLE_TIMEOUT}, so a missed wake-up delays the game loop instead of stopping it.
+ *
+ * @author Artem Novak
+ */
+public class IdleScheduler extends HybridScheduler {
+    public static final long IDLE_TIMEOUT = 250_000_000;
+
+    private final BooleanSupplier idleCondition;
+    private volatile Thread loopThread;
+
+    /**
+     * @param idleCondition condition checked before every frame, true if the game loop has nothing to do until woken up
+     */
+    public IdleScheduler(int tps, int maxCatchUp, BooleanSupplier idleCondition) {
+        super(tps, maxCatchUp);
+        if (idleCondition == null) throw new IllegalArgumentException("Idle scheduler requires an idle condition");
+        this.idleCondition = idleCondition;
+    }
+
+    @Override
+    public int awaitFrame() {
+        loopThread = Thread.currentThread();
+        if (idleCondition.getAsBoolean()) {
+            // An unpark that happened after the check leaves a permit, so the wake-up is not lost.
+            LockSupport.parkNanos(this, IDLE_TIMEOUT);
+            getStatistics().recordIdle();
+            resynchronize();
+        }
+        return super.awaitFrame();
+    }
+
+    @Override
+    public void wakeUp() {
+        Thread thread = loopThread;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,75 @@
+package game.pacing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark of frame schedulers. Runs a game loop with a synthetic workload under every scheduler and prints
+ * the achieved tick rate, jitter and CPU load of the loop thread.
+ * <br>
+ * The "idle" scheduler is run with simulated input: an input thread wakes the loop up periodically, and the loop stays active
+ * for a while after every input, as it would while animating a turn.
+ * <br>
+ * Command line arguments are "key=value" pairs: schedulers (comma-separated names), seconds (per scheduler), tps, catchUp (maximal catch-up),
+ * work (busy work per tick in microseconds), input (interval between simulated inputs in milliseconds) and active (time the loop stays active
+ * after an input in milliseconds).
+ *
+ * @author Artem Novak
+ */
+public class PacingBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        String[] schedulers = {"spin", "hybrid", "idle"};
+        int seconds = 5, tps = 60, catchUp = FrameScheduler.DEFAULT_MAX_CATCH_UP;
+        long work = 500, input = 1000, active = 250;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "schedulers" -> schedulers = value.split(",");
+                case "seconds" -> seconds = Integer.parseInt(value);
+                case "tps" -> tps = Integer.parseInt(value);
+                case "catchUp" -> catchUp = Integer.parseInt(value);
+                case "work" -> work = Long.parseLong(value);
+                case "input" -> input = Long.parseLong(value);
+                case "active" -> active = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        for (String name : schedulers) {
+            System.out.printf("%s:%n", name);
+            run(name, seconds, tps, catchUp, work * 1000, input * 1_000_000, active * 1_000_000);
+        }
+    }
+
+    private static void run(String name, int seconds, int tps, int catchUp, long work, long inputInterval, long activeTime) throws InterruptedException {
+        AtomicLong lastInput = new AtomicLong(System.nanoTime());
+        FrameScheduler scheduler = FrameScheduler.byName(name, tps, catchUp, () -> System.nanoTime() - lastInput.get() > activeTime);
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread inputThread = new Thread(() -> {
+            while (System.nanoTime() < end) {
+                LockSupport.parkNanos(inputInterval);
+                lastInput.set(System.nanoTime());
+                scheduler.wakeUp();
+            }
+        });
+        inputThread.setDaemon(true);
+        inputThread.start();
+
+        FrameStatistics.Report last = null;
+        while (System.nanoTime() < end) {
+            int ticks = scheduler.awaitFrame();
+            for (int i = 0; i < ticks; i++) {
+                long until = System.nanoTime() + work;
+                while (System.nanoTime() < until) Thread.onSpinWait();
+            }
+            FrameStatistics.Report report = scheduler.getStatistics().getReport();
+            if (report != null && report != last) {
+                System.out.printf("  %s%n", report);
+                last = report;
+            }
+        }
+        inputThread.join();
+    }
+}
@@ -0,0 +1,18 @@
+package game.pacing;
+
+/**
+ * Frame scheduler that busy-waits for the next tick. Has the lowest latency, but occupies a whole core;
+ * mostly useful as a baseline for the other schedulers.
+ *
+ * @author Artem Novak
+ */
+public class SpinScheduler extends FrameScheduler {
+    public SpinScheduler(int tps, int maxCatchUp) {
+        super(tps, maxCatchUp);
+    }
+
+    @Override
+    protected void waitUntil(long deadline) {
+        while (System.nanoTime() - deadline < 0) Thread.onSpinWait();
+    }
+}
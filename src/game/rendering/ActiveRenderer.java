@@ -0,0 +1,144 @@
+package game.rendering;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+
+/**
+ * Renderer that draws frames of a component on the game loop thread instead of the event dispatch thread.
+ * <br>
+ * Every frame is rendered right after the update ticks into a back buffer (an accelerated {@link VolatileImage} when possible),
+ * which is then swapped with the front buffer. The component's paintComponent only copies the front buffer to the screen,
+ * so the event dispatch thread never reads game objects while the game loop changes them, and a painted frame is always
+ * a complete snapshot of one tick.
+ * <br>
+ * Frames may be rendered partially: only the region changed since the previous frame (plus the region the previous frame changed,
+ * which the back buffer, holding the frame before it, lacks) is rendered, and only it is repainted.
+ * <br>
+ * Accelerated buffers may lose their contents (e.g. when the display mode changes). A frame that is found lost while being presented
+ * is reported by {@link ActiveRenderer#isFrameLost()}, and the game loop is expected to render a new one even if it is otherwise idle.
+ *
+ * @author Artem Novak
+ */
+public class ActiveRenderer {
+    private final JComponent component;
+    private final Consumer<Graphics2D> scene;
+
+    private Image back, front; // front is guarded by frameLock, back is confined to the game loop thread
+    private final Object frameLock = new Object();
+    private volatile boolean frameLost = true;
+    private long framesRendered;
+    private Rectangle previousRegion; // Region rendered into the front buffer, confined to the game loop thread
+
+    /**
+     * @param component component to present frames in
+     * @param scene renders the component's contents, is called by the game loop thread
+     */
+    public ActiveRenderer(JComponent component, Consumer<Graphics2D> scene) {
+        this.component = component;
+        this.scene = scene;
+    }
+
+    /**
+     * Renders a complete frame into the back buffer, hands it over to the event dispatch thread and requests it to be painted.
+     * Is to be called by the game loop thread.
+     */
+    public void renderFrame() {
+        renderFrame(new DirtyRegion());
+    }
+
+    /**
+     * Renders the changed region of a frame into the back buffer, hands it over to the event dispatch thread and requests
+     * the region to be painted. Nothing is rendered if the region is empty and the presented frame is valid.
+     * Is to be called by the game loop thread.
+     *
+     * @param dirtyRegion region changed since the last frame, which is taken
+     */
+    public void renderFrame(DirtyRegion dirtyRegion) {
+        int width = Math.max(1, component.getWidth() > 0 ? component.getWidth() : component.getPreferredSize().width);
+        int height = Math.max(1, component.getHeight() > 0 ? component.getHeight() : component.getPreferredSize().height);
+        GraphicsConfiguration configuration = getConfiguration();
+        Image buffer = back;
+        back = ensureBuffer(back, configuration, width, height);
+        // A new or invalid back buffer, or a frame that could not be presented, requires a complete frame
+        if (back != buffer || frameLost || front == null || front.getWidth(null) != width || front.getHeight(null) != height) dirtyRegion.addAll();
+        Rectangle region = dirtyRegion.poll(width, height);
+        if (region == null) return;
+        Rectangle area = previousRegion == null ? region : region.union(previousRegion);
+        do {
+            if (back instanceof VolatileImage image) {
+                int status = image.validate(configuration);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) back = createBuffer(configuration, width, height);
+                if (status != VolatileImage.IMAGE_OK) area = region = new Rectangle(0, 0, width, height);
+            }
+            Graphics2D g2d = (Graphics2D)back.getGraphics();
+            g2d.clip(area);
+            g2d.setColor(component.getBackground());
+            g2d.fillRect(area.x, area.y, area.width, area.height);
+            scene.accept(g2d);
+            g2d.dispose();
+        } while (back instanceof VolatileImage image && image.contentsLost());
+        previousRegion = region;
+
+        synchronized (frameLock) {
+            Image rendered = back;
+            back = front;
+            front = rendered;
+        }
+        frameLost = false;
+        framesRendered++;
+        component.repaint(region);
+    }
+
+    /**
+     * Paints the last rendered frame. Is to be called from the component's paintComponent.
+     *
+     * @param g graphics of the component
+     * @return true if the frame was painted, false if there is no frame to paint or it has lost its contents
+     */
+    public boolean present(Graphics g) {
+        synchronized (frameLock) {
+            if (front == null || front instanceof VolatileImage image && (image.validate(component.getGraphicsConfiguration()) != VolatileImage.IMAGE_OK || image.contentsLost())) {
+                frameLost = true;
+                return false;
+            }
+            g.drawImage(front, 0, 0, null);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if there is no valid frame to present, so a new one has to be rendered
+     */
+    public boolean isFrameLost() {
+        return frameLost;
+    }
+
+    /**
+     * @return number of frames rendered so far
+     */
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    private Image ensureBuffer(Image buffer, GraphicsConfiguration configuration, int width, int height) {
+        if (buffer != null && buffer.getWidth(null) == width && buffer.getHeight(null) == height) return buffer;
+        return createBuffer(configuration, width, height);
+    }
+
+    /**
+     * Creates an accelerated buffer, or a plain image if there is no screen device to accelerate it on.
+     */
+    private static Image createBuffer(GraphicsConfiguration configuration, int width, int height) {
+        if (configuration == null) return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        return configuration.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+    }
+
+    private GraphicsConfiguration getConfiguration() {
+        GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+        if (configuration != null || GraphicsEnvironment.isHeadless()) return configuration;
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
@@ -0,0 +1,126 @@
+package game.rendering;
+
+import data.DataManager;
+import data.LevelData;
+import data.LevelIdentifier;
+import data.PlayerData;
+import game.GameSession;
+import game.gameobjects.Tile;
+import game.gameobjects.particles.ParticleManager;
+import game.utils.AssetCache;
+import game.utils.GamePanelGraphics;
+import game.utils.WeightedRandom;
+import misc.AssetManager;
+import models.App;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+
+/**
+ * Offscreen benchmark of texture blits. Renders tiles, the entity and particles of a level into an offscreen buffer,
+ * first with textures in the formats they are loaded in and then with textures converted by {@link GamePanelGraphics#toCompatibleImage(BufferedImage)},
+ * and prints the achieved render calls per second.
+ * <br>
+ * The buffer is an accelerated {@link VolatileImage} when there is a screen, as in {@link ActiveRenderer}, and a plain image in headless runs.
+ * <br>
+ * Command line arguments are "key=value" pairs: difficulty and level (of the rendered level), seconds (per measurement) and warmup (seconds before each measurement).
+ *
+ * @author Artem Novak
+ */
+public class BlitBenchmark {
+    private interface Workload {
+        void render(Graphics2D g2d);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String difficulty = "normal";
+        int level = 0;
+        double seconds = 2, warmup = 1;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "difficulty" -> difficulty = value;
+                case "level" -> level = Integer.parseInt(value);
+                case "seconds" -> seconds = Double.parseDouble(value);
+                case "warmup" -> warmup = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        if (App.lexenDeca == null) App.lexenDeca = AssetManager.getFont("/fonts/LexendDeca-Regular.ttf");
+        LevelData levelData = DataManager.loadLevelData(new LevelIdentifier(difficulty, level));
+        System.out.println(GraphicsEnvironment.isHeadless() ? "Headless, rendering into a BufferedImage" : "Rendering into a VolatileImage");
+
+        for (boolean compatible : new boolean[] {false, true}) {
+            GamePanelGraphics.setCompatibleImages(compatible);
+            AssetCache.getInstance().clear();
+            GameSession session = new GameSession(levelData, new PlayerData(), levelData.generateGraphics());
+            GamePanelGraphics graphics = session.getGameGraphics();
+            System.out.printf("%s textures (%s):%n", compatible ? "Compatible" : "Loaded", describe(graphics.getTileTexture(0)));
+
+            Tile[] tiles = new Tile[GamePanelGraphics.TILE_LEVELS];
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = new Tile(i % 4 * graphics.getTileSize(), i / 4 * graphics.getTileSize(), i, graphics);
+                tiles[i].setVisible(true);
+            }
+            ParticleManager particles = new ParticleManager(graphics, new WeightedRandom(0));
+            for (int i = 0; i < 4; i++) {
+                particles.addExplosionParticle(i * 50, 0);
+                particles.addHealthChangeParticle("-" + (i + 1) * 1000, new Rectangle(0, 0, GamePanelGraphics.ENTITY_WIDTH, GamePanelGraphics.ENTITY_HEIGHT));
+            }
+
+            Image target = createTarget(GamePanelGraphics.ENTITY_WIDTH, GamePanelGraphics.ENTITY_HEIGHT * 2);
+            measure("Tile.render", target, seconds, warmup, g2d -> {
+                for (Tile tile : tiles) tile.render(g2d);
+            }, tiles.length);
+            measure("Entity.render", target, seconds, warmup, session.getEntity()::render, 1);
+            measure("Particle.render", target, seconds, warmup, particles::render, 8);
+        }
+    }
+
+    private static void measure(String name, Image target, double seconds, double warmup, Workload workload, int blitsPerCall) {
+        run(target, (long)(warmup * 1e9), workload);
+        long start = System.nanoTime();
+        long calls = run(target, (long)(seconds * 1e9), workload);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-16s %10.0f calls/s %12.0f blits/s%n", name, calls / elapsed, calls * blitsPerCall / elapsed);
+    }
+
+    /**
+     * Renders the workload repeatedly, syncing with the buffer periodically, so that queued accelerated blits are counted as well.
+     *
+     * @return number of render calls
+     */
+    private static long run(Image target, long duration, Workload workload) {
+        long end = System.nanoTime() + duration;
+        long calls = 0;
+        while (System.nanoTime() < end) {
+            Graphics2D g2d = (Graphics2D) target.getGraphics();
+            for (int i = 0; i < 100; i++) workload.render(g2d);
+            g2d.dispose();
+            Toolkit.getDefaultToolkit().sync();
+            calls += 100;
+        }
+        return calls;
+    }
+
+    private static Image createTarget(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return configuration.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+    }
+
+    private static String describe(BufferedImage image) {
+        return switch (image.getType()) {
+            case BufferedImage.TYPE_INT_ARGB -> "INT_ARGB";
+            case BufferedImage.TYPE_INT_ARGB_PRE -> "INT_ARGB_PRE";
+            case BufferedImage.TYPE_4BYTE_ABGR -> "4BYTE_ABGR";
+            case BufferedImage.TYPE_4BYTE_ABGR_PRE -> "4BYTE_ABGR_PRE";
+            case BufferedImage.TYPE_CUSTOM -> "custom";
+            default -> "type " + image.getType();
+        };
+    }
+}
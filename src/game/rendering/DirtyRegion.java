@@ -0,0 +1,80 @@
+package game.rendering;
+
+import java.awt.*;
+
+/**
+ * Region of a rendered scene that has changed since the last frame, accumulated as the union of the bounds
+ * reported by game objects (a single rectangle, which keeps both the tracking and the repaint cheap).
+ * <br>
+ * Game objects report their bounds before and after every visible change (moving, changing texture, fading etc.),
+ * and the renderer takes the region once per frame, repainting only it or skipping the frame if it is empty.
+ * A new region covers the whole scene, so that the first frame is rendered completely.
+ * <br>
+ * Is confined to the game loop thread.
+ *
+ * @author Artem Novak
+ */
+public class DirtyRegion {
+    private int minX, minY, maxX, maxY;
+    private boolean empty = true;
+    private boolean everything = true;
+
+    /**
+     * Marks a rectangle as changed.
+     *
+     * @param x left edge
+     * @param y top edge
+     * @param width width (nothing is marked if it is not positive)
+     * @param height height (nothing is marked if it is not positive)
+     */
+    public void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (empty) {
+            minX = x;
+            minY = y;
+            maxX = x + width;
+            maxY = y + height;
+            empty = false;
+        }
+        else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x + width);
+            maxY = Math.max(maxY, y + height);
+        }
+    }
+
+    /**
+     * Marks the whole scene as changed.
+     */
+    public void addAll() {
+        everything = true;
+    }
+
+    /**
+     * @return true if nothing has changed since the last {@link DirtyRegion#poll(int, int)}
+     */
+    public boolean isEmpty() {
+        return empty && !everything;
+    }
+
+    /**
+     * Takes the changed region and starts accumulating a new one.
+     *
+     * @param width width of the scene
+     * @param height height of the scene
+     * @return changed region clipped to the scene, or null if nothing within the scene has changed
+     */
+    public Rectangle poll(int width, int height) {
+        Rectangle region = null;
+        if (everything) region = new Rectangle(0, 0, width, height);
+        else if (!empty) {
+            int x = Math.max(minX, 0), y = Math.max(minY, 0);
+            int right = Math.min(maxX, width), bottom = Math.min(maxY, height);
+            if (right > x && bottom > y) region = new Rectangle(x, y, right - x, bottom - y);
+        }
+        empty = true;
+        everything = false;
+        return region;
+    }
+}
@@ -0,0 +1,296 @@
+package game.replay;
+
+import data.DataManager;
+import data.LevelData;
+import data.LevelIdentifier;
+import game.GameModifier;
+import game.GameSession;
+import game.abilities.AbilityManager;
+import game.abilities.ActiveAbility;
+import game.gameobjects.Board;
+import game.gameobjects.BoardCell;
+import game.simulation.ExpectimaxPolicy;
+import game.simulation.Policy;
+import game.utils.SessionRandom;
+import game.utils.WeightedRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Regression suite of the game logic, made of golden replays: a corpus of recorded sessions with a stored {@link StateTrace} of each.
+ * Every replay is played headlessly, and its trace is compared with the stored one, so a change of the logic (of merging, damage,
+ * obstacles etc.) that alters the course of any session is reported at the first turn whose state it has affected.
+ * <br>
+ * Replays are played in parallel on the common fork-join pool. Every session is determined by its replay alone,
+ * so results do not depend on the number of threads or on scheduling.
+ * <br>
+ * Command line arguments are "key=value" pairs: mode, corpus (directory of the replays) and, for generating a corpus,
+ * games (per level), policy, depth, seed and difficulty, as in {@link game.simulation.DifficultyEstimator}. Modes are:
+ * <ul>
+ *     <li>verify: compares the traces with the stored ones (the exit code is 1 if any of them differ)</li>
+ *     <li>update: replaces the stored traces, after an intended change of the logic</li>
+ *     <li>generate: records a new corpus with an automated {@link Policy} that also applies active abilities at random,
+ *     going through a fixed list of loadouts, and stores its traces</li>
+ *     <li>selftest: checks the comparison of traces on synthetic ones (the exit code is 1 if it fails)</li>
+ * </ul>
+ *
+ * @author Artem Novak
+ */
+public class GoldenReplaySuite {
+    public static final Path DEFAULT_CORPUS = Paths.get("data", "golden");
+    public static final int DEFAULT_GAMES = 50;
+    /**
+     * Loadouts (NameIDs of the first and second active abilities and the passive ability) of generated sessions, used in turn.
+     */
+    private static final String[][] LOADOUTS = {
+            {null, null, null},
+            {"swap", "scramble", "resistance"},
+            {"dispose", "merge", "bonusDamage"},
+            {"upgrade", "crit", "cooldownReduction"},
+            {"safeAttack", "swap", "bonusTurns"},
+            {"merge", "upgrade", "betterBaseLevel"}
+    };
+    // Generated sessions try an active ability before every one in this many actions
+    private static final int ACTIVE_ABILITY_RATE = 8;
+
+    /**
+     * Result of playing a single replay of the corpus.
+     *
+     * @param replay replay file
+     * @param turns turns made in the replay, or -1 if it could not be played
+     * @param failure description of the difference from the stored trace, or null if there is none
+     */
+    public record Result(Path replay, int turns, String failure) {
+    }
+
+    /**
+     * Plays the replays in parallel and compares their traces with the stored ones.
+     *
+     * @param replays replay files
+     * @param update true to replace the stored traces instead of comparing with them
+     * @return results in the order of the replays
+     */
+    public static List<Result> run(List<Path> replays, boolean update) {
+        return replays.parallelStream().map(replay -> run(replay, update)).toList();
+    }
+
+    private static Result run(Path file, boolean update) {
+        StateTrace actual;
+        try {
+            actual = StateTrace.record(Replay.read(file));
+        }
+        catch (IOException | RuntimeException e) {
+            return new Result(file, -1, "cannot be played: " + e);
+        }
+        Path traceFile = StateTrace.fileOf(file);
+        try {
+            if (update) {
+                actual.write(traceFile);
+                return new Result(file, actual.getTurns(), null);
+            }
+            if (!Files.exists(traceFile)) return new Result(file, actual.getTurns(), "no stored trace");
+            return new Result(file, actual.getTurns(), describeDivergence(actual, StateTrace.read(traceFile)));
+        }
+        catch (IOException e) {
+            return new Result(file, actual.getTurns(), "trace cannot be accessed: " + e);
+        }
+    }
+
+    /**
+     * Describes the first difference of a trace from the stored one.
+     *
+     * @param actual trace of the replay played now
+     * @param expected stored trace
+     * @return description of the difference, or null if the traces match
+     */
+    public static String describeDivergence(StateTrace actual, StateTrace expected) {
+        int turn = actual.firstDivergence(expected);
+        if (turn == StateTrace.MATCH) return null;
+        if (turn <= Math.min(actual.getTurns(), expected.getTurns())) {
+            return String.format("diverged at turn %d (expected %016x, got %016x)", turn, expected.getHash(turn), actual.getHash(turn));
+        }
+        if (actual.getTurns() < expected.getTurns()) return String.format("ended after turn %d instead of %d", actual.getTurns(), expected.getTurns());
+        if (actual.getTurns() > expected.getTurns()) return String.format("went on after turn %d, up to turn %d", expected.getTurns(), actual.getTurns());
+        return String.format("diverged at the end (expected %016x, got %016x)", expected.getFinalHash(), actual.getFinalHash());
+    }
+
+    /**
+     * Checks {@link GoldenReplaySuite#describeDivergence(StateTrace, StateTrace)} on copies of a trace that are truncated, extended
+     * or changed at a single turn or at the end.
+     *
+     * @return descriptions of the failed checks
+     */
+    static List<String> selfTest() {
+        StateTrace trace = new StateTrace(new long[] {11, 12, 13, 14}, 15);
+        StateTrace truncated = trace.truncate(2);
+        List<String> failures = new ArrayList<>();
+        expect(failures, trace, trace, null);
+        expect(failures, truncated, trace, "ended after turn 2 instead of 3");
+        expect(failures, trace, truncated, "went on after turn 2, up to turn 3");
+        expect(failures, new StateTrace(new long[] {11, 12, 99, 14}, 15), trace, "diverged at turn 2 (expected 000000000000000d, got 0000000000000063)");
+        expect(failures, new StateTrace(new long[] {11, 12, 13, 14}, 99), trace, "diverged at the end (expected 000000000000000f, got 0000000000000063)");
+        return failures;
+    }
+
+    private static void expect(List<String> failures, StateTrace actual, StateTrace expected, String description) {
+        String result = describeDivergence(actual, expected);
+        if (!Objects.equals(result, description)) failures.add("expected \"" + description + "\", got \"" + result + "\"");
+    }
+
+    /**
+     * Records a corpus of replays in parallel and stores their traces. Replays are named after the level and the game's index,
+     * and every session is determined by the seed, the level and the game's index.
+     *
+     * @param corpus directory of the corpus
+     * @param levels levels to play
+     * @param games number of games per level
+     * @param policy factory of the policy that makes decisions (every game gets its own instance)
+     * @param seed seed that determines all games
+     * @return recorded replay files
+     * @throws IOException if the directory cannot be created
+     */
+    public static List<Path> generate(Path corpus, List<LevelIdentifier> levels, int games, Supplier<Policy> policy, long seed) throws IOException {
+        Files.createDirectories(corpus);
+        return levels.parallelStream().flatMap(level -> {
+            LevelData levelData;
+            try {
+                levelData = DataManager.loadLevelData(level);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return IntStream.range(0, games).parallel().mapToObj(game -> generate(corpus, levelData, game, policy.get(), seed));
+        }).toList();
+    }
+
+    private static Path generate(Path corpus, LevelData levelData, int game, Policy policy, long seed) {
+        LevelIdentifier level = levelData.getLevelIdentifier();
+        long gameSeed = WeightedRandom.mix(seed ^ WeightedRandom.mix(level.hashCode() + 0x9E3779B97F4A7C15L * game));
+        String[] loadout = LOADOUTS[game % LOADOUTS.length];
+        Replay template = new Replay(level, loadout[0], loadout[1], loadout[2], gameSeed, List.of(), List.of(), Replay.INCOMPLETE, 0);
+        GameSession session = new GameSession(levelData, template.createPlayerData(), levelData.generateHeadlessGraphics(), new SessionRandom(gameSeed));
+        Path file = corpus.resolve(level.difficulty() + "-" + level.index() + "-" + game + ReplayRecorder.EXTENSION);
+        ReplayRecorder recorder = new ReplayRecorder(session, file);
+
+        Random random = new WeightedRandom(WeightedRandom.mix(gameSeed));
+        // Every action either makes a turn or starts a cooldown, so the limit is only reached by a stuck game.
+        int actionLimit = 4 * (session.getCountdown().getTurns() + 1);
+        for (int actions = 0; actions < actionLimit && session.getState() != GameSession.ENDED; actions++) {
+            if (random.nextInt(ACTIVE_ABILITY_RATE) == 0 && useActiveAbility(session, random)) continue;
+            if (!policy.act(session, random)) break;
+        }
+        try {
+            recorder.close().get();
+            StateTrace.record(Replay.read(file)).write(StateTrace.fileOf(file));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Replay " + file + " could not be written", e);
+        }
+        finally {
+            session.close();
+        }
+        return file;
+    }
+
+    /**
+     * Applies one of the active abilities, if it can be applied, to random cells.
+     *
+     * @return true if the ability was applied
+     */
+    private static boolean useActiveAbility(GameSession session, Random random) {
+        AbilityManager abilities = session.getAbilityManager();
+        boolean first = random.nextBoolean();
+        ActiveAbility ability = first ? abilities.getActive1() : abilities.getActive2();
+        if (ability == null || ability.getState() != GameModifier.APPLICABLE) return false;
+        Board board = session.getBoard();
+        int cells = board.getRows() * board.getCols();
+        BoardCell cell1 = board.getCell(random.nextInt(cells)), cell2 = board.getCell(random.nextInt(cells));
+        return first ? session.useActive1(cell1, cell2) : session.useActive2(cell1, cell2);
+    }
+
+    private static List<Path> listReplays(Path corpus) throws IOException {
+        if (!Files.isDirectory(corpus)) return List.of();
+        try (Stream<Path> files = Files.list(corpus)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(ReplayRecorder.EXTENSION)).sorted().toList();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        Path corpus = DEFAULT_CORPUS;
+        int games = DEFAULT_GAMES, depth = ExpectimaxPolicy.DEFAULT_DEPTH;
+        long seed = 0;
+        String mode = "verify", policyName = "greedy", difficulty = "all";
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "mode" -> mode = value;
+                case "corpus" -> corpus = Paths.get(value);
+                case "games" -> games = Integer.parseInt(value);
+                case "policy" -> policyName = value;
+                case "depth" -> depth = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "difficulty" -> difficulty = value;
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        int threads = ForkJoinPool.commonPool().getParallelism();
+        long start = System.nanoTime();
+        switch (mode) {
+            case "generate" -> {
+                String name = policyName;
+                int searchDepth = depth;
+                Policy.byName(name, searchDepth); // Fails early on an unknown policy.
+                List<LevelIdentifier> levels = new ArrayList<>();
+                for (String levelDifficulty : difficulty.equals("all") ? new String[] {"normal", "hard"} : new String[] {difficulty}) {
+                    for (int index = 0; DataManager.isLevelDataAvailable(new LevelIdentifier(levelDifficulty, index)); index++) {
+                        levels.add(new LevelIdentifier(levelDifficulty, index));
+                    }
+                }
+                List<Path> replays = generate(corpus, levels, games, () -> Policy.byName(name, searchDepth), seed);
+                System.out.printf("Generated %d replays in %s in %.0f ms on %d threads%n", replays.size(), corpus, (System.nanoTime() - start) / 1e6, threads);
+            }
+            case "verify", "update" -> {
+                List<Path> replays = listReplays(corpus);
+                if (replays.isEmpty()) throw new IllegalArgumentException("No replays in " + corpus);
+                List<Result> results = run(replays, mode.equals("update"));
+                long turns = 0;
+                int failures = 0;
+                for (Result result : results) {
+                    turns += Math.max(result.turns(), 0);
+                    if (result.failure() == null) continue;
+                    failures++;
+                    System.out.println(result.replay().getFileName() + ": " + result.failure());
+                }
+                System.out.printf("%s %d replays (%d turns) in %.0f ms on %d threads: %d failed%n", mode.equals("update") ? "Updated" : "Verified",
+                        results.size(), turns, (System.nanoTime() - start) / 1e6, threads, failures);
+                if (failures > 0) System.exit(1);
+            }
+            case "selftest" -> {
+                List<String> failures = selfTest();
+                failures.forEach(System.out::println);
+                System.out.println(failures.isEmpty() ? "Self-test passed" : "Self-test failed: " + failures.size() + " checks");
+                if (!failures.isEmpty()) System.exit(1);
+            }
+            default -> throw new IllegalArgumentException("Unknown mode \"" + mode + "\"");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package game.replay;
+
+/**
+ * Snapshot of a recorded session, taken at rest between two events.
+ *
+ * @param event index of the first event after the snapshot
+ * @param tick tick the snapshot was taken at
+ * @param turn turns made before the snapshot
+ * @param snapshot state of the session
+ *
+ * @author Artem Novak
+ */
+public record Keyframe(int event, long tick, int turn, Snapshot snapshot) {
+}
@@ -0,0 +1,45 @@
+package game.replay;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Settings of a replay watched in the game window.
+ *
+ * @param replay replay
+ * @param speed updates per tick of the game loop: 1, 4 or 16
+ * @param startTurn turn to start watching at (the latest keyframe at or before it, see {@link ReplayPlayer#seek(int)})
+ *
+ * @author Artem Novak
+ */
+public record Playback(Replay replay, int speed, int startTurn) {
+    public Playback {
+        if (speed != 1 && speed != 4 && speed != 16) throw new IllegalArgumentException("Unsupported playback speed " + speed);
+        if (startTurn < 0) throw new IllegalArgumentException("Negative start turn " + startTurn);
+    }
+
+    /**
+     * Reads settings from command line arguments, which are "key=value" pairs: replay (path of the replay file),
+     * speed (1, 4 or 16) and turn (to start at).
+     *
+     * @param args command line arguments
+     * @return settings, or null if no replay is given
+     * @throws IOException if the replay cannot be read
+     */
+    public static Playback fromArguments(String[] args) throws IOException {
+        String file = null;
+        int speed = 1, turn = 0;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "replay" -> file = value;
+                case "speed" -> speed = Integer.parseInt(value);
+                case "turn" -> turn = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        return file == null ? null : new Playback(Replay.read(Paths.get(file)), speed, turn);
+    }
+}
@@ -0,0 +1,208 @@
+package game.replay;
+
+import data.LevelIdentifier;
+import data.PlayerData;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recording of a level session: the level, the ability loadout, the seed of the session's randomness and the player input applied to it
+ * (see {@link ReplayEvent}), along with periodic {@link Keyframe}s and the outcome. Is read from files written by a {@link ReplayRecorder}
+ * and played by a {@link ReplayPlayer}.
+ * <br>
+ * A replay that was not closed (e.g. because the game crashed) is read up to its last complete record.
+ *
+ * @author Artem Novak
+ */
+public class Replay {
+    // Outcomes
+    public static final int INCOMPLETE = -1, ABANDONED = 0, LOST = 1, WON = 2;
+
+    private final LevelIdentifier level;
+    private final String active1;
+    private final String active2;
+    private final String passive;
+    private final long seed;
+    private final List<ReplayEvent> events;
+    private final List<Keyframe> keyframes;
+    private final int outcome;
+    private final int stars;
+
+    /**
+     * @param level level of the session
+     * @param active1 NameID of the first active ability of the loadout (or null)
+     * @param active2 NameID of the second active ability of the loadout (or null)
+     * @param passive NameID of the passive ability of the loadout (or null)
+     * @param seed seed of the session's randomness
+     * @param events player input in the order it was applied
+     * @param keyframes keyframes in the order of events
+     * @param outcome one of the outcomes above
+     * @param stars stars earned, if the level was won
+     */
+    public Replay(LevelIdentifier level, String active1, String active2, String passive, long seed,
+                  List<ReplayEvent> events, List<Keyframe> keyframes, int outcome, int stars) {
+        this.level = level;
+        this.active1 = active1;
+        this.active2 = active2;
+        this.passive = passive;
+        this.seed = seed;
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+        this.keyframes = Collections.unmodifiableList(new ArrayList<>(keyframes));
+        this.outcome = outcome;
+        this.stars = stars;
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param file replay file
+     * @return replay
+     * @throws IOException if the file cannot be read or is not a replay of a supported version
+     */
+    public static Replay read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a replay from a stream.
+     *
+     * @param in stream positioned at the start of a replay
+     * @return replay
+     * @throws IOException if the stream cannot be read or does not contain a replay of a supported version
+     */
+    public static Replay read(DataInputStream in) throws IOException {
+        if (in.readInt() != ReplayFormat.MAGIC) throw new IOException("Not a replay");
+        int version = in.readUnsignedShort();
+        if (version != ReplayFormat.VERSION) throw new IOException("Unsupported replay version " + version);
+        LevelIdentifier level;
+        try {
+            level = new LevelIdentifier(in.readUTF(), in.readInt());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Replay of an unknown level", e);
+        }
+        String active1 = nameOrNull(in.readUTF()), active2 = nameOrNull(in.readUTF()), passive = nameOrNull(in.readUTF());
+        long seed = in.readLong();
+
+        List<ReplayEvent> events = new ArrayList<>();
+        List<Keyframe> keyframes = new ArrayList<>();
+        int outcome = INCOMPLETE, stars = 0;
+        long tick = 0;
+        try {
+            while (outcome == INCOMPLETE) {
+                int opcode = in.read();
+                if (opcode < 0) break;
+                long recordTick = tick + ReplayFormat.readVarLong(in);
+                switch (opcode) {
+                    case ReplayFormat.KEYFRAME -> keyframes.add(new Keyframe(events.size(), recordTick, ReplayFormat.readVarInt(in), Snapshot.read(in)));
+                    case ReplayFormat.END -> {
+                        int recordedOutcome = in.readUnsignedByte();
+                        stars = in.readUnsignedByte();
+                        outcome = recordedOutcome;
+                    }
+                    case ReplayEvent.SELECT -> events.add(new ReplayEvent(recordTick, opcode, in.readUnsignedByte()));
+                    default -> {
+                        if (opcode > ReplayEvent.ABORT) throw new IOException("Unknown replay record " + opcode);
+                        events.add(new ReplayEvent(recordTick, opcode, -1));
+                    }
+                }
+                tick = recordTick;
+            }
+        }
+        catch (EOFException e) {
+            // The replay was not closed, and its last record is cut off
+        }
+        return new Replay(level, active1, active2, passive, seed, events, keyframes, outcome, stars);
+    }
+
+    private static String nameOrNull(String name) {
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * Creates player data with the replay's loadout, meant only for playing the replay (it has nothing else unlocked).
+     *
+     * @return new player data
+     */
+    public PlayerData createPlayerData() {
+        PlayerData playerData = new PlayerData();
+        if (!playerData.isLevelUnlocked(level)) playerData.unlockLevel(level);
+        if (active1 != null) {
+            playerData.unlockAbility(active1);
+            playerData.setActiveAbility1(active1);
+        }
+        if (active2 != null) {
+            playerData.unlockAbility(active2);
+            playerData.setActiveAbility2(active2);
+        }
+        if (passive != null) {
+            playerData.unlockAbility(passive);
+            playerData.setPassiveAbility(passive);
+        }
+        return playerData;
+    }
+
+    public LevelIdentifier getLevel() {
+        return level;
+    }
+
+    public String getActive1() {
+        return active1;
+    }
+
+    public String getActive2() {
+        return active2;
+    }
+
+    public String getPassive() {
+        return passive;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return player input in the order it was applied (unmodifiable)
+     */
+    public List<ReplayEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return keyframes in the order of events (unmodifiable)
+     */
+    public List<Keyframe> getKeyframes() {
+        return keyframes;
+    }
+
+    /**
+     * @return {@link Replay#WON}, {@link Replay#LOST}, {@link Replay#ABANDONED}, or {@link Replay#INCOMPLETE} if the replay was not closed
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    public int getStars() {
+        return stars;
+    }
+
+    /**
+     * @return name of an outcome
+     */
+    public static String outcomeName(int outcome) {
+        return switch (outcome) {
+            case WON -> "won";
+            case LOST -> "lost";
+            case ABANDONED -> "abandoned";
+            default -> "incomplete";
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package game.replay;
+
+import game.GameAction;
+
+/**
+ * Record of a single piece of player input in a replay.
+ *
+ * @param tick tick of the session the input was applied at (see {@link game.GameSession#getTick()})
+ * @param type one of the types below (types of moves are equal to the directions of {@link game.gameobjects.Board})
+ * @param cell index of the selected cell (row * columns + column) for {@link ReplayEvent#SELECT}, -1 otherwise
+ *
+ * @author Artem Novak
+ */
+public record ReplayEvent(long tick, int type, int cell) {
+    public static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3, ATTACK = 4, ACTIVE1 = 5, ACTIVE2 = 6, SELECT = 7, ABORT = 8;
+
+    public ReplayEvent {
+        if (type < UP || type > ABORT) throw new IllegalArgumentException("Unknown replay event type " + type);
+        if ((type == SELECT) != (cell >= 0)) throw new IllegalArgumentException("Only selection events have a cell");
+    }
+
+    /**
+     * @return true if the event is a move
+     */
+    public boolean isMove() {
+        return type <= RIGHT;
+    }
+
+    /**
+     * @return action that makes the game loop apply the input
+     */
+    public GameAction getAction() {
+        return switch (type) {
+            case UP -> GameAction.UP;
+            case DOWN -> GameAction.DOWN;
+            case LEFT -> GameAction.LEFT;
+            case RIGHT -> GameAction.RIGHT;
+            case ATTACK -> GameAction.ATTACK;
+            case ACTIVE1 -> GameAction.ACTIVE1;
+            case ACTIVE2 -> GameAction.ACTIVE2;
+            case SELECT -> GameAction.SELECT_TILE;
+            default -> GameAction.ABORT_SELECTION;
+        };
+    }
+
+    /**
+     * @param ability {@link GameAction#ATTACK}, {@link GameAction#ACTIVE1} or {@link GameAction#ACTIVE2}
+     * @return type of the event of the ability's activation
+     */
+    public static int typeOf(GameAction ability) {
+        return switch (ability) {
+            case ATTACK -> ATTACK;
+            case ACTIVE1 -> ACTIVE1;
+            case ACTIVE2 -> ACTIVE2;
+            default -> throw new IllegalArgumentException(ability + " is not an ability");
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package game.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and integer coding of the binary replay format.
+ * <br>
+ * A replay starts with a header: magic number, version, level difficulty and index, NameIDs of the abilities of the loadout
+ * (empty strings for empty slots) and the session seed. It is followed by records, each made of an opcode, the number of ticks
+ * since the previous record and the opcode's payload:
+ * <ul>
+ *     <li>{@link ReplayEvent} types: no payload, except for the index of the cell of {@link ReplayEvent#SELECT}</li>
+ *     <li>{@link ReplayFormat#KEYFRAME}: turns made so far and a {@link Snapshot}</li>
+ *     <li>{@link ReplayFormat#END}: outcome and stars, the last record of a complete replay</li>
+ * </ul>
+ * Non-negative numbers are written as variable-length integers (7 bits per byte), so a typical event takes 2 bytes.
+ * <br>
+ * A {@link StateTrace} is stored next to its replay (with {@link ReplayFormat#TRACE_EXTENSION}): magic number, version,
+ * the number of turns and the hashes of the states after every turn (see {@link Snapshot#hash()}), followed by the final hash.
+ *
+ * @author Artem Novak
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x4E505250; // "NPRP"
+    static final int VERSION = 1;
+    // Opcodes following the event types
+    static final int KEYFRAME = 9, END = 10;
+
+    static final int TRACE_MAGIC = 0x4E505448; // "NPTH"
+    static final int TRACE_VERSION = 1;
+    static final String TRACE_EXTENSION = ".trace";
+
+    private ReplayFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        if (value < 0) throw new IllegalArgumentException("Negative value " + value);
+        while (value >= 0x80) {
+            out.writeByte((int)value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            if (b < 0x80) return value;
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) throw new IOException("Integer out of range: " + value);
+        return (int)value;
+    }
+}
@@ -0,0 +1,264 @@
+package game.replay;
+
+import data.DataManager;
+import data.LevelData;
+import game.ActionHandler;
+import game.GameAction;
+import game.GameSession;
+import game.events.GameOverListener;
+import game.events.PlayerInputListener;
+import game.gameobjects.Board;
+import game.gameobjects.BoardCell;
+import game.utils.SessionRandom;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Player of a {@link Replay} on a session created with the replay's level, loadout and seed (see {@link ReplayPlayer#createSession(Replay)}).
+ * <br>
+ * Events can be applied in two ways:
+ * <ul>
+ *     <li>instantly, through the same calls as {@link GameSession#move(int)} etc., which settle the session after every event
+ *     (headless playback at unlimited speed, and seeking)</li>
+ *     <li>tick by tick, by injecting every event into the session's {@link ActionHandler} at the tick it was recorded at
+ *     (see {@link ReplayPlayer#beforeTick()}), so the session is animated exactly as it was when recorded</li>
+ * </ul>
+ * While events are applied, the player checks the session against the replay's keyframes and remembers the first one it diverges from.
+ * <br>
+ * Seeking fast-forwards to a keyframe instead of restoring it, because effects of obstacles (e.g. freeze) keep part of their state in listeners:
+ * without animations, a session is fast-forwarded through hundreds of turns in milliseconds.
+ * <br>
+ * Methods are to be called by the thread that runs the session.
+ *
+ * @author Artem Novak
+ */
+public class ReplayPlayer implements PlayerInputListener {
+    private final Replay replay;
+    private final GameSession session;
+    private final Board board;
+    private final ActionHandler actionHandler;
+    private final List<ReplayEvent> events;
+
+    private int nextEvent; // Next event to apply
+    private int appliedEvents; // Events the session has reported as applied
+    private int nextKeyframe;
+    private long tickOffset; // Recorded tick of the session's tick 0
+    private Point pointer;
+    private Keyframe divergence;
+    private int outcome = Replay.ABANDONED;
+
+    /**
+     * Creates a player and starts checking the session against the keyframes.
+     *
+     * @param replay replay
+     * @param session session that has not received any input yet, created with the replay's level, loadout and seed
+     */
+    public ReplayPlayer(Replay replay, GameSession session) {
+        this.replay = replay;
+        this.session = session;
+        this.board = session.getBoard();
+        this.actionHandler = session.getActionHandler();
+        this.events = replay.getEvents();
+        session.addPlayerInputListener(this);
+        session.addGameOverListener(new GameOverListener() {
+            @Override
+            public void onLose() {
+                outcome = Replay.LOST;
+            }
+
+            @Override
+            public void onWin(boolean abilityUnlocked) {
+                outcome = Replay.WON;
+            }
+        });
+        checkKeyframes();
+    }
+
+    /**
+     * Creates a session that is not meant to be rendered, with the replay's level, loadout and seed.
+     *
+     * @param replay replay
+     * @return new session
+     * @throws IOException if the level cannot be loaded
+     */
+    public static GameSession createSession(Replay replay) throws IOException {
+        LevelData levelData = DataManager.loadLevelData(replay.getLevel());
+        return new GameSession(levelData, replay.createPlayerData(), levelData.generateHeadlessGraphics(), new SessionRandom(replay.getSeed()));
+    }
+
+    /**
+     * @return true if there are events left to apply
+     */
+    public boolean hasNext() {
+        return nextEvent < events.size();
+    }
+
+    /**
+     * Applies the next event instantly and settles the session.
+     */
+    public void step() {
+        ReplayEvent event = events.get(nextEvent++);
+        switch (event.type()) {
+            case ReplayEvent.ATTACK -> session.getAbilityManager().attemptAttack();
+            case ReplayEvent.ACTIVE1 -> session.getAbilityManager().attemptActive1();
+            case ReplayEvent.ACTIVE2 -> session.getAbilityManager().attemptActive2();
+            case ReplayEvent.SELECT -> board.selectCell(board.getCell(event.cell()));
+            case ReplayEvent.ABORT -> {
+                if (board.getState() == Board.SELECTING) session.notifySelectionAborted();
+                board.abortSelection();
+            }
+            default -> session.move(event.type());
+        }
+        session.settle();
+    }
+
+    /**
+     * Applies all remaining events instantly.
+     */
+    public void playToEnd() {
+        while (hasNext()) step();
+    }
+
+    /**
+     * Fast-forwards to the latest keyframe at or before the turn. Afterwards, events can be applied tick by tick,
+     * as if the session had been played up to that keyframe.
+     *
+     * @param turn turn to seek
+     * @return turn of the keyframe reached
+     * @throws IllegalStateException if the keyframe has already been passed
+     */
+    public int seek(int turn) throws IllegalStateException {
+        Keyframe target = null;
+        for (Keyframe keyframe : replay.getKeyframes()) {
+            if (keyframe.turn() <= turn) target = keyframe;
+        }
+        if (target == null) return 0;
+        if (target.event() < nextEvent) throw new IllegalStateException("Seeking backwards requires a new session");
+        while (nextEvent < target.event()) step();
+        tickOffset = target.tick() - session.getTick();
+        return target.turn();
+    }
+
+    /**
+     * Injects the events recorded at the session's next tick into its {@link ActionHandler}. Is to be called before every update
+     * of a session that is played tick by tick. An event is injected only once the previous one has been taken by the game loop,
+     * and a selection moves the pointer over the selected cell (see {@link ReplayPlayer#getPointerLocation()}).
+     */
+    public void beforeTick() {
+        if (session.getState() == GameSession.PAUSED) return;
+        while (hasNext() && !actionHandler.anyActionScheduled()) {
+            ReplayEvent event = events.get(nextEvent);
+            if (event.tick() - tickOffset > session.getTick()) return;
+            if (event.type() == ReplayEvent.SELECT) {
+                int tileSize = session.getGameGraphics().getTileSize();
+                pointer = board.pointByCell(board.getCell(event.cell()));
+                pointer.translate(tileSize / 2, tileSize / 2);
+            }
+            actionHandler.injectAction(event.getAction());
+            nextEvent++;
+        }
+    }
+
+    /**
+     * @return location of the replayed pointer relative to the game panel (over the latest selected cell), or null before the first selection
+     */
+    public Point getPointerLocation() {
+        return pointer;
+    }
+
+    /**
+     * @return first keyframe the session did not match, or null if it has matched all keyframes so far
+     */
+    public Keyframe getDivergence() {
+        return divergence;
+    }
+
+    /**
+     * @return outcome of the session so far ({@link Replay#ABANDONED} while it is being played)
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    @Override
+    public void onMove(int direction) {
+        onEventApplied();
+    }
+
+    @Override
+    public void onAbilityAttempted(GameAction ability) {
+        onEventApplied();
+    }
+
+    @Override
+    public void onCellSelected(BoardCell cell) {
+        onEventApplied();
+    }
+
+    @Override
+    public void onSelectionAborted() {
+        onEventApplied();
+    }
+
+    /**
+     * Is called at the moment an event is applied, which is when keyframes were taken during recording.
+     */
+    private void onEventApplied() {
+        checkKeyframes();
+        appliedEvents++;
+    }
+
+    private void checkKeyframes() {
+        List<Keyframe> keyframes = replay.getKeyframes();
+        while (nextKeyframe < keyframes.size() && keyframes.get(nextKeyframe).event() <= appliedEvents) {
+            Keyframe keyframe = keyframes.get(nextKeyframe++);
+            if (divergence == null && (keyframe.event() != appliedEvents || !keyframe.snapshot().equals(Snapshot.capture(session)))) divergence = keyframe;
+        }
+    }
+
+    /**
+     * Plays a replay headlessly at unlimited speed and reports whether the result matches the recording.
+     * <br>
+     * Command line arguments are "key=value" pairs: file (path of the replay).
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        Path file = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "file" -> file = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("No replay file given");
+        Replay replay = Replay.read(file);
+        System.out.printf("%s level %d, loadout %s/%s/%s, seed %d: %d events, %d keyframes, %s%n", replay.getLevel().difficulty(), replay.getLevel().index(),
+                replay.getActive1(), replay.getActive2(), replay.getPassive(), replay.getSeed(), replay.getEvents().size(), replay.getKeyframes().size(),
+                Replay.outcomeName(replay.getOutcome()));
+
+        long start = System.nanoTime();
+        GameSession session = createSession(replay);
+        ReplayPlayer player = new ReplayPlayer(replay, session);
+        player.playToEnd();
+        double elapsed = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Played in %.1f ms: %s, %d stars, %d turns left%n", elapsed, Replay.outcomeName(player.getOutcome()), session.getStars(), session.getCountdown().getTurns());
+        if (player.getDivergence() != null) System.out.println("Diverged before event " + player.getDivergence().event() + " (turn " + player.getDivergence().turn() + ")");
+        else if (replay.getOutcome() != Replay.INCOMPLETE && (replay.getOutcome() != player.getOutcome() || replay.getStars() != session.getStars())) System.out.println("Outcome differs from the recording");
+        else System.out.println("Matches the recording");
+    }
+}
@@ -0,0 +1,309 @@
+package game.replay;
+
+import data.LevelIdentifier;
+import data.PlayerData;
+import game.GameAction;
+import game.GameSession;
+import game.events.GameOverListener;
+import game.events.PlayerInputListener;
+import game.events.TurnListener;
+import game.gameobjects.Board;
+import game.gameobjects.BoardCell;
+import game.gameobjects.Entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Recorder of a session into a {@link Replay} file. Reports of player input (see {@link PlayerInputListener}) are encoded into
+ * a memory buffer on the session's thread, and the buffer is appended to the file asynchronously whenever it fills up, so that the game loop
+ * never waits for the disk. A {@link Keyframe} is added every {@link ReplayRecorder#KEYFRAME_INTERVAL} turns, as soon as
+ * the session is at rest when input arrives.
+ * <br>
+ * Recording is an addition to the game only: if the file cannot be written, the rest of the recording is dropped, the recorder is marked
+ * as failed (see {@link ReplayRecorder#isFailed()}) and the future returned by {@link ReplayRecorder#close()} fails with the error.
+ * The file is left without its final record, so it is read as an incomplete replay.
+ * Methods are to be called by the thread that runs the session.
+ *
+ * @author Artem Novak
+ */
+public class ReplayRecorder implements PlayerInputListener {
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "replays");
+    public static final String EXTENSION = ".replay";
+    // Replays kept in the default directory, older ones are deleted
+    public static final int MAX_REPLAYS = 100;
+    public static final int KEYFRAME_INTERVAL = 25;
+
+    private static final int FLUSH_SIZE = 4096;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    // A single thread keeps the appended chunks of every file in order
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "replay-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GameSession session;
+    private final Path file;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(FLUSH_SIZE * 2);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final TurnListener turnListener = () -> this.turns++;
+    private final GameOverListener gameOverListener = new GameOverListener() {
+        @Override
+        public void onLose() {
+            outcome = Replay.LOST;
+        }
+
+        @Override
+        public void onWin(boolean abilityUnlocked) {
+            outcome = Replay.WON;
+        }
+    };
+
+    private long lastTick;
+    private int events;
+    private int turns;
+    private int lastKeyframeTurn;
+    private int outcome = Replay.ABANDONED;
+    private boolean closed;
+    private Future<?> lastWrite = CompletableFuture.completedFuture(null);
+    private Future<?> cleanup; // Deletion of old replays that precedes the recording, or null
+    private volatile IOException failure; // Set by the writer thread
+
+    /**
+     * Creates a recorder and starts recording the session. The session should not have received any input yet.
+     *
+     * @param session session to record
+     * @param file file to write, replaced if it exists
+     */
+    public ReplayRecorder(GameSession session, Path file) {
+        this.session = session;
+        this.file = file;
+        LevelIdentifier level = session.getLevelData().getLevelIdentifier();
+        PlayerData playerData = session.getPlayerData();
+        try {
+            out.writeInt(ReplayFormat.MAGIC);
+            out.writeShort(ReplayFormat.VERSION);
+            out.writeUTF(level.difficulty());
+            out.writeInt(level.index());
+            out.writeUTF(nameOrEmpty(playerData.getActiveAbility1()));
+            out.writeUTF(nameOrEmpty(playerData.getActiveAbility2()));
+            out.writeUTF(nameOrEmpty(playerData.getPassiveAbility()));
+            out.writeLong(session.getRandom().getSeed());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e); // Writing into memory does not fail
+        }
+        writeKeyframe();
+        flush(true);
+        session.addPlayerInputListener(this);
+        session.getBoard().addTurnListener(turnListener);
+        session.addGameOverListener(gameOverListener);
+    }
+
+    /**
+     * Starts recording a session into a new file in {@link ReplayRecorder#DEFAULT_DIRECTORY}, deleting the oldest replays
+     * beyond {@link ReplayRecorder#MAX_REPLAYS}.
+     *
+     * @param session session to record
+     * @return new recorder
+     */
+    public static ReplayRecorder start(GameSession session) {
+        LevelIdentifier level = session.getLevelData().getLevelIdentifier();
+        // File names start with the time, so they are sorted from the oldest
+        Path file = DEFAULT_DIRECTORY.resolve(LocalDateTime.now().format(FILE_TIME) + "-" + level.difficulty() + "-" + level.index() + EXTENSION);
+        Future<?> cleanup = WRITER.submit(() -> {
+            deleteOldReplays(DEFAULT_DIRECTORY);
+            return null;
+        });
+        ReplayRecorder recorder = new ReplayRecorder(session, file);
+        recorder.cleanup = cleanup;
+        return recorder;
+    }
+
+    @Override
+    public void onMove(int direction) {
+        record(direction, -1);
+    }
+
+    @Override
+    public void onAbilityAttempted(GameAction ability) {
+        record(ReplayEvent.typeOf(ability), -1);
+    }
+
+    @Override
+    public void onCellSelected(BoardCell cell) {
+        record(ReplayEvent.SELECT, cell.row * session.getBoard().getCols() + cell.col);
+    }
+
+    @Override
+    public void onSelectionAborted() {
+        record(ReplayEvent.ABORT, -1);
+    }
+
+    /**
+     * Stops recording, writes the outcome and appends the rest of the replay. Has no effect if the recorder is already closed.
+     *
+     * @return future that completes once the whole replay is written, or fails with the first error of writing the replay
+     * (or of deleting old replays before it)
+     */
+    public Future<?> close() {
+        if (!closed) {
+            closed = true;
+            session.removePlayerInputListener(this);
+            session.getBoard().removeTurnListener(turnListener);
+            session.removeGameOverListener(gameOverListener);
+            try {
+                writeRecordStart(ReplayFormat.END);
+                out.writeByte(outcome);
+                out.writeByte(outcome == Replay.WON ? session.getStars() : 0);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            flush(false);
+            // Runs after all appends, so it reports the failure of any of them
+            lastWrite = WRITER.submit(this::checkWritten);
+        }
+        return lastWrite;
+    }
+
+    /**
+     * @return true if writing the replay has failed, so the file lacks some records
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return file the replay is written into
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return number of events recorded so far
+     */
+    public int getEventCount() {
+        return events;
+    }
+
+    private void record(int type, int cell) {
+        if (closed) return;
+        if (turns - lastKeyframeTurn >= KEYFRAME_INTERVAL && isAtRest()) writeKeyframe();
+        try {
+            writeRecordStart(type);
+            if (cell >= 0) out.writeByte(cell);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        events++;
+        if (buffer.size() >= FLUSH_SIZE) flush(false);
+    }
+
+    /**
+     * @return true if nothing is animated, so that no logic deferred until the end of an animation is pending
+     */
+    private boolean isAtRest() {
+        return session.getBoard().getState() == Board.IDLE && session.getEntity().getState() == Entity.IDLE;
+    }
+
+    private void writeKeyframe() {
+        try {
+            writeRecordStart(ReplayFormat.KEYFRAME);
+            ReplayFormat.writeVarLong(out, turns);
+            Snapshot.capture(session).write(out);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastKeyframeTurn = turns;
+    }
+
+    private void writeRecordStart(int opcode) throws IOException {
+        long tick = session.getTick();
+        out.writeByte(opcode);
+        ReplayFormat.writeVarLong(out, tick - lastTick);
+        lastTick = tick;
+    }
+
+    /**
+     * Hands the buffered records over to the writer thread.
+     *
+     * @param create true if the file is to be created (or replaced), false if the records are appended
+     */
+    private void flush(boolean create) {
+        if (failure != null) buffer.reset();
+        if (buffer.size() == 0) return;
+        byte[] chunk = buffer.toByteArray();
+        buffer.reset();
+        lastWrite = WRITER.submit(() -> {
+            if (failure != null) return;
+            try {
+                if (create) {
+                    Files.createDirectories(file.toAbsolutePath().getParent());
+                    Files.write(file, chunk, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                }
+                else Files.write(file, chunk, StandardOpenOption.APPEND);
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Throws the failure of writing the replay or of the deletion of old replays that preceded it. Is run by the writer thread
+     * after all other tasks of the recorder.
+     */
+    private Void checkWritten() throws IOException {
+        IOException cleanupFailure = null;
+        if (cleanup != null) {
+            try {
+                cleanup.get(); // Already done, the writer runs tasks in order
+            }
+            catch (ExecutionException e) {
+                cleanupFailure = e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            if (cleanupFailure != null) failure.addSuppressed(cleanupFailure);
+            throw failure;
+        }
+        if (cleanupFailure != null) throw cleanupFailure;
+        return null;
+    }
+
+    private static String nameOrEmpty(String name) {
+        return name == null ? "" : name;
+    }
+
+    private static void deleteOldReplays(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> replays = files.filter(x -> x.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+            // One more slot is left for the replay being started
+            for (int i = 0; i < replays.size() - (MAX_REPLAYS - 1); i++) Files.deleteIfExists(replays.get(i));
+        }
+    }
+}
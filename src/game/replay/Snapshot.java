@@ -0,0 +1,89 @@
+package game.replay;
+
+import game.GameSession;
+import game.abilities.AbilityManager;
+import game.abilities.ActiveAbility;
+import game.gameobjects.BitBoard;
+import game.utils.WeightedRandom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Logical state of a session at rest: the board, the entity's health, turns left, the obstacle counter and ability cooldowns.
+ *
+ * @param lowCells packed codes of the first 16 cells (see {@link BitBoard#getLowCells()})
+ * @param highCells packed codes of the rest of the cells
+ * @param lockMask mask of locked (frozen) tiles
+ * @param turnsLeft turns left on the countdown
+ * @param health health of the entity
+ * @param obstacleTurns turns elapsed since the latest obstacle
+ * @param attackCooldown current cooldown of the attack
+ * @param active1Cooldown current cooldown of the first active ability, or -1 if there is none
+ * @param active2Cooldown current cooldown of the second active ability, or -1 if there is none
+ *
+ * @author Artem Novak
+ */
+public record Snapshot(long lowCells, long highCells, int lockMask, int turnsLeft, long health, int obstacleTurns,
+                       int attackCooldown, int active1Cooldown, int active2Cooldown) {
+    /**
+     * Takes a snapshot of a session. The session should be at rest (with no animations and the logic deferred until their end pending),
+     * otherwise the snapshot depends on how far the animations have progressed.
+     *
+     * @param session session
+     * @return snapshot
+     */
+    public static Snapshot capture(GameSession session) {
+        BitBoard model = session.getBoard().getModel();
+        AbilityManager abilities = session.getAbilityManager();
+        return new Snapshot(model.getLowCells(), model.getHighCells(), model.getLockMask(), session.getCountdown().getTurns(),
+                session.getEntity().getHealth(), session.getObstacleManager().getTurnsElapsed(),
+                abilities.getAttack().getCurrentCooldown(), cooldownOf(abilities.getActive1()), cooldownOf(abilities.getActive2()));
+    }
+
+    /**
+     * Computes a 64-bit hash of the snapshot, in which every bit depends on every field. Unlike {@link Snapshot#hashCode()},
+     * it is specified by this method alone, so hashes stored by one run of the game can be compared with hashes computed by another.
+     *
+     * @return hash of the snapshot
+     */
+    public long hash() {
+        long hash = combine(0, lowCells);
+        hash = combine(hash, highCells);
+        hash = combine(hash, lockMask);
+        hash = combine(hash, turnsLeft);
+        hash = combine(hash, health);
+        hash = combine(hash, obstacleTurns);
+        hash = combine(hash, attackCooldown);
+        hash = combine(hash, active1Cooldown);
+        return combine(hash, active2Cooldown);
+    }
+
+    static long combine(long hash, long value) {
+        return WeightedRandom.mix(hash + 0x9E3779B97F4A7C15L ^ value);
+    }
+
+    private static int cooldownOf(ActiveAbility ability) {
+        return ability == null ? -1 : ability.getCurrentCooldown();
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(lowCells);
+        ReplayFormat.writeVarLong(out, highCells);
+        ReplayFormat.writeVarLong(out, lockMask);
+        ReplayFormat.writeVarLong(out, turnsLeft);
+        ReplayFormat.writeVarLong(out, health);
+        ReplayFormat.writeVarLong(out, obstacleTurns);
+        // Cooldowns are shifted by one, so that a missing ability (-1) is written as 0
+        ReplayFormat.writeVarLong(out, attackCooldown + 1);
+        ReplayFormat.writeVarLong(out, active1Cooldown + 1);
+        ReplayFormat.writeVarLong(out, active2Cooldown + 1);
+    }
+
+    static Snapshot read(DataInput in) throws IOException {
+        return new Snapshot(in.readLong(), ReplayFormat.readVarLong(in), ReplayFormat.readVarInt(in), ReplayFormat.readVarInt(in),
+                ReplayFormat.readVarLong(in), ReplayFormat.readVarInt(in),
+                ReplayFormat.readVarInt(in) - 1, ReplayFormat.readVarInt(in) - 1, ReplayFormat.readVarInt(in) - 1);
+    }
+}
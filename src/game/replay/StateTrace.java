@@ -0,0 +1,154 @@
+package game.replay;
+
+import game.GameSession;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Hashes (see {@link Snapshot#hash()}) of the states a session goes through when a replay is played headlessly: the state at the start,
+ * the state after every turn and the final state along with the outcome.
+ * <br>
+ * A trace stored next to its replay is a golden value of the game logic: playing the replay again with changed logic and comparing
+ * the traces shows the first turn whose state the change has affected (see {@link GoldenReplaySuite}).
+ *
+ * @author Artem Novak
+ */
+public class StateTrace {
+    /**
+     * Result of {@link StateTrace#firstDivergence(StateTrace)} for matching traces.
+     */
+    public static final int MATCH = -1;
+
+    private final long[] turnHashes;
+    private final long finalHash;
+
+    /**
+     * @param turnHashes hashes of the state at the start (index 0) and after every turn
+     * @param finalHash hash of the final state along with the outcome
+     */
+    public StateTrace(long[] turnHashes, long finalHash) {
+        if (turnHashes.length == 0) throw new IllegalArgumentException("Trace must contain the state at the start");
+        this.turnHashes = turnHashes.clone();
+        this.finalHash = finalHash;
+    }
+
+    /**
+     * Plays a replay headlessly and traces the session. The state after a turn is hashed once the session has settled.
+     *
+     * @param replay replay to play
+     * @return trace of the replay
+     * @throws IOException if the replay's level cannot be loaded
+     */
+    public static StateTrace record(Replay replay) throws IOException {
+        GameSession session = ReplayPlayer.createSession(replay);
+        ReplayPlayer player = new ReplayPlayer(replay, session);
+        int[] turns = new int[1];
+        session.getBoard().addTurnListener(() -> turns[0]++);
+
+        long[] hashes = new long[64];
+        int count = 0;
+        hashes[count++] = Snapshot.capture(session).hash();
+        while (player.hasNext()) {
+            player.step();
+            if (turns[0] < count) continue;
+            long hash = Snapshot.capture(session).hash();
+            // A single event settles at most one turn, but the trace stays aligned with turns even if it does not
+            if (turns[0] >= hashes.length) hashes = Arrays.copyOf(hashes, Math.max(hashes.length * 2, turns[0] + 1));
+            while (count <= turns[0]) hashes[count++] = hash;
+        }
+        long finalHash = Snapshot.combine(Snapshot.combine(Snapshot.capture(session).hash(), player.getOutcome()), session.getStars());
+        session.close();
+        return new StateTrace(Arrays.copyOf(hashes, count), finalHash);
+    }
+
+    /**
+     * Finds the first difference from another trace.
+     *
+     * @param expected trace to compare with
+     * @return first turn whose state differs (0 for the state at the start) or that only one of the traces reaches,
+     * {@link StateTrace#getTurns()} + 1 if only the final states differ, or {@link StateTrace#MATCH} if the traces are equal
+     */
+    public int firstDivergence(StateTrace expected) {
+        int common = Math.min(turnHashes.length, expected.turnHashes.length);
+        int turn = Arrays.mismatch(turnHashes, 0, common, expected.turnHashes, 0, common);
+        if (turn >= 0) return turn;
+        if (turnHashes.length != expected.turnHashes.length) return common;
+        return finalHash == expected.finalHash ? MATCH : turnHashes.length;
+    }
+
+    /**
+     * @return number of turns made in the traced session
+     */
+    public int getTurns() {
+        return turnHashes.length - 1;
+    }
+
+    /**
+     * @param turn turn, from 0 (the start) to {@link StateTrace#getTurns()}
+     * @return hash of the state after the turn
+     */
+    public long getHash(int turn) {
+        return turnHashes[turn];
+    }
+
+    public long getFinalHash() {
+        return finalHash;
+    }
+
+    /**
+     * @param turns number of turns to keep
+     * @return copy of the trace that ends after the turn, with the same final hash
+     * @throws IllegalArgumentException if the trace does not reach the turn
+     */
+    public StateTrace truncate(int turns) throws IllegalArgumentException {
+        if (turns < 0 || turns > getTurns()) throw new IllegalArgumentException("Trace of " + getTurns() + " turns cannot be truncated to " + turns);
+        return new StateTrace(Arrays.copyOf(turnHashes, turns + 1), finalHash);
+    }
+
+    /**
+     * @param replay path of a replay file
+     * @return path of the trace file stored next to it
+     */
+    public static Path fileOf(Path replay) {
+        String name = replay.getFileName().toString();
+        if (name.endsWith(ReplayRecorder.EXTENSION)) name = name.substring(0, name.length() - ReplayRecorder.EXTENSION.length());
+        return replay.resolveSibling(name + ReplayFormat.TRACE_EXTENSION);
+    }
+
+    /**
+     * Writes the trace, replacing the file if it exists.
+     *
+     * @param file file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(ReplayFormat.TRACE_MAGIC);
+            out.writeShort(ReplayFormat.TRACE_VERSION);
+            ReplayFormat.writeVarLong(out, turnHashes.length);
+            for (long hash : turnHashes) out.writeLong(hash);
+            out.writeLong(finalHash);
+        }
+    }
+
+    /**
+     * Reads a trace written by {@link StateTrace#write(Path)}.
+     *
+     * @param file file to read
+     * @return trace
+     * @throws IOException if the file cannot be read or is not a trace of a supported version
+     */
+    public static StateTrace read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != ReplayFormat.TRACE_MAGIC) throw new IOException(file + " is not a state trace");
+            int version = in.readUnsignedShort();
+            if (version != ReplayFormat.TRACE_VERSION) throw new IOException("Unsupported state trace version " + version);
+            long[] hashes = new long[ReplayFormat.readVarInt(in)];
+            for (int i = 0; i < hashes.length; i++) hashes[i] = in.readLong();
+            return new StateTrace(hashes, in.readLong());
+        }
+    }
+}
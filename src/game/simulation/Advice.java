@@ -0,0 +1,19 @@
+package game.simulation;
+
+import game.gameobjects.BoardCell;
+
+/**
+ * Action recommended by {@link Expectimax}: either a turn or an attack.
+ *
+ * @param direction direction of the turn, or -1 if the action is an attack
+ * @param attackCell cell of the tile to attack with, or null if the action is a turn
+ * @param score expected heuristic score of the action
+ * @param depth depth of the deepest completed search iteration
+ * @param nodes number of chance nodes visited
+ * @author Artem Novak
+ */
+public record Advice(int direction, BoardCell attackCell, double score, int depth, long nodes) {
+    public boolean isAttack() {
+        return attackCell != null;
+    }
+}
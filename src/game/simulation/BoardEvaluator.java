@@ -0,0 +1,87 @@
+package game.simulation;
+
+import game.gameobjects.BitBoard;
+
+/**
+ * Heuristic evaluation of board positions used by automated policies.
+ * Rewards free cells, pairs of tiles that can be merged and high tiles, and penalizes rows and columns
+ * that are not monotonic. Locked tiles are treated as walls that split lines.
+ *
+ * @author Artem Novak
+ */
+public final class BoardEvaluator {
+    public static final double EMPTY_WEIGHT = 2.7;
+    public static final double MERGE_WEIGHT = 1.0;
+    public static final double MAX_LEVEL_WEIGHT = 1.0;
+    public static final double MONOTONICITY_WEIGHT = 1.0;
+    /**
+     * Score of a board that has no possible turns.
+     */
+    public static final double LOSS_SCORE = -1e6;
+
+    private BoardEvaluator() {}
+
+    /**
+     * @param board board to evaluate
+     * @return heuristic score of the board, higher is better
+     */
+    public static double evaluate(BitBoard board) {
+        int rows = board.getRows(), cols = board.getCols();
+        int merges = 0, penalty = 0, maxLevel = 0;
+        for (int i = 0; i < board.getCellCount(); i++) {
+            if (!board.isEmpty(i)) maxLevel = Math.max(maxLevel, board.getLevel(i));
+        }
+        for (int row = 0; row < rows; row++) {
+            merges += countMerges(board, row * cols, 1, cols);
+            penalty += monotonicityPenalty(board, row * cols, 1, cols);
+        }
+        for (int col = 0; col < cols; col++) {
+            merges += countMerges(board, col, cols, rows);
+            penalty += monotonicityPenalty(board, col, cols, rows);
+        }
+        int empty = board.getCellCount() - board.getTileCount();
+        return EMPTY_WEIGHT * empty + MERGE_WEIGHT * merges + MAX_LEVEL_WEIGHT * maxLevel - MONOTONICITY_WEIGHT * penalty;
+    }
+
+    /**
+     * @return number of merges a turn along the line would make
+     */
+    private static int countMerges(BitBoard board, int start, int step, int length) {
+        int merges = 0, previous = -1;
+        for (int i = 0, index = start; i < length; i++, index += step) {
+            if (board.isEmpty(index)) continue;
+            if (board.isLocked(index)) {
+                previous = -1;
+                continue;
+            }
+            int level = board.getLevel(index);
+            if (level == previous && level < BitBoard.MAX_LEVEL) {
+                merges++;
+                previous = -1;
+            }
+            else previous = level;
+        }
+        return merges;
+    }
+
+    /**
+     * @return the smaller of total level increases and total level decreases along the line
+     */
+    private static int monotonicityPenalty(BitBoard board, int start, int step, int length) {
+        int increase = 0, decrease = 0, previous = -1;
+        for (int i = 0, index = start; i < length; i++, index += step) {
+            if (board.isEmpty(index)) continue;
+            if (board.isLocked(index)) {
+                previous = -1;
+                continue;
+            }
+            int level = board.getLevel(index);
+            if (previous != -1) {
+                if (level > previous) increase += level - previous;
+                else decrease += previous - level;
+            }
+            previous = level;
+        }
+        return Math.min(increase, decrease);
+    }
+}
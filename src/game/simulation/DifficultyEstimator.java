@@ -0,0 +1,203 @@
+package game.simulation;
+
+import data.DataManager;
+import data.LevelData;
+import data.LevelIdentifier;
+import data.PlayerData;
+import game.GameSession;
+import game.utils.WeightedRandom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Monte Carlo estimator of level difficulty. Plays many seeded games of every level with an automated {@link Policy}
+ * on a fork-join pool and gathers {@link LevelStatistics}.
+ * <br>
+ * Every game is fully determined by the estimator's seed, the level and the game's index, so results
+ * do not depend on the number of threads or on scheduling.
+ * <br>
+ * Command line arguments are "key=value" pairs: games (per level), policy (random, greedy or expectimax), depth (of expectimax),
+ * seed, difficulty (normal, hard or all), active1, active2 and passive (ability NameIDs of the simulated loadout).
+ *
+ * @author Artem Novak
+ */
+public class DifficultyEstimator {
+    public static final int DEFAULT_GAMES = 1000;
+    /**
+     * Number of games below which a batch is played sequentially instead of being split further.
+     */
+    private static final int BATCH_SIZE = 8;
+
+    private final ForkJoinPool pool;
+    private final Supplier<Policy> policyFactory;
+    private final int games;
+    private final long seed;
+    private String active1, active2, passive;
+
+    /**
+     * @param policyFactory supplier of policy instances (every batch of games gets its own instance)
+     * @param games number of games played per level
+     * @param seed seed that determines all games
+     * @param pool pool to play games on
+     */
+    public DifficultyEstimator(Supplier<Policy> policyFactory, int games, long seed, ForkJoinPool pool) {
+        if (games <= 0) throw new IllegalArgumentException("Number of games must be positive");
+        this.policyFactory = policyFactory;
+        this.games = games;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Constructs an estimator that uses the common fork-join pool (all available cores).
+     */
+    public DifficultyEstimator(Supplier<Policy> policyFactory, int games, long seed) {
+        this(policyFactory, games, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sets abilities used in every simulated game.
+     *
+     * @param active1 NameID of the first active ability or null
+     * @param active2 NameID of the second active ability or null
+     * @param passive NameID of the passive ability or null
+     */
+    public void setLoadout(String active1, String active2, String passive) {
+        this.active1 = active1;
+        this.active2 = active2;
+        this.passive = passive;
+    }
+
+    /**
+     * Plays all games of a level.
+     *
+     * @param levelData level to estimate
+     * @return statistics of the played games
+     */
+    public LevelStatistics estimate(LevelData levelData) {
+        return pool.invoke(new GameBatch(levelData, 0, games));
+    }
+
+    /**
+     * Plays a single game.
+     *
+     * @param levelData level to play
+     * @param game index of the game
+     * @param policy policy that makes decisions
+     * @param statistics statistics to record the result into
+     */
+    public void playGame(LevelData levelData, int game, Policy policy, LevelStatistics statistics) {
+        long gameSeed = WeightedRandom.mix(seed ^ WeightedRandom.mix(levelData.getLevelIdentifier().hashCode() + 0x9E3779B97F4A7C15L * game));
+        GameSession session = new GameSession(levelData, createPlayerData(levelData.getLevelIdentifier()), gameSeed);
+        statistics.track(session);
+        Random random = new WeightedRandom(WeightedRandom.mix(gameSeed));
+        // Every action either makes a turn or starts a cooldown, so the limit is only reached by a stuck game.
+        int actionLimit = 4 * (session.getCountdown().getTurns() + 1);
+        boolean stall = false;
+        for (int actions = 0; session.getState() != GameSession.ENDED; actions++) {
+            if (actions == actionLimit || !policy.act(session, random)) {
+                stall = true;
+                break;
+            }
+        }
+        statistics.record(session, stall);
+        session.close();
+    }
+
+    private PlayerData createPlayerData(LevelIdentifier level) {
+        PlayerData playerData = new PlayerData();
+        if (!playerData.isLevelUnlocked(level)) playerData.unlockLevel(level);
+        if (active1 != null) {
+            playerData.unlockAbility(active1);
+            playerData.setActiveAbility1(active1);
+        }
+        if (active2 != null) {
+            playerData.unlockAbility(active2);
+            playerData.setActiveAbility2(active2);
+        }
+        if (passive != null) {
+            playerData.unlockAbility(passive);
+            playerData.setPassiveAbility(passive);
+        }
+        return playerData;
+    }
+
+    /**
+     * Range of games of a level that is split in halves until it is small enough to be played sequentially.
+     */
+    private class GameBatch extends RecursiveTask<LevelStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final LevelData levelData;
+        private final int from, to;
+
+        GameBatch(LevelData levelData, int from, int to) {
+            this.levelData = levelData;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LevelStatistics compute() {
+            if (to - from <= BATCH_SIZE) {
+                LevelStatistics statistics = new LevelStatistics(levelData);
+                Policy policy = policyFactory.get();
+                for (int game = from; game < to; game++) playGame(levelData, game, policy, statistics);
+                return statistics;
+            }
+            int middle = (from + to) >>> 1;
+            GameBatch left = new GameBatch(levelData, from, middle);
+            left.fork();
+            LevelStatistics right = new GameBatch(levelData, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int games = DEFAULT_GAMES, depth = ExpectimaxPolicy.DEFAULT_DEPTH;
+        long seed = 0;
+        String policyName = "expectimax", difficulty = "all", active1 = null, active2 = null, passive = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Argument \"" + arg + "\" is not a key=value pair");
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "games" -> games = Integer.parseInt(value);
+                case "policy" -> policyName = value;
+                case "depth" -> depth = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "difficulty" -> difficulty = value;
+                case "active1" -> active1 = value;
+                case "active2" -> active2 = value;
+                case "passive" -> passive = value;
+                default -> throw new IllegalArgumentException("Unknown argument \"" + arg + "\"");
+            }
+        }
+        String name = policyName;
+        int searchDepth = depth;
+        Policy.byName(name, searchDepth); // Fails early on an unknown policy.
+        DifficultyEstimator estimator = new DifficultyEstimator(() -> Policy.byName(name, searchDepth), games, seed);
+        estimator.setLoadout(active1, active2, passive);
+
+        List<LevelIdentifier> levels = new ArrayList<>();
+        for (String levelDifficulty : difficulty.equals("all") ? new String[] {"normal", "hard"} : new String[] {difficulty}) {
+            for (int index = 0; DataManager.isLevelDataAvailable(new LevelIdentifier(levelDifficulty, index)); index++) {
+                levels.add(new LevelIdentifier(levelDifficulty, index));
+            }
+        }
+        System.out.printf("Policy %s, %d games per level, seed %d, %d threads%n", policyName, games, seed, ForkJoinPool.commonPool().getParallelism());
+        for (LevelIdentifier level : levels) {
+            long start = System.nanoTime();
+            LevelStatistics statistics = estimator.estimate(DataManager.loadLevelData(level));
+            System.out.print(statistics);
+            System.out.printf("  (%.0f ms)%n", (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package game.simulation;
+
+import game.gameobjects.BitBoard;
+import game.gameobjects.BoardCell;
+import game.obstacles.ObstacleManager;
+
+/**
+ * Expectimax search over {@link BitBoard} positions.
+ * <br>
+ * Turns (and, at the root, attacks with every unlocked tile) are max nodes. Tile generations are chance nodes, where every free cell
+ * is equally likely and the generated tile has the base level with weight 3 and the next level with weight 1
+ * (as in {@link game.gameobjects.Board#generateRandomTile()}). Obstacles are rolled after every turn with the chance and
+ * the weights {@link ObstacleManager} uses; for speed, their outcomes are averaged over all cells they can hit and
+ * scored statically instead of being searched further. Obstacles that do not change the board are scored as an unchanged board.
+ * Leaves are scored with {@link BoardEvaluator}.
+ * <br>
+ * The search deepens iteratively until the maximal depth or the time budget is reached, and caches values of positions
+ * in an optional {@link TranspositionTable}. Instances reuse their scratch boards and are not thread-safe.
+ *
+ * @author Artem Novak
+ */
+public class Expectimax {
+    public static final int BASE_TILE_WEIGHT = 3, UPGRADED_TILE_WEIGHT = 1;
+
+    // Kinds of obstacles that change the board
+    public static final int GARBAGE = 0, FREEZE = 1, DOWNGRADE = 2, DISPOSE = 3;
+    public static final int BOARD_OBSTACLES = 4;
+
+    /**
+     * Score of an attack that finishes the level.
+     */
+    public static final double WIN_SCORE = 1e6;
+    /**
+     * Bonus of an attack that deals all damage still needed to win (attacks dealing less get a proportional part).
+     */
+    public static final double DAMAGE_WEIGHT = 20;
+
+    private final TranspositionTable table;
+    private BitBoard[] scratch; // Two boards per ply: after the turn and after the tile generation.
+    private BitBoard rootScratch, obstacleScratch;
+
+    private SearchPosition position;
+    private long deadline;
+    private boolean deadlineActive, aborted;
+    private long nodes;
+
+    /**
+     * Constructs a search without a transposition table.
+     */
+    public Expectimax() {
+        this(null);
+    }
+
+    /**
+     * @param table table to cache position values in, or null
+     */
+    public Expectimax(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Finds the best action. The first iteration (depth 1) is always completed, regardless of the time budget.
+     *
+     * @param position position to search
+     * @param maxDepth maximal number of (turn, tile generation) pairs to look ahead, at least 1
+     * @param timeBudget time budget in nanoseconds, or 0 for none (the search is then deterministic)
+     * @return the best action found, or null if no action is possible
+     */
+    public Advice search(SearchPosition position, int maxDepth, long timeBudget) {
+        if (maxDepth < 1) throw new IllegalArgumentException("Search depth must be positive");
+        this.position = position;
+        prepare(position.board(), maxDepth);
+        nodes = 0;
+        aborted = false;
+        deadline = System.nanoTime() + timeBudget;
+        Advice best = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            deadlineActive = timeBudget > 0 && depth > 1;
+            Advice advice = searchRoot(depth);
+            if (aborted) break;
+            best = advice;
+            if (advice == null || advice.score() >= WIN_SCORE || (timeBudget > 0 && System.nanoTime() >= deadline)) break;
+        }
+        this.position = null;
+        return best;
+    }
+
+    /**
+     * Maps an obstacle NameID to the kind of its effect on the board.
+     *
+     * @param nameID obstacle NameID
+     * @return one of {@link Expectimax#GARBAGE}, {@link Expectimax#FREEZE}, {@link Expectimax#DOWNGRADE}, {@link Expectimax#DISPOSE},
+     * or -1 if the obstacle does not change levels or positions of tiles in a way the search accounts for
+     */
+    public static int obstacleKind(String nameID) {
+        return switch (nameID) {
+            case "garbageTile" -> GARBAGE;
+            case "freeze" -> FREEZE;
+            case "downgrade" -> DOWNGRADE;
+            case "randomDispose" -> DISPOSE;
+            default -> -1;
+        };
+    }
+
+    private Advice searchRoot(int depth) {
+        BitBoard root = position.board();
+        int bestDirection = -1, bestCell = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int direction = 0; direction < 4; direction++) {
+            BitBoard moved = scratch[0];
+            moved.copyFrom(root);
+            if (!moved.move(direction)) continue;
+            double score = chance(moved, 0, depth, position.turnsElapsed());
+            if (score > bestScore) {
+                bestScore = score;
+                bestDirection = direction;
+            }
+        }
+        if (position.attackAvailable()) {
+            for (int i = 0; i < root.getCellCount(); i++) {
+                if (root.isEmpty(i) || root.isLocked(i)) continue;
+                double score = attack(root, i, depth);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestDirection = -1;
+                    bestCell = i;
+                }
+            }
+        }
+        if (bestDirection == -1 && bestCell == -1) return null;
+        BoardCell cell = bestCell == -1 ? null : new BoardCell(bestCell / root.getCols(), bestCell % root.getCols());
+        return new Advice(bestDirection, cell, bestScore, depth, nodes);
+    }
+
+    /**
+     * Scores attacking with the tile in the given cell. As an attack is not a turn, it is followed by a full search of turns.
+     * Besides attacks that finish the level, only attacks that are the last chance to attack before turns run out
+     * or that relieve a nearly full board are considered (as in {@link HeuristicPolicy}).
+     *
+     * @return score of the attack, or negative infinity if it is not considered
+     */
+    private double attack(BitBoard root, int index, int depth) {
+        int level = root.getLevel(index);
+        long damage = level == 0 ? 0 : level == BitBoard.MAX_LEVEL ? Integer.MAX_VALUE : (long) Math.pow(position.baseTileDamage(), level);
+        if (damage <= position.tolerance()) return Double.NEGATIVE_INFINITY;
+        if (damage >= position.healthToGo()) return WIN_SCORE;
+        boolean lastChance = position.turnsLeft() <= position.attackCooldown();
+        boolean crowded = root.getCellCount() - root.getTileCount() <= HeuristicPolicy.CROWDED_FREE_CELLS;
+        if (!lastChance && !crowded) return Double.NEGATIVE_INFINITY;
+        rootScratch.copyFrom(root);
+        rootScratch.clear(index);
+        return max(rootScratch, 0, depth, position.turnsElapsed()) + DAMAGE_WEIGHT * damage / position.healthToGo();
+    }
+
+    /**
+     * @return the best score among turns at the given ply
+     */
+    private double max(BitBoard board, int ply, int depth, int turnsElapsed) {
+        BitBoard moved = scratch[2 * ply];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int direction = 0; direction < 4; direction++) {
+            moved.copyFrom(board);
+            if (moved.move(direction)) best = Math.max(best, chance(moved, ply, depth, turnsElapsed));
+        }
+        if (best != Double.NEGATIVE_INFINITY) return best;
+        // A board with no turns is lost only when it is full.
+        return board.isFull() ? BoardEvaluator.LOSS_SCORE : BoardEvaluator.evaluate(board);
+    }
+
+    /**
+     * @return expected score over all tile generations and obstacles after the turn of the given ply
+     */
+    private double chance(BitBoard board, int ply, int depth, int turnsElapsed) {
+        nodes++;
+        // A chance node evaluates dozens of boards, so checking the clock in every one is cheap in comparison.
+        if (deadlineActive && System.nanoTime() >= deadline) aborted = true;
+        if (aborted) return 0;
+        if (board.isFull()) return BoardEvaluator.evaluate(board);
+
+        int remaining = depth - ply;
+        long key = 0;
+        if (table != null) {
+            key = board.hash64() ^ ((long) turnsElapsed << 48 | (long) position.baseTileLevel() << 40);
+            double cached = table.get(key, remaining);
+            if (!Double.isNaN(cached)) return cached;
+        }
+
+        BitBoard spawned = scratch[2 * ply + 1];
+        boolean leaf = remaining == 1;
+        double total = 0;
+        int cells = 0;
+        for (int i = 0; i < board.getCellCount(); i++) {
+            if (!board.isEmpty(i)) continue;
+            cells++;
+            spawned.copyFrom(board);
+            spawned.set(i, position.baseTileLevel(), false);
+            total += BASE_TILE_WEIGHT * (leaf ? BoardEvaluator.evaluate(spawned) : max(spawned, ply + 1, depth, turnsElapsed + 1));
+            spawned.copyFrom(board);
+            spawned.set(i, position.baseTileLevel() + 1, false);
+            total += UPGRADED_TILE_WEIGHT * (leaf ? BoardEvaluator.evaluate(spawned) : max(spawned, ply + 1, depth, turnsElapsed + 1));
+        }
+        double value = total / (cells * (BASE_TILE_WEIGHT + UPGRADED_TILE_WEIGHT));
+
+        double obstacleChance = position.totalObstacleWeight() == 0 ? 0 : ObstacleManager.getTriggerChance(turnsElapsed + 1, position.minObstacleInterval(), position.maxObstacleInterval());
+        if (obstacleChance > 0) value = (1 - obstacleChance) * value + obstacleChance * obstacle(board);
+
+        if (table != null && !aborted) table.put(key, remaining, value);
+        return value;
+    }
+
+    /**
+     * Scores the board after an obstacle. The obstacle is applied to the board before the tile generation, which slightly
+     * differs from the game, but keeps the number of evaluated positions linear.
+     *
+     * @return expected static score of the board after a random obstacle
+     */
+    private double obstacle(BitBoard board) {
+        double unchanged = BoardEvaluator.evaluate(board);
+        int[] weights = position.obstacleWeights();
+        double total = 0;
+        int boardWeight = 0;
+        for (int kind = 0; kind < BOARD_OBSTACLES; kind++) {
+            if (weights[kind] == 0) continue;
+            boardWeight += weights[kind];
+            double sum = 0;
+            int candidates = 0;
+            for (int i = 0; i < board.getCellCount(); i++) {
+                if (!isObstacleCandidate(board, i, kind)) continue;
+                candidates++;
+                obstacleScratch.copyFrom(board);
+                switch (kind) {
+                    case GARBAGE -> obstacleScratch.set(i, 0, false);
+                    case FREEZE -> obstacleScratch.setLocked(i, true);
+                    case DOWNGRADE -> obstacleScratch.setLevel(i, board.getLevel(i) - 1);
+                    case DISPOSE -> obstacleScratch.clear(i);
+                }
+                sum += BoardEvaluator.evaluate(obstacleScratch);
+            }
+            total += weights[kind] * (candidates == 0 ? unchanged : sum / candidates);
+        }
+        return (total + (position.totalObstacleWeight() - boardWeight) * unchanged) / position.totalObstacleWeight();
+    }
+
+    /**
+     * Mirrors applicability checks of the corresponding obstacles.
+     */
+    private static boolean isObstacleCandidate(BitBoard board, int index, int kind) {
+        if (kind == GARBAGE) return board.isEmpty(index);
+        if (board.isEmpty(index) || board.isLocked(index)) return false;
+        return switch (kind) {
+            case DOWNGRADE -> board.getLevel(index) > 1;
+            case DISPOSE -> board.getLevel(index) > 0;
+            default -> true;
+        };
+    }
+
+    private void prepare(BitBoard board, int depth) {
+        if (scratch == null || scratch.length < 2 * depth || scratch[0].getRows() != board.getRows() || scratch[0].getCols() != board.getCols()) {
+            scratch = new BitBoard[2 * depth];
+            for (int i = 0; i < scratch.length; i++) scratch[i] = new BitBoard(board);
+            rootScratch = new BitBoard(board);
+            obstacleScratch = new BitBoard(board);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package game.simulation;
+
+import game.GameSession;
+
+import java.util.Random;
+
+/**
+ * Policy that follows {@link Expectimax} advice. It searches to a fixed depth with no time budget,
+ * so its decisions depend only on the game state.
+ *
+ * @author Artem Novak
+ */
+public class ExpectimaxPolicy implements Policy {
+    public static final int DEFAULT_DEPTH = 1;
+
+    private final Expectimax search = new Expectimax(new TranspositionTable());
+    private final int depth;
+
+    public ExpectimaxPolicy() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /**
+     * @param depth number of (turn, tile generation) pairs to look ahead
+     */
+    public ExpectimaxPolicy(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Search depth must be positive");
+        this.depth = depth;
+    }
+
+    @Override
+    public boolean act(GameSession session, Random random) {
+        Advice advice = search.search(SearchPosition.of(session), depth, 0);
+        if (advice == null) return false;
+        return advice.isAttack() ? session.attack(advice.attackCell()) : session.move(advice.direction());
+    }
+}
@@ -0,0 +1,29 @@
+package game.simulation;
+
+import game.gameobjects.BitBoard;
+
+/**
+ * Policy that makes the turn with the best immediate result according to {@link BoardEvaluator}.
+ *
+ * @author Artem Novak
+ */
+public class GreedyPolicy extends HeuristicPolicy {
+    private BitBoard scratch;
+
+    @Override
+    public int chooseDirection(BitBoard board, int baseTileLevel) {
+        if (scratch == null || scratch.getRows() != board.getRows() || scratch.getCols() != board.getCols()) scratch = new BitBoard(board);
+        int bestDirection = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int direction = 0; direction < 4; direction++) {
+            scratch.copyFrom(board);
+            if (!scratch.move(direction)) continue;
+            double score = BoardEvaluator.evaluate(scratch);
+            if (score > bestScore) {
+                bestScore = score;
+                bestDirection = direction;
+            }
+        }
+        return bestDirection;
+    }
+}
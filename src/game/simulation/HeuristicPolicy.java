@@ -0,0 +1,60 @@
+package game.simulation;
+
+import game.GameModifier;
+import game.GameSession;
+import game.gameobjects.BitBoard;
+import game.gameobjects.BoardCell;
+import game.gameobjects.Entity;
+
+import java.util.Random;
+
+/**
+ * Base of policies that choose turns by evaluating resulting boards.
+ * They attack with the highest unlocked tile when that finishes the level, when it is the last chance to attack
+ * before turns run out, or when the board is nearly full.
+ *
+ * @author Artem Novak
+ */
+public abstract class HeuristicPolicy implements Policy {
+    /**
+     * Number of free cells at or below which the board is considered nearly full.
+     */
+    public static final int CROWDED_FREE_CELLS = 2;
+
+    @Override
+    public boolean act(GameSession session, Random random) {
+        BitBoard model = session.getBoard().getModel();
+        if (session.getAbilityManager().getAttack().getState() == GameModifier.APPLICABLE) {
+            int best = -1;
+            for (int i = 0; i < model.getCellCount(); i++) {
+                if (!model.isEmpty(i) && !model.isLocked(i) && (best == -1 || model.getLevel(i) > model.getLevel(best))) best = i;
+            }
+            if (best != -1 && shouldAttack(session, model, model.getLevel(best)) && session.attack(new BoardCell(best / model.getCols(), best % model.getCols()))) return true;
+        }
+        int direction = chooseDirection(model, session.getBoard().getBaseTileLevel());
+        return direction != -1 && session.move(direction);
+    }
+
+    /**
+     * @param level level of the tile to attack with
+     * @return true if the attack is worth making now
+     */
+    protected boolean shouldAttack(GameSession session, BitBoard model, int level) {
+        if (level == 0) return false;
+        Entity entity = session.getEntity();
+        long needed = session.getGameMode() == GameSession.GAME_MODE_ATTACK ? entity.getHealth() : entity.getMaxHealth() - entity.getHealth();
+        long damage = level == BitBoard.MAX_LEVEL ? Integer.MAX_VALUE : (long)Math.pow(session.getBaseTileDamage(), level);
+        return damage >= needed
+                || session.getCountdown().getTurns() <= session.getAbilityManager().getAttack().getCooldown()
+                || model.getCellCount() - model.getTileCount() <= CROWDED_FREE_CELLS;
+    }
+
+    /**
+     * Chooses direction of the next turn.
+     *
+     * @param board current board (must not be modified)
+     * @param baseTileLevel level of most newly generated tiles
+     * @return one of {@link BitBoard#UP}, {@link BitBoard#DOWN}, {@link BitBoard#LEFT}, {@link BitBoard#RIGHT}, or -1 if no turn is possible
+     */
+    public abstract int chooseDirection(BitBoard board, int baseTileLevel);
+}
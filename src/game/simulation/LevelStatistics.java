@@ -0,0 +1,166 @@
+package game.simulation;
+
+import data.LevelData;
+import data.LevelIdentifier;
+import game.GameSession;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulated results of simulated games of a single level. Instances are not thread-safe;
+ * statistics gathered by different threads are combined with {@link LevelStatistics#merge(LevelStatistics)}.
+ *
+ * @author Artem Novak
+ */
+public class LevelStatistics {
+    /**
+     * Key under which obstacles negated by the "resistance" passive ability are counted.
+     */
+    public static final String NEGATED = "negated";
+
+    private final LevelIdentifier level;
+    private final int twoStarThreshold, threeStarThreshold;
+    private final Map<String, Long> obstacles = new LinkedHashMap<>();
+
+    private int games, wins, stalled, twoStars, threeStars;
+    private long turnsPlayed;
+    private int[] turnsLeft = new int[0]; // Histogram of turns left in won games.
+
+    public LevelStatistics(LevelData levelData) {
+        this.level = levelData.getLevelIdentifier();
+        this.twoStarThreshold = levelData.getTwoStarThreshold();
+        this.threeStarThreshold = levelData.getThreeStarThreshold();
+        for (String nameID : levelData.getObstacleWeights().keySet()) obstacles.put(nameID, 0L);
+        obstacles.put(NEGATED, 0L);
+    }
+
+    /**
+     * Starts counting obstacles of a session. Must be called right after the session is constructed.
+     *
+     * @param session session to track
+     */
+    public void track(GameSession session) {
+        session.getObstacleManager().addObstacleListener(e -> obstacles.merge(e.getObstacle() == null ? NEGATED : e.getObstacle().getNameID(), 1L, Long::sum));
+    }
+
+    /**
+     * Records the result of a finished (or abandoned) session.
+     *
+     * @param session tracked session
+     * @param stall true if the game was abandoned because the policy could not act or exceeded its action limit (counts as a loss)
+     */
+    public void record(GameSession session, boolean stall) {
+        games++;
+        turnsPlayed += session.getCountdown().getDedicatedTurns() - session.getCountdown().getTurns();
+        if (stall) stalled++;
+        if (session.getStars() > 0) {
+            wins++;
+            int left = session.getCountdown().getTurns();
+            if (left >= turnsLeft.length) turnsLeft = Arrays.copyOf(turnsLeft, left + 1);
+            turnsLeft[left]++;
+            if (left >= twoStarThreshold) twoStars++;
+            if (left >= threeStarThreshold) threeStars++;
+        }
+    }
+
+    /**
+     * Adds results of another statistics object of the same level to this one.
+     *
+     * @param other statistics to add
+     * @return this object
+     */
+    public LevelStatistics merge(LevelStatistics other) {
+        if (!level.equals(other.level)) throw new IllegalArgumentException("Attempt to merge statistics of different levels");
+        games += other.games;
+        wins += other.wins;
+        stalled += other.stalled;
+        twoStars += other.twoStars;
+        threeStars += other.threeStars;
+        turnsPlayed += other.turnsPlayed;
+        if (other.turnsLeft.length > turnsLeft.length) turnsLeft = Arrays.copyOf(turnsLeft, other.turnsLeft.length);
+        for (int i = 0; i < other.turnsLeft.length; i++) turnsLeft[i] += other.turnsLeft[i];
+        other.obstacles.forEach((nameID, count) -> obstacles.merge(nameID, count, Long::sum));
+        return this;
+    }
+
+    public LevelIdentifier getLevel() {
+        return level;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getStalled() {
+        return stalled;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * @return share of all games that were won with at least the two star threshold of turns left
+     */
+    public double getTwoStarRate() {
+        return games == 0 ? 0 : (double) twoStars / games;
+    }
+
+    /**
+     * @return share of all games that were won with at least the three star threshold of turns left
+     */
+    public double getThreeStarRate() {
+        return games == 0 ? 0 : (double) threeStars / games;
+    }
+
+    /**
+     * @param percentile value from 0 to 100
+     * @return turns left at the given percentile of won games, or -1 if there were no wins
+     */
+    public int getTurnsLeftPercentile(double percentile) {
+        if (wins == 0) return -1;
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * wins));
+        long seen = 0;
+        for (int left = 0; left < turnsLeft.length; left++) {
+            seen += turnsLeft[left];
+            if (seen >= rank) return left;
+        }
+        return turnsLeft.length - 1;
+    }
+
+    /**
+     * @return number of occurrences of every obstacle of the level (and of negated obstacles)
+     */
+    public Map<String, Long> getObstacleCounts() {
+        return obstacles;
+    }
+
+    /**
+     * @return average number of turns made in a game
+     */
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) turnsPlayed / games;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append(String.format("%s level %d: %d games, win rate %.1f%%, two stars %.1f%%, three stars %.1f%% (thresholds %d/%d), stalled %d, %.1f turns per game%n",
+                level.difficulty(), level.index(), games, getWinRate() * 100, getTwoStarRate() * 100, getThreeStarRate() * 100,
+                twoStarThreshold, threeStarThreshold, stalled, getAverageTurns()));
+        if (wins > 0) {
+            str.append(String.format("  turns left in wins: min %d, p10 %d, p25 %d, p50 %d, p75 %d, p90 %d, max %d%n",
+                    getTurnsLeftPercentile(0), getTurnsLeftPercentile(10), getTurnsLeftPercentile(25), getTurnsLeftPercentile(50),
+                    getTurnsLeftPercentile(75), getTurnsLeftPercentile(90), getTurnsLeftPercentile(100)));
+        }
+        str.append("  obstacles:");
+        obstacles.forEach((nameID, count) -> str.append(String.format(" %s %d (%.2f/game)", nameID, count, games == 0 ? 0 : (double) count / games)));
+        return str.append(System.lineSeparator()).toString();
+    }
+}
@@ -0,0 +1,64 @@
+package game.simulation;
+
+import game.GameSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recommends actions for a running session (e.g. for hints) without stalling the thread that updates it.
+ * The position is captured on the calling thread and searched with {@link Expectimax} on a dedicated background thread
+ * within a per-move time budget. The transposition table is kept between requests of the same session.
+ *
+ * @author Artem Novak
+ */
+public class MoveAdvisor implements AutoCloseable {
+    public static final long DEFAULT_TIME_BUDGET = 5_000_000; // 5 ms
+    public static final int MAX_DEPTH = 8;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "move-advisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TranspositionTable table = new TranspositionTable();
+    private final Expectimax search = new Expectimax(table);
+
+    private long timeBudget = DEFAULT_TIME_BUDGET;
+    private GameSession lastSession;
+
+    /**
+     * Requests advice for the current state of the session. Must be called on the thread that updates the session.
+     *
+     * @param session session to advise
+     * @return future that completes on the advisor thread with the advice, or with null if no action is possible
+     */
+    public CompletableFuture<Advice> advise(GameSession session) {
+        SearchPosition position = SearchPosition.of(session);
+        boolean newSession = session != lastSession; // Cached values depend on the level's settings.
+        lastSession = session;
+        long budget = timeBudget;
+        return CompletableFuture.supplyAsync(() -> {
+            if (newSession) table.clear();
+            return search.search(position, MAX_DEPTH, budget);
+        }, executor);
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @param timeBudget time budget of a single request in nanoseconds (positive)
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget <= 0) throw new IllegalArgumentException("Time budget must be positive");
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
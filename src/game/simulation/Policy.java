@@ -0,0 +1,37 @@
+package game.simulation;
+
+import game.GameSession;
+
+import java.util.Random;
+
+/**
+ * Interface of an automated player that makes decisions in a {@link GameSession} that is not rendered.
+ *
+ * @author Artem Novak
+ */
+public interface Policy {
+    /**
+     * Makes a single action (a turn or an ability application) in the session.
+     *
+     * @param session session to act in
+     * @param random random generator of the policy's own decisions (independent of the session's random generator)
+     * @return true if an action was made, false if the policy could not find any
+     */
+    boolean act(GameSession session, Random random);
+
+    /**
+     * Creates a policy by its name.
+     *
+     * @param name "random", "greedy" or "expectimax"
+     * @param depth search depth, used only by "expectimax"
+     * @return new policy instance
+     */
+    static Policy byName(String name, int depth) {
+        return switch (name) {
+            case "random" -> new RandomPolicy();
+            case "greedy" -> new GreedyPolicy();
+            case "expectimax" -> new ExpectimaxPolicy(depth);
+            default -> throw new IllegalArgumentException("Unknown policy \"" + name + "\"");
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package game.simulation;
+
+import game.GameModifier;
+import game.GameSession;
+import game.abilities.Attack;
+import game.gameobjects.BitBoard;
+import game.gameobjects.BoardCell;
+
+import java.util.Random;
+
+/**
+ * Policy that uniformly chooses between all legal turns and the attack (when it is available) with a random tile.
+ * Is the baseline for difficulty estimation.
+ *
+ * @author Artem Novak
+ */
+public class RandomPolicy implements Policy {
+    private final int[] actions = new int[5];
+    private final int[] candidates = new int[BitBoard.MAX_SIZE * BitBoard.MAX_SIZE];
+
+    @Override
+    public boolean act(GameSession session, Random random) {
+        BitBoard model = session.getBoard().getModel();
+        int count = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            if (model.canMove(direction)) actions[count++] = direction;
+        }
+        int attackTiles = 0;
+        Attack attack = session.getAbilityManager().getAttack();
+        if (attack.getState() == GameModifier.APPLICABLE) {
+            for (int i = 0; i < model.getCellCount(); i++) {
+                if (!model.isEmpty(i) && !model.isLocked(i)) candidates[attackTiles++] = i;
+            }
+            if (attackTiles > 0) actions[count++] = -1;
+        }
+        if (count == 0) return false;
+
+        int action = actions[random.nextInt(count)];
+        if (action == -1) {
+            int index = candidates[random.nextInt(attackTiles)];
+            return session.attack(new BoardCell(index / model.getCols(), index % model.getCols()));
+        }
+        return session.move(action);
+    }
+}
@@ -0,0 +1,65 @@
+package game.simulation;
+
+import game.GameModifier;
+import game.GameSession;
+import game.gameobjects.BitBoard;
+import game.gameobjects.Entity;
+import game.obstacles.ObstacleManager;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of everything {@link Expectimax} needs to know about a session.
+ * It is taken on the game thread, so that the search can run on any other thread.
+ *
+ * @param board copy of the board model
+ * @param baseTileLevel level of most newly generated tiles
+ * @param attackAvailable true if the attack can be made right now
+ * @param baseTileDamage damage of the level 1 tile
+ * @param healthToGo damage (or healing, in repair mode) needed to win
+ * @param tolerance damage (or healing) that is ignored by the entity
+ * @param turnsLeft turns left until the level is lost
+ * @param attackCooldown turns the attack stays unavailable after it is made
+ * @param minObstacleInterval minimal interval in turns between two obstacles
+ * @param maxObstacleInterval maximal interval in turns between two obstacles
+ * @param turnsElapsed turns elapsed since the latest obstacle
+ * @param obstacleWeights weights of obstacles that change the board, indexed by {@link Expectimax#GARBAGE} and other obstacle kinds
+ * @param totalObstacleWeight sum of weights of all obstacles of the level
+ * @author Artem Novak
+ */
+public record SearchPosition(BitBoard board, int baseTileLevel, boolean attackAvailable, int baseTileDamage, long healthToGo, long tolerance,
+                             int turnsLeft, int attackCooldown,
+                             int minObstacleInterval, int maxObstacleInterval, int turnsElapsed, int[] obstacleWeights, int totalObstacleWeight) {
+
+    /**
+     * Takes a snapshot of the session. Must be called on the thread that updates the session.
+     *
+     * @param session session to take the snapshot of
+     * @return snapshot
+     */
+    public static SearchPosition of(GameSession session) {
+        Entity entity = session.getEntity();
+        ObstacleManager obstacleManager = session.getObstacleManager();
+        int[] weights = new int[Expectimax.BOARD_OBSTACLES];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : obstacleManager.getObstacleWeights().entrySet()) {
+            int kind = Expectimax.obstacleKind(entry.getKey());
+            if (kind >= 0) weights[kind] += entry.getValue();
+            total += entry.getValue();
+        }
+        return new SearchPosition(
+                new BitBoard(session.getBoard().getModel()),
+                session.getBoard().getBaseTileLevel(),
+                session.getAbilityManager().getAttack().getState() == GameModifier.APPLICABLE && !session.getBoard().isLocked(),
+                session.getBaseTileDamage(),
+                session.getGameMode() == GameSession.GAME_MODE_ATTACK ? entity.getHealth() : entity.getMaxHealth() - entity.getHealth(),
+                session.getLevelData().getEntityTolerance(),
+                session.getCountdown().getTurns(),
+                session.getAbilityManager().getAttack().getCooldown(),
+                obstacleManager.getMinInterval(),
+                obstacleManager.getMaxInterval(),
+                obstacleManager.getTurnsElapsed(),
+                weights,
+                total);
+    }
+}
@@ -0,0 +1,79 @@
+package game.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of position values found by {@link Expectimax}.
+ * Every entry keeps the value and the depth it was searched to; a stored value is reused
+ * only for searches that are not deeper. Colliding entries are always replaced.
+ * <br>
+ * Instances are not thread-safe and are meant to be owned by a single search thread.
+ *
+ * @author Artem Novak
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_SIZE_LOG = 16;
+
+    private final long[] keys;
+    private final double[] values;
+    private final byte[] depths; // 0 marks an empty entry.
+    private final int mask;
+
+    private long probes, hits;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_LOG);
+    }
+
+    /**
+     * @param sizeLog binary logarithm of the number of entries
+     */
+    public TranspositionTable(int sizeLog) {
+        if (sizeLog < 1 || sizeLog > 26) throw new IllegalArgumentException("Unsupported table size 2^" + sizeLog);
+        keys = new long[1 << sizeLog];
+        values = new double[1 << sizeLog];
+        depths = new byte[1 << sizeLog];
+        mask = (1 << sizeLog) - 1;
+    }
+
+    /**
+     * @param key position key
+     * @param depth depth the value is needed for
+     * @return stored value, or {@link Double#NaN} if there is no value searched at least as deep
+     */
+    public double get(long key, int depth) {
+        probes++;
+        int index = (int) key & mask;
+        if (depths[index] >= depth && keys[index] == key) {
+            hits++;
+            return values[index];
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * @param key position key
+     * @param depth depth the value was searched to (positive)
+     * @param value value of the position
+     */
+    public void put(long key, int depth, double value) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        values[index] = value;
+        depths[index] = (byte) depth;
+    }
+
+    public void clear() {
+        Arrays.fill(depths, (byte) 0);
+        probes = 0;
+        hits = 0;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+}
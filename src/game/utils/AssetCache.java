@@ -0,0 +1,129 @@
+package game.utils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of derived images (decoded and scaled textures, color overlay variants, pre-rendered board backgrounds),
+ * shared by all {@link GamePanelGraphics} instances, so that starting or restarting a level does not decode and scale the same images again.
+ * <br>
+ * Entries are evicted in least-recently-used order once their total size exceeds the budget. Cached images are shared and must not be modified.
+ * All methods are thread-safe; images are loaded outside the lock, so two threads that miss the same key at once may both load it.
+ *
+ * @author Artem Novak
+ */
+public class AssetCache {
+    public static final long DEFAULT_BUDGET = 64L << 20;
+
+    private static final AssetCache INSTANCE = new AssetCache(DEFAULT_BUDGET);
+
+    /**
+     * Key of a cached image.
+     *
+     * @param source resource path of the source image (which also determines the game mode of tile textures),
+     *               or a description of a generated image
+     * @param width width of the image
+     * @param height height of the image
+     * @param variant variant of the image derived from the source (e.g. a color overlay), or null for the scaled source itself
+     */
+    public record Key(String source, int width, int height, String variant) {
+        public Key(String source, int width, int height) {
+            this(source, width, height, null);
+        }
+    }
+
+    /**
+     * Loader of an image that is not cached yet.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        BufferedImage load() throws IOException;
+    }
+
+    private final long budget;
+    private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+    private long hits, misses, evictions;
+
+    /**
+     * @param budget maximal total size of cached images in bytes
+     */
+    public AssetCache(long budget) {
+        if (budget <= 0) throw new IllegalArgumentException("Cache budget must be positive");
+        this.budget = budget;
+    }
+
+    /**
+     * @return cache shared by the whole process
+     */
+    public static AssetCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets a cached image or loads and caches it.
+     *
+     * @param key key of the image
+     * @param loader loader used if the image is not cached
+     * @return cached or loaded image
+     * @throws IOException if the loader fails
+     */
+    public BufferedImage get(Key key, Loader loader) throws IOException {
+        synchronized (this) {
+            BufferedImage image = images.get(key);
+            if (image != null) {
+                hits++;
+                return image;
+            }
+            misses++;
+        }
+        BufferedImage image = loader.load();
+        synchronized (this) {
+            BufferedImage cached = images.putIfAbsent(key, image);
+            if (cached != null) return cached;
+            size += sizeOf(image);
+            evict();
+        }
+        return image;
+    }
+
+    /**
+     * Removes all cached images.
+     */
+    public synchronized void clear() {
+        images.clear();
+        size = 0;
+    }
+
+    /**
+     * @return total size of cached images in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d images, %.1f MB of %.1f MB, %d hits, %d misses, %d evictions",
+                images.size(), size / 1048576.0, budget / 1048576.0, hits, misses, evictions);
+    }
+
+    /**
+     * Evicts least recently used images until the cache fits the budget (the most recent image is kept even if it alone exceeds it).
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, BufferedImage>> iterator = images.entrySet().iterator();
+        while (size > budget && images.size() > 1) {
+            size -= sizeOf(iterator.next().getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long)image.getWidth() * image.getHeight() * Math.max(1, image.getColorModel().getPixelSize() / 8);
+    }
+}
@@ -0,0 +1,214 @@
+package game.utils;
+
+import models.App;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of images derived from image resources (e.g. scaled textures and icons), which makes them available
+ * after a restart without decoding and scaling the sources again.
+ * <br>
+ * Images are stored in a raw format (a header followed by the ARGB pixels) in the player data directory and read through memory-mapped I/O.
+ * File names contain hashes of the source's path and content, so a derived image is never taken from a different version of its source;
+ * stale images of a changed source are deleted when the new version is first stored.
+ * <br>
+ * The cache is an optimization only: if the directory cannot be read or written, images are simply loaded.
+ * All methods are thread-safe.
+ *
+ * @author Artem Novak
+ */
+public class DiskImageCache {
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "cache", "images");
+
+    private static final int MAGIC = 0x4E504943; // "NPIC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final String EXTENSION = ".raw";
+
+    private static final DiskImageCache INSTANCE = new DiskImageCache(DEFAULT_DIRECTORY);
+
+    private final Path directory;
+    // Hashes of the sources' content, computed once per process
+    private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+    // Sources whose stale images have already been deleted
+    private final Set<String> cleanedSources = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), failures = new AtomicLong();
+    private volatile boolean enabled = true;
+
+    /**
+     * @param directory directory for stored images, created when the first image is stored
+     */
+    public DiskImageCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return cache in the default directory, shared by the whole process
+     */
+    public static DiskImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reads a stored image derived from a resource, or loads and stores it.
+     *
+     * @param source resource path of the source image
+     * @param width width of the derived image
+     * @param height height of the derived image
+     * @param variant name of the derivation (letters and digits only), distinguishing images of the same size derived differently
+     * @param loader loader used if the image is not stored, which must derive it from the current content of the source
+     * @return stored or loaded image, which is the caller's to modify
+     * @throws IOException if the loader fails
+     */
+    public BufferedImage get(String source, int width, int height, String variant, AssetCache.Loader loader) throws IOException {
+        if (!variant.chars().allMatch(Character::isLetterOrDigit)) throw new IllegalArgumentException("Variant must consist of letters and digits");
+        Path file = enabled ? fileOf(source, width, height, variant) : null;
+        if (file != null) {
+            BufferedImage image = read(file, width, height);
+            if (image != null) {
+                hits.incrementAndGet();
+                return image;
+            }
+        }
+        misses.incrementAndGet();
+        BufferedImage image = loader.load();
+        if (file != null && image.getWidth() == width && image.getHeight() == height) write(file, source, image);
+        return image;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d hits, %d misses, %d failures%s", directory, hits.get(), misses.get(), failures.get(), enabled ? "" : " (disabled)");
+    }
+
+    /**
+     * @return file of the image, or null if the source's content cannot be hashed
+     */
+    private Path fileOf(String source, int width, int height, String variant) {
+        String contentHash = contentHashes.computeIfAbsent(source, DiskImageCache::hashContent);
+        if (contentHash.isEmpty()) return null;
+        return directory.resolve(hash(source.getBytes()) + "-" + contentHash + "-" + width + "x" + height + "-" + variant + EXTENSION);
+    }
+
+    /**
+     * @return image read from the file, or null if it does not exist or is invalid
+     */
+    private BufferedImage read(Path file, int width, int height) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = HEADER_SIZE + (long)width * height * Integer.BYTES;
+            if (channel.size() != size) throw new IOException("Unexpected size of " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != width || buffer.getInt() != height) {
+                throw new IOException("Unexpected header of " + file);
+            }
+            int[] pixels = new int[width * height];
+            buffer.asIntBuffer().get(pixels);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            // Copying into the raster keeps the image eligible for acceleration, unlike taking its data buffer
+            image.getRaster().setDataElements(0, 0, width, height, pixels);
+            return image;
+        }
+        catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException ignored) {}
+            return null;
+        }
+    }
+
+    /**
+     * Writes the image into a temporary file and moves it into place, so readers never see a partially written image.
+     */
+    private void write(Path file, String source, BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            deleteStale(file, source);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + width * height * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+            IntBuffer pixels = buffer.asIntBuffer();
+            pixels.put(image.getRGB(0, 0, width, height, null, 0, width));
+            buffer.rewind();
+            temporary = Files.createTempFile(directory, "image", ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                }
+                catch (IOException ignored) {}
+            }
+            // The directory is not writable, so there is no point in hashing sources for it any longer
+            if (e instanceof AccessDeniedException || e instanceof FileSystemException && !Files.isWritable(directory)) {
+                enabled = false;
+                System.out.println("Image cache disabled: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes images derived from previous versions of the source.
+     */
+    private void deleteStale(Path file, String source) throws IOException {
+        if (!cleanedSources.add(source)) return;
+        String name = file.getFileName().toString();
+        String sourcePrefix = name.substring(0, name.indexOf('-') + 1);
+        String versionPrefix = name.substring(0, name.indexOf('-', sourcePrefix.length()) + 1);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stale : (Iterable<Path>)files::iterator) {
+                String staleName = stale.getFileName().toString();
+                if (staleName.startsWith(sourcePrefix) && !staleName.startsWith(versionPrefix)) Files.deleteIfExists(stale);
+            }
+        }
+    }
+
+    /**
+     * @return hash of the resource's content, or an empty string if it cannot be read
+     */
+    private static String hashContent(String source) {
+        try (InputStream stream = App.class.getResourceAsStream(source)) {
+            return stream == null ? "" : hash(stream.readAllBytes());
+        }
+        catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * @return first 64 bits of the SHA-256 hash of data as hexadecimal digits
+     */
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data), 0, Long.BYTES);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
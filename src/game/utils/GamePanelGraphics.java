@@ -1,9 +1,10 @@
 package game.utils;
 
-import game.GamePanel;
+import game.GameSession;
+import game.rendering.DirtyRegion;
+import misc.AssetManager;
 import models.App;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -25,74 +26,182 @@ public class GamePanelGraphics {
     public static final int ENTITY_WIDTH = 480;
     public static final int ENTITY_HEIGHT = 250;
     public static final int ENTITY_BOARD_DISTANCE = 40;
-    
+
+    // Handles of named textures
+    public static final int TEXTURE_BOARD_BG = 0, TEXTURE_LOCKED_OVERLAY = 1, TEXTURE_ENTITY = 2, TEXTURE_ENTITY_DAMAGED = 3, TEXTURE_ENTITY_HEALED = 4;
+    private static final String[] TEXTURE_NAMES = {"boardBG", "lockedOverlay", "entity", "entityDamaged", "entityHealed"};
+    // Numbers of indexed textures
+    public static final int TILE_LEVELS = 12, EXPLOSION_FRAMES = 4;
+
+    // Handles of palette colors
+    public static final int COLOR_TEXT = 0, COLOR_HIGHLIGHT = 1, COLOR_DARKEN = 2, COLOR_BOARD_BG = 3, COLOR_BOARD_CELL_BG = 4, COLOR_DAMAGE_OVERLAY = 5, COLOR_HEAL_OVERLAY = 6;
+    private static final String[] COLOR_NAMES = {"textColor", "highlight", "darken", "boardBG", "boardCellBG", "damageOverlay", "healOverlay"};
+
+    // Whether images are converted to the format of the screen (only disabled to measure the difference)
+    private static volatile boolean compatibleImages = true;
+    private static GraphicsConfiguration screenConfiguration;
+
     // Board
     private final int tileSize;
     private final int tileOffset;
     private final int tilePulseOffset;
 
-    private final HashMap<String, Color> palette = new HashMap<>();
+    private final Color[] palette = new Color[COLOR_NAMES.length];
 
+    private final boolean headless;
     private final Font font;
-    private HashMap<String, BufferedImage> textures = new HashMap<>();
+    private final BufferedImage[] textures = new BufferedImage[TEXTURE_NAMES.length];
+    private final BufferedImage[] tileTextures = new BufferedImage[TILE_LEVELS];
+    private final BufferedImage[] explosionTextures = new BufferedImage[EXPLOSION_FRAMES];
+    // All textures by NameID, only for the String-keyed lookup
+    private final HashMap<String, BufferedImage> texturesByName = new HashMap<>();
+    private final DirtyRegion dirtyRegion = new DirtyRegion();
 
     /**
-     * Initializes (but not loads!) the graphics manager.
+     * Initializes the graphics manager and loads all textures.
      *
      * @param tileSize size of one tile in pixels
      * @param tileOffset offset between tiles (and between a tile and the board edge) in pixels
      * @param boardRows number of rows (height)
      * @param boardCols number of columns (width)
-     * @param gameMode {@link GamePanel#GAME_MODE_ATTACK} or {@link GamePanel#GAME_MODE_REPAIR}
+     * @param gameMode {@link GameSession#GAME_MODE_ATTACK} or {@link GameSession#GAME_MODE_REPAIR}
      * @param entityIndex index of the entity texture
      */
     public GamePanelGraphics(int tileSize, int tileOffset, int boardRows, int boardCols, int gameMode, int entityIndex) throws IOException {
-        font = App.lexenDeca.deriveFont(Font.PLAIN, 25);
+        this(tileSize, tileOffset, false);
+
+        // Loading
+        loadBoard(boardRows, boardCols, gameMode);
+        loadEntity(entityIndex);
+    }
+
+    private GamePanelGraphics(int tileSize, int tileOffset, boolean headless) {
+        this.headless = headless;
+        font = headless ? null : App.lexenDeca.deriveFont(Font.PLAIN, 25);
 
         // Palette
-        palette.put("textColor", Color.white);
-        palette.put("highlight", new Color(255, 255, 255, 64));
-        palette.put("darken", new Color(0, 0, 0, 128));
-        palette.put("boardBG", new Color(23,62,31));
-        palette.put("boardCellBG", new Color(42,113,56));
-        palette.put("damageOverlay", new Color(156, 31, 26, 128));
-        palette.put("healOverlay", new Color(112, 212, 40, 128));
+        palette[COLOR_TEXT] = Color.white;
+        palette[COLOR_HIGHLIGHT] = new Color(255, 255, 255, 64);
+        palette[COLOR_DARKEN] = new Color(0, 0, 0, 128);
+        palette[COLOR_BOARD_BG] = new Color(23,62,31);
+        palette[COLOR_BOARD_CELL_BG] = new Color(42,113,56);
+        palette[COLOR_DAMAGE_OVERLAY] = new Color(156, 31, 26, 128);
+        palette[COLOR_HEAL_OVERLAY] = new Color(112, 212, 40, 128);
 
         // Sizes
         this.tileSize = tileSize;
         this.tileOffset = tileOffset;
         tilePulseOffset = tileOffset / 2;
+    }
 
-        // Loading
-        loadBoard(boardRows, boardCols, gameMode);
-        loadEntity(entityIndex);
+    /**
+     * Creates a graphics manager for a session that is never rendered: it only holds sizes and the palette,
+     * and loads no textures or fonts.
+     *
+     * @param tileSize size of one tile in pixels
+     * @param tileOffset offset between tiles (and between a tile and the board edge) in pixels
+     * @return headless graphics manager
+     */
+    public static GamePanelGraphics createHeadless(int tileSize, int tileOffset) {
+        return new GamePanelGraphics(tileSize, tileOffset, true);
+    }
+
+    /**
+     * Returns color from palette by given handle.
+     *
+     * @param handle one of the COLOR_ constants
+     * @return corresponding color from palette
+     */
+    public Color getColor(int handle) {
+        return palette[handle];
     }
 
     /**
      * Returns color from palette by given NameID.
+     * <br>
+     * Resolves the NameID on every call, so code that runs every frame should use {@link GamePanelGraphics#getColor(int)} instead.
      *
      * @param nameID color NameID
      * @return corresponding color from palette
      */
     public Color getColor(String nameID) {
-        if (!palette.containsKey(nameID)) throw new IllegalArgumentException("Unknown color " + nameID);
-        return palette.get(nameID);
+        return getColor(getColorHandle(nameID));
+    }
+
+    /**
+     * Resolves a color NameID to its handle.
+     *
+     * @param nameID color NameID
+     * @return handle for {@link GamePanelGraphics#getColor(int)}
+     */
+    public static int getColorHandle(String nameID) {
+        for (int i = 0; i < COLOR_NAMES.length; i++) if (COLOR_NAMES[i].equals(nameID)) return i;
+        throw new IllegalArgumentException("Unknown color " + nameID);
     }
 
     /**
-     * Returns texture by the given NameID (coincides with texture filename).
+     * Returns named texture by given handle.
+     *
+     * @param handle one of the TEXTURE_ constants
+     * @return BufferedImage of the texture
+     */
+    public BufferedImage getTexture(int handle) {
+        return textures[handle];
+    }
+
+    /**
+     * Returns texture of the tile of given level.
+     *
+     * @param level tile level
+     * @return BufferedImage of the texture
+     */
+    public BufferedImage getTileTexture(int level) {
+        return tileTextures[level];
+    }
+
+    /**
+     * Returns a frame of the explosion animation.
+     *
+     * @param frame frame index, from 0 to {@link GamePanelGraphics#EXPLOSION_FRAMES} - 1
+     * @return BufferedImage of the frame
+     */
+    public BufferedImage getExplosionTexture(int frame) {
+        return explosionTextures[frame];
+    }
+
+    /**
+     * Returns texture by the given NameID (coincides with texture filename), including tile textures ("tile" + level)
+     * and explosion frames ("explosion" + frame).
+     * <br>
+     * Hashes the NameID on every call, so code that runs every frame should use the handle-based methods instead.
      *
      * @param nameID texture NameID
      * @return BufferedImage of the texture
      */
     public BufferedImage getTexture(String nameID) {
-        if (!textures.containsKey(nameID)) throw new IllegalArgumentException("Unknown texture " + nameID);
-        return textures.get(nameID);
+        if (!texturesByName.containsKey(nameID)) throw new IllegalArgumentException("Unknown texture " + nameID);
+        return texturesByName.get(nameID);
+    }
+
+    /**
+     * Resolves a named texture NameID to its handle (tile textures and explosion frames are indexed instead).
+     *
+     * @param nameID texture NameID
+     * @return handle for {@link GamePanelGraphics#getTexture(int)}
+     */
+    public static int getTextureHandle(String nameID) {
+        for (int i = 0; i < TEXTURE_NAMES.length; i++) if (TEXTURE_NAMES[i].equals(nameID)) return i;
+        throw new IllegalArgumentException("Unknown texture " + nameID);
+    }
+
+    private void putTexture(int handle, BufferedImage image) {
+        textures[handle] = image;
+        texturesByName.put(TEXTURE_NAMES[handle], image);
     }
 
     private void loadBoard(int boardRows, int boardCols, int gameMode) throws IOException{
         String tileFolderPath;
-        if (gameMode == GamePanel.GAME_MODE_ATTACK) {
+        if (gameMode == GameSession.GAME_MODE_ATTACK) {
             tileFolderPath = "/images/tiles_attack/";
         }
         else {
@@ -100,38 +209,48 @@ public class GamePanelGraphics {
         }
 
         // Loading tiles
-        for (int i = 0; i <= 11; i++) {
-            BufferedImage image = getScaledImage(getImage(tileFolderPath+"tile"+i+".png"), tileSize, tileSize);
-            textures.put("tile"+i, image);
+        for (int i = 0; i < TILE_LEVELS; i++) {
+            BufferedImage image = getCachedImage(tileFolderPath+"tile"+i+".png", tileSize, tileSize);
+            tileTextures[i] = image;
+            texturesByName.put("tile"+i, image);
         }
-        textures.put("lockedOverlay", getScaledImage(getImage(tileFolderPath+"lockedOverlay.png"), tileSize, tileSize));
+        putTexture(TEXTURE_LOCKED_OVERLAY, getCachedImage(tileFolderPath+"lockedOverlay.png", tileSize, tileSize));
 
         // Loading the actual board
         int boardWidth = tileSize * boardCols + tileOffset * (boardCols + 1);
         int boardHeight = tileSize * boardRows + tileOffset * (boardRows + 1);
-        BufferedImage board = new BufferedImage(boardWidth, boardHeight, BufferedImage.TYPE_INT_ARGB);
+        AssetCache.Key boardKey = new AssetCache.Key("board" + boardRows + "x" + boardCols + "/" + tileOffset, boardWidth, boardHeight);
+        BufferedImage board = AssetCache.getInstance().get(boardKey, () -> generateBoard(boardRows, boardCols, boardWidth, boardHeight));
+        putTexture(TEXTURE_BOARD_BG, board);
+    }
+
+    private BufferedImage generateBoard(int boardRows, int boardCols, int boardWidth, int boardHeight) {
+        BufferedImage board = createCompatibleImage(boardWidth, boardHeight, Transparency.OPAQUE);
         Graphics2D g2d = (Graphics2D) board.getGraphics();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(palette.get("boardBG"));
+        g2d.setColor(palette[COLOR_BOARD_BG]);
         g2d.fillRect(0, 0, boardWidth, boardHeight);
-        g2d.setColor(palette.get("boardCellBG"));
+        g2d.setColor(palette[COLOR_BOARD_CELL_BG]);
         for (int i = 0; i < boardRows; i++) {
             for (int j = 0; j < boardCols; j++) {
                 g2d.fillRect(tileOffset + j * (tileSize + tileOffset), tileOffset + i * (tileSize + tileOffset), tileSize, tileSize);
             }
         }
         g2d.dispose();
-        textures.put("boardBG", board);
+        return board;
     }
 
     private void loadEntity(int entityIndex) throws IOException {
-        BufferedImage entity = getScaledImage(getImage("/images/entities/entity" + entityIndex + ".png"), ENTITY_WIDTH, ENTITY_HEIGHT);
-        textures.put("entity", entity);
-        textures.put("entityDamaged", addColorOverlay(entity, palette.get("damageOverlay")));
-        textures.put("entityHealed", addColorOverlay(entity, palette.get("healOverlay")));
+        String entityPath = "/images/entities/entity" + entityIndex + ".png";
+        BufferedImage entity = getCachedImage(entityPath, ENTITY_WIDTH, ENTITY_HEIGHT);
+        putTexture(TEXTURE_ENTITY, entity);
+        putTexture(TEXTURE_ENTITY_DAMAGED, getCachedOverlay(entityPath, entity, palette[COLOR_DAMAGE_OVERLAY]));
+        putTexture(TEXTURE_ENTITY_HEALED, getCachedOverlay(entityPath, entity, palette[COLOR_HEAL_OVERLAY]));
 
-        for (int i = 0; i < 4; i++) {
-            textures.put("explosion"+i, getScaledImage(getImage("/images/entities/explosion" + i + ".png"), ENTITY_HEIGHT, ENTITY_HEIGHT));
+        for (int i = 0; i < EXPLOSION_FRAMES; i++) {
+            BufferedImage image = getCachedImage("/images/entities/explosion" + i + ".png", ENTITY_HEIGHT, ENTITY_HEIGHT);
+            explosionTextures[i] = image;
+            texturesByName.put("explosion"+i, image);
         }
     }
 
@@ -147,10 +266,24 @@ public class GamePanelGraphics {
         return tilePulseOffset;
     }
 
+    /**
+     * @return true if this graphics manager has no textures or fonts loaded
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
     public Font getFont() {
         return font;
     }
 
+    /**
+     * @return region of the level's scene changed since the last rendered frame, which game objects of the level report their changes to
+     */
+    public DirtyRegion getDirtyRegion() {
+        return dirtyRegion;
+    }
+
     /**
      * Scales BufferedImage, providing higher-quality downscaling.
      *
@@ -179,16 +312,77 @@ public class GamePanelGraphics {
     }
 
     /**
-     * Reads {@link BufferedImage} from a filepath.
+     * Scales an image with the area averaging algorithm of {@link Image#getScaledInstance(int, int, int)}, which gives smoother results
+     * than {@link GamePanelGraphics#getScaledImage(BufferedImage, int, int)} but is much slower.
+     *
+     * @param image original image
+     * @param width width of the scaled instance
+     * @param height height of the scaled instance
+     * @return scaled instance of the image
+     */
+    public static BufferedImage getSmoothScaledImage(BufferedImage image, int width, int height) {
+        BufferedImage scaledImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = scaledImage.createGraphics();
+        // The scaled instance is produced from an in-memory image, so it is drawn completely without waiting for an observer
+        g2d.drawImage(image.getScaledInstance(width, height, Image.SCALE_SMOOTH), 0, 0, null);
+        g2d.dispose();
+        return scaledImage;
+    }
+
+    /**
+     * Reads an image and scales it (see {@link GamePanelGraphics#getScaledImage(BufferedImage, int, int)}),
+     * or takes the result from {@link AssetCache} if the image has already been scaled to this size.
      *
      * @param filepath path to the image
-     * @return {@link BufferedImage} that was loaded
+     * @param width width of the scaled instance
+     * @param height height of the scaled instance
+     * @return shared scaled instance of the image, which must not be modified
+     * @throws IOException if fails to load the image
+     */
+    public static BufferedImage getCachedImage(String filepath, int width, int height) throws IOException {
+        return AssetCache.getInstance().get(new AssetCache.Key(filepath, width, height), () -> toCompatibleImage(
+                DiskImageCache.getInstance().get(filepath, width, height, "scaled", () -> getScaledImage(getImage(filepath), width, height))));
+    }
+
+    /**
+     * Reads an image and scales it with {@link Image#SCALE_SMOOTH} (see {@link GamePanelGraphics#getSmoothScaledImage(BufferedImage, int, int)}),
+     * or takes the result from {@link AssetCache} or {@link DiskImageCache} if the image has already been scaled to this size.
+     *
+     * @param filepath path to the image
+     * @param width width of the scaled instance
+     * @param height height of the scaled instance
+     * @return shared scaled instance of the image, which must not be modified
+     * @throws IOException if fails to load the image
+     */
+    public static BufferedImage getCachedSmoothImage(String filepath, int width, int height) throws IOException {
+        return AssetCache.getInstance().get(new AssetCache.Key(filepath, width, height, "smooth"), () -> toCompatibleImage(
+                DiskImageCache.getInstance().get(filepath, width, height, "smooth", () -> getSmoothScaledImage(getImage(filepath), width, height))));
+    }
+
+    /**
+     * Adds colored overlay to a scaled image (see {@link GamePanelGraphics#addColorOverlay(BufferedImage, Color)}),
+     * or takes the result from {@link AssetCache} if the overlay has already been added.
+     *
+     * @param filepath path to the source image
+     * @param image scaled image returned by {@link GamePanelGraphics#getCachedImage(String, int, int)} for that path
+     * @param color color (possibly semi-transparent)
+     * @return shared image with added overlay, which must not be modified
+     * @throws IOException never, as the overlay is generated from a loaded image
+     */
+    public static BufferedImage getCachedOverlay(String filepath, BufferedImage image, Color color) throws IOException {
+        AssetCache.Key key = new AssetCache.Key(filepath, image.getWidth(), image.getHeight(), "overlay" + Integer.toHexString(color.getRGB()));
+        return AssetCache.getInstance().get(key, () -> addColorOverlay(image, color));
+    }
+
+    /**
+     * Reads {@link BufferedImage} from a filepath, waiting for it if it is being preloaded by {@link AssetManager}.
+     *
+     * @param filepath path to the image
+     * @return shared {@link BufferedImage} that was loaded, which must not be modified
      * @throws IOException if fails to load the image
      */
     public static BufferedImage getImage(String filepath) throws IOException {
-        BufferedImage image = ImageIO.read(App.class.getResource(filepath));
-        if (image == null) throw new IOException("Failed to load image from " + filepath);
-        return image;
+        return AssetManager.getImage(filepath);
     }
 
     /**
@@ -199,7 +393,7 @@ public class GamePanelGraphics {
      * @return {@link BufferedImage} with added overlay
      */
     public static BufferedImage addColorOverlay(BufferedImage image, Color color) {
-        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        BufferedImage result = createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
         Graphics2D g2d = (Graphics2D) result.getGraphics();
         g2d.drawImage(image, 0, 0, null);
         g2d.setColor(color);
@@ -208,4 +402,60 @@ public class GamePanelGraphics {
         g2d.dispose();
         return result;
     }
+
+    /**
+     * Creates an image in the format of the screen, which Java2D can cache in video memory and blit without conversion.
+     * Without a screen (in headless runs), creates an image with premultiplied alpha, which is still blended without conversion.
+     *
+     * @param width width of the image
+     * @param height height of the image
+     * @param transparency {@link Transparency#OPAQUE}, {@link Transparency#BITMASK} or {@link Transparency#TRANSLUCENT}
+     * @return new blank image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (!compatibleImages) return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        GraphicsConfiguration configuration = getScreenConfiguration();
+        if (configuration != null) return configuration.createCompatibleImage(width, height, transparency);
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Converts an image to the translucent format of {@link GamePanelGraphics#createCompatibleImage(int, int, int)}.
+     *
+     * @param image image to convert
+     * @return converted copy of the image, or the image itself if it is already in that format
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (!compatibleImages) return image;
+        GraphicsConfiguration configuration = getScreenConfiguration();
+        boolean compatible = configuration == null ? image.getType() == BufferedImage.TYPE_INT_ARGB_PRE
+                : image.getType() != BufferedImage.TYPE_CUSTOM && image.getColorModel().equals(configuration.getColorModel(Transparency.TRANSLUCENT));
+        if (compatible) return image;
+        BufferedImage result = createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g2d = result.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return result;
+    }
+
+    /**
+     * Enables or disables conversion of images to the format of the screen (enabled by default).
+     * Only affects images loaded afterwards, which includes images in {@link AssetCache} only if it is cleared.
+     *
+     * @param enabled false to keep images in the formats they are loaded or generated in
+     */
+    public static void setCompatibleImages(boolean enabled) {
+        compatibleImages = enabled;
+    }
+
+    /**
+     * @return configuration of the default screen, or null if there is no screen
+     */
+    private static synchronized GraphicsConfiguration getScreenConfiguration() {
+        if (screenConfiguration == null && !GraphicsEnvironment.isHeadless()) {
+            screenConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        return screenConfiguration;
+    }
 }
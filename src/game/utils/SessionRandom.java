@@ -0,0 +1,89 @@
+package game.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random number service of a single game session. All randomness of a session comes from one seed, which is split into
+ * independent streams, one per purpose:
+ * <ul>
+ *     <li>spawns: positions and levels of new tiles</li>
+ *     <li>obstacles: whether and which obstacle is triggered, and the cells it affects</li>
+ *     <li>abilities: random outcomes of abilities</li>
+ *     <li>cosmetics: visual effects that do not affect the game (e.g. particle positions)</li>
+ * </ul>
+ * Since each stream is seeded from the session seed and its own index only, the number of values drawn from one stream never shifts
+ * another: a session can be reproduced from its seed (e.g. to replay it or to reproduce a bug), and rendering a session
+ * with particles yields the same game as playing it headless.
+ * <br>
+ * Like the streams themselves, the service is confined to the thread of its session.
+ *
+ * @author Artem Novak
+ */
+public class SessionRandom {
+    private static final long STREAM_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final WeightedRandom spawns;
+    private final WeightedRandom obstacles;
+    private final WeightedRandom abilities;
+    private final WeightedRandom cosmetics;
+
+    /**
+     * Creates a service with a random seed.
+     */
+    public SessionRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a service whose streams are fully determined by the seed.
+     *
+     * @param seed session seed
+     */
+    public SessionRandom(long seed) {
+        this.seed = seed;
+        this.spawns = stream(0);
+        this.obstacles = stream(1);
+        this.abilities = stream(2);
+        this.cosmetics = stream(3);
+    }
+
+    private WeightedRandom stream(int index) {
+        return new WeightedRandom(WeightedRandom.mix(seed + (index + 1) * STREAM_GAMMA));
+    }
+
+    /**
+     * @return seed the session's randomness is derived from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return stream for positions and levels of new tiles
+     */
+    public WeightedRandom getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * @return stream for obstacle triggering, selection and targeting
+     */
+    public WeightedRandom getObstacles() {
+        return obstacles;
+    }
+
+    /**
+     * @return stream for random outcomes of abilities
+     */
+    public WeightedRandom getAbilities() {
+        return abilities;
+    }
+
+    /**
+     * @return stream for visual effects that do not affect the game
+     */
+    public WeightedRandom getCosmetics() {
+        return cosmetics;
+    }
+}
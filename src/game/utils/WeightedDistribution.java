@@ -0,0 +1,160 @@
+package game.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted distribution over a fixed list of outcomes, sampled in constant time by the alias method (Vose's variant).
+ * <br>
+ * The alias tables are primitive arrays built in linear time, and sampling draws a single random number without allocating anything.
+ * Weights are integers and the tables are built in exact integer arithmetic, so every outcome is chosen with precisely
+ * its share of the total weight.
+ * <br>
+ * The outcomes are fixed, but their weights can be updated in place (e.g. for chances that change every turn):
+ * the tables are then rebuilt before the next sample, still without allocation. Sampling a distribution whose weights
+ * are not updated is thread-safe.
+ *
+ * @author Artem Novak
+ */
+public class WeightedDistribution<T> {
+    private final List<T> outcomes;
+    private final int[] weights;
+    // Column i of the tables is chosen uniformly, then outcome i is taken if a uniform value below the total weight is below thresholds[i], and aliases[i] otherwise
+    private final long[] thresholds;
+    private final int[] aliases;
+    // Work lists of table construction, kept to rebuild the tables without allocation
+    private final long[] scaled;
+    private final int[] small, large;
+
+    private long totalWeight;
+    private boolean stale;
+
+    /**
+     * Creates a distribution over the keys of a map, in its iteration order.
+     *
+     * @param weightMap map of outcomes to their weights, where null and non-positive weights mean the outcome is never chosen
+     */
+    public WeightedDistribution(Map<T, Integer> weightMap) {
+        this(new ArrayList<>(weightMap.keySet()), weightMap.values().stream().mapToInt(x -> x == null ? 0 : Math.max(x, 0)).toArray());
+    }
+
+    /**
+     * Creates a distribution over a list of outcomes.
+     *
+     * @param outcomes outcomes
+     * @param weights weights of the outcomes, in the same order
+     * @throws IllegalArgumentException if the numbers of outcomes and weights differ or a weight is negative
+     */
+    public WeightedDistribution(List<T> outcomes, int... weights) throws IllegalArgumentException {
+        if (outcomes.size() != weights.length) throw new IllegalArgumentException(outcomes.size() + " outcomes with " + weights.length + " weights");
+        this.outcomes = Collections.unmodifiableList(new ArrayList<>(outcomes));
+        this.weights = new int[weights.length];
+        this.thresholds = new long[weights.length];
+        this.aliases = new int[weights.length];
+        this.scaled = new long[weights.length];
+        this.small = new int[weights.length];
+        this.large = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) setWeight(i, weights[i]);
+        build();
+    }
+
+    /**
+     * Chooses a random outcome.
+     *
+     * @param random random generator
+     * @return outcome chosen based on weights, or null if all weights are zero
+     */
+    public T sample(Random random) {
+        int index = sampleIndex(random);
+        return index < 0 ? null : outcomes.get(index);
+    }
+
+    /**
+     * Chooses the index of a random outcome.
+     *
+     * @param random random generator
+     * @return index of the outcome chosen based on weights, or -1 if all weights are zero
+     */
+    public int sampleIndex(Random random) {
+        if (stale) build();
+        if (totalWeight == 0) return -1;
+        long value = random.nextLong(weights.length * totalWeight);
+        int column = (int)(value / totalWeight);
+        return value % totalWeight < thresholds[column] ? column : aliases[column];
+    }
+
+    /**
+     * Changes the weight of an outcome. Tables are rebuilt lazily, so several weights can be changed at the cost of one rebuild.
+     *
+     * @param index index of the outcome
+     * @param weight new weight
+     * @throws IllegalArgumentException if the weight is negative
+     */
+    public void setWeight(int index, int weight) throws IllegalArgumentException {
+        if (weight < 0) throw new IllegalArgumentException("Negative weight " + weight);
+        if (weights[index] == weight) return;
+        totalWeight += weight - weights[index];
+        weights[index] = weight;
+        stale = true;
+    }
+
+    public int getWeight(int index) {
+        return weights[index];
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public T get(int index) {
+        return outcomes.get(index);
+    }
+
+    /**
+     * @return index of the outcome, or -1 if it is not in the distribution
+     */
+    public int indexOf(T outcome) {
+        return outcomes.indexOf(outcome);
+    }
+
+    public int size() {
+        return outcomes.size();
+    }
+
+    /**
+     * Builds the alias tables. Every weight is scaled by the number of outcomes, so that an average column holds exactly
+     * the total weight, and columns lighter than that are filled up by heavier ones.
+     */
+    private void build() {
+        int n = weights.length;
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (long)weights[i] * n;
+            if (scaled[i] < totalWeight) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount], more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] -= totalWeight - scaled[less];
+            if (scaled[more] < totalWeight) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+        // The remaining columns hold exactly the total weight (arithmetic is exact, so no light columns can remain)
+        while (largeCount > 0) {
+            int full = large[--largeCount];
+            thresholds[full] = totalWeight;
+            aliases[full] = full;
+        }
+        while (smallCount > 0) {
+            int full = small[--smallCount];
+            thresholds[full] = totalWeight;
+            aliases[full] = full;
+        }
+        stale = false;
+    }
+}
@@ -1,32 +1,99 @@
 package game.utils;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Class that implements random weighted choice from a collection of objects ()
+ * Random generator backed by SplitMix64 that also implements random weighted choice from a collection of objects.
+ * <br>
+ * The sequence is generated by SplitMix64 (the algorithm of {@link java.util.SplittableRandom}) instead of the synchronized
+ * linear congruential generator of {@link Random}: it is faster, has no shared atomic state and can be split into
+ * independent generators (see {@link WeightedRandom#split()}). In return, an instance must be confined to a single thread.
  *
  * @author Artem Novak
  */
 public class WeightedRandom extends Random {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Not initialized in the declaration, because Random's constructor sets it through setSeed before initializers run
+    private long state;
+
+    public WeightedRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a generator whose sequence is fully determined by the seed.
+     *
+     * @param seed initial seed
+     */
+    public WeightedRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int)(nextLong() >>> (Long.SIZE - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return (int)(nextLong() >>> Integer.SIZE);
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Creates a new generator seeded from this one. Sequences of the two generators are statistically independent,
+     * and the new one is determined by the state of this one, so splitting keeps a seeded program reproducible.
+     *
+     * @return new generator
+     */
+    public WeightedRandom split() {
+        return new WeightedRandom(mix(nextLong()));
+    }
+
     /**
      * Chooses a random key from the map, probability is based on map values (weights).
+     * Suits one-off choices; repeated choices from the same weights are cheaper with a {@link WeightedDistribution}.
      *
-     * @param weightMap map of objects to their generation weights
+     * @param weightMap map of objects to their generation weights (null and non-positive weights mean the object is never chosen)
      * @return object chosen randomly based on weights, or null if no such object could be chosen
      */
     public <T> T weightedChoice (Map<T, Integer> weightMap) {
-        for (T key : new HashSet<>(weightMap.keySet())) {
-            if (weightMap.get(key) == null || weightMap.get(key) <= 0) weightMap.remove(key);
+        long total = 0;
+        for (Integer weight : weightMap.values()) {
+            if (weight != null && weight > 0) total += weight;
         }
-        if (weightMap.isEmpty()) return null;
-        int num = nextInt(0, weightMap.values().stream().mapToInt(x -> x).sum());
-        int upperBound = 0;
-        for (T key : weightMap.keySet()) {
-            upperBound += weightMap.get(key);
-            if (num < upperBound) return key;
+        if (total == 0) return null;
+        long num = nextLong(total);
+        for (Map.Entry<T, Integer> entry : weightMap.entrySet()) {
+            Integer weight = entry.getValue();
+            if (weight == null || weight <= 0) continue;
+            num -= weight;
+            if (num < 0) return entry.getKey();
         }
         return null;
     }
+
+    /**
+     * SplitMix64 finalizer (variant 13 of Stafford's mixer), which turns consecutive values into uniformly distributed ones.
+     *
+     * @param z value to mix
+     * @return mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
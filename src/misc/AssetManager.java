@@ -0,0 +1,252 @@
+package misc;
+
+import game.utils.GamePanelGraphics;
+import models.App;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.swing.*;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Class with static methods for loading images, fonts and sound effects.
+ * <br>
+ * {@link AssetManager#preload()} scans the resource trees of images, fonts and sound effects and decodes them in parallel
+ * on a small pool of background threads, fonts and main menu images first. The getters wait only for the asset they need,
+ * and load it on the calling thread if it is not being preloaded.
+ * <br>
+ * Decoded images are converted to the format of the screen and held by soft references, so they are reused across menu transitions but may be reclaimed
+ * (and later decoded again) when memory runs low. Fonts and sound effects are small and are held for the whole run.
+ *
+ * @author Artem Novak
+ */
+public class AssetManager {
+    public static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // Resource trees that are preloaded, in the order of loading
+    private static final String FONTS = "/fonts", SFX = "/audio/sfx", IMAGES = "/images";
+    // Image folders needed by the first frame of the main menu, which are loaded before the others
+    private static final List<String> PRIORITY_IMAGES = List.of("/images/mainMenu/", "/images/logo");
+
+    /**
+     * Decoded sound effect.
+     *
+     * @param format audio format of the data
+     * @param data audio data
+     */
+    public record Sound(AudioFormat format, byte[] data) {}
+
+    private static final Map<String, CompletableFuture<BufferedImage>> pendingImages = new ConcurrentHashMap<>();
+    private static final Map<String, SoftReference<BufferedImage>> images = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Font>> fonts = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Sound>> sounds = new ConcurrentHashMap<>();
+    private static ExecutorService executor;
+
+    /**
+     * Starts preloading all assets in the background. Does nothing if preloading has already been started.
+     */
+    public static synchronized void preload() {
+        if (executor != null) return;
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> all = new ArrayList<>();
+        for (String path : listResources(FONTS)) all.add(fonts.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> decodeFont(key), executor)));
+        for (String path : listResources(SFX)) all.add(sounds.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> decodeSound(key), executor)));
+        List<String> imagePaths = listResources(IMAGES);
+        imagePaths.removeIf(path -> !path.endsWith(".png"));
+        imagePaths.sort(Comparator.comparing((String path) -> PRIORITY_IMAGES.stream().noneMatch(path::startsWith)));
+        for (String path : imagePaths) {
+            CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+            pendingImages.put(path, future);
+            all.add(future);
+            executor.execute(() -> {
+                try {
+                    BufferedImage image = decodeImage(path);
+                    images.put(path, new SoftReference<>(image));
+                    future.complete(image);
+                }
+                catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+                finally {
+                    pendingImages.remove(path);
+                }
+            });
+        }
+        CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).whenComplete((result, e) ->
+                logTiming("Preloaded " + all.size() + " assets on " + THREADS + " threads", start));
+    }
+
+    /**
+     * Gets an image, waiting for it if it is being preloaded.
+     *
+     * @param path resource path of the image
+     * @return decoded image, shared with other callers (must not be modified)
+     * @throws IOException if fails to load the image
+     */
+    public static BufferedImage getImage(String path) throws IOException {
+        SoftReference<BufferedImage> reference = images.get(path);
+        BufferedImage image = reference == null ? null : reference.get();
+        if (image != null) return image;
+        CompletableFuture<BufferedImage> pending = pendingImages.get(path);
+        if (pending != null) {
+            try {
+                return pending.join();
+            }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof IOException ioException) throw ioException;
+                throw e;
+            }
+        }
+        image = decodeImage(path);
+        images.put(path, new SoftReference<>(image));
+        return image;
+    }
+
+    /**
+     * Gets an image as an icon.
+     *
+     * @param path resource path of the image
+     * @return icon of the decoded image
+     * @throws IOException if fails to load the image
+     */
+    public static ImageIcon getIcon(String path) throws IOException {
+        return new ImageIcon(getImage(path));
+    }
+
+    /**
+     * Gets a font, waiting for it if it is being preloaded.
+     *
+     * @param path resource path of the font
+     * @return font of size 1
+     * @throws IOException if fails to load the font
+     */
+    public static Font getFont(String path) throws IOException {
+        try {
+            return fonts.computeIfAbsent(path, key -> CompletableFuture.completedFuture(decodeFont(key))).join();
+        }
+        catch (CompletionException e) {
+            throw new IOException("Failed to load font from " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Gets a sound effect, waiting for it if it is being preloaded.
+     *
+     * @param path resource path of the sound
+     * @return decoded sound
+     * @throws IOException if fails to load the sound
+     */
+    public static Sound getSound(String path) throws IOException {
+        try {
+            return sounds.computeIfAbsent(path, key -> CompletableFuture.completedFuture(decodeSound(key))).join();
+        }
+        catch (CompletionException e) {
+            throw new IOException("Failed to load sound from " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Reports how long something took.
+     *
+     * @param label what was measured
+     * @param start {@link System#nanoTime()} at the start
+     */
+    public static void logTiming(String label, long start) {
+        System.out.printf("%s: %.1f ms%n", label, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Reports how long something took since the start of the process (including JVM startup).
+     *
+     * @param label what was measured
+     */
+    public static void logUptime(String label) {
+        System.out.printf("%s: %d ms since process start%n", label, ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private static BufferedImage decodeImage(String path) throws IOException {
+        URL url = App.class.getResource(path);
+        if (url == null) throw new IOException("Image " + path + " does not exist");
+        BufferedImage image = ImageIO.read(url);
+        if (image == null) throw new IOException("Failed to load image from " + path);
+        return GamePanelGraphics.toCompatibleImage(image);
+    }
+
+    private static Font decodeFont(String path) {
+        try (InputStream stream = App.class.getResourceAsStream(path)) {
+            if (stream == null) throw new IOException("Font " + path + " does not exist");
+            return Font.createFont(Font.TRUETYPE_FONT, stream);
+        }
+        catch (IOException | FontFormatException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static Sound decodeSound(String path) {
+        try {
+            URL url = App.class.getResource(path);
+            if (url == null) throw new IOException("Sound " + path + " does not exist");
+            try (AudioInputStream stream = AudioSystem.getAudioInputStream(url)) {
+                return new Sound(stream.getFormat(), stream.readAllBytes());
+            }
+        }
+        catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Lists all files under a resource folder, whether resources are a directory or a jar.
+     *
+     * @param root resource path of the folder
+     * @return resource paths of the files, or an empty list if the folder cannot be listed
+     */
+    private static List<String> listResources(String root) {
+        List<String> paths = new ArrayList<>();
+        URL url = App.class.getResource(root);
+        if (url == null) return paths;
+        try {
+            URI uri = url.toURI();
+            if (uri.getScheme().equals("jar")) {
+                FileSystem fileSystem;
+                try {
+                    fileSystem = FileSystems.newFileSystem(uri, Map.of());
+                }
+                catch (FileSystemAlreadyExistsException e) {
+                    fileSystem = FileSystems.getFileSystem(uri);
+                }
+                collect(fileSystem.getPath(root), root, paths);
+            }
+            else collect(Paths.get(uri), root, paths);
+        }
+        catch (IOException | URISyntaxException e) {
+            System.out.println("Assets: " + e.getMessage());
+        }
+        return paths;
+    }
+
+    private static void collect(Path folder, String root, List<String> paths) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.filter(Files::isRegularFile).forEach(file -> paths.add(root + "/" + folder.relativize(file).toString().replace('\\', '/')));
+        }
+    }
+}
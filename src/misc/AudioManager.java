@@ -73,7 +73,7 @@ public class AudioManager {
     /**
      * Starts playing a sound effect identified by NameID.
      * Corresponding file should be located at "resources/audio/sfx/<i>NameID</i>.wav")
-     * Effect is only played a single time.
+     * Effect is only played a single time. Its data is taken from {@link AssetManager}, which decodes effects at startup.
      *
      * @param nameID NameID of the effect
      */
@@ -88,10 +88,9 @@ public class AudioManager {
             }
             else {
                 Clip clip = AudioSystem.getClip();
-                AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(App.class.getResource("/audio/sfx/" + nameID + ".wav"));
-                clip.open(audioInputStream);
+                AssetManager.Sound sound = AssetManager.getSound("/audio/sfx/" + nameID + ".wav");
+                clip.open(sound.format(), sound.data(), 0, sound.data().length);
                 setClipVolume(clip, sfxVolume);
-                audioInputStream.close();
                 clip.start();
                 clip.addLineListener(event -> {
                     if (event.getType() == LineEvent.Type.STOP) {
@@ -5,7 +5,10 @@ import data.DataManager;
 import data.LevelIdentifier;
 import data.PlayerData;
 import UI.LevelMenu;
+import game.replay.Playback;
+import misc.AssetManager;
 import misc.AudioManager;
+import java.awt.EventQueue;
 import java.awt.Font;
 import java.io.File;
 /**
@@ -22,58 +25,104 @@ public class App {
     public static Font exo2;
 
     public static void main(String[] args) {
+        long start = System.nanoTime();
+        // Assets are decoded in the background, menus only wait for the ones they show
+        AssetManager.preload();
         AudioManager.init();
         try {
-            lexenDeca = Font.createFont(0, App.class.getResourceAsStream("/fonts/LexendDeca-Regular.ttf"));
-            rubik = Font.createFont(0, App.class.getResourceAsStream("/fonts/Rubik-VariableFont_wght.ttf"));
-            exo2 = Font.createFont(0, App.class.getResourceAsStream("/fonts/Exo2-Bold.ttf"));
+            lexenDeca = AssetManager.getFont("/fonts/LexendDeca-Regular.ttf");
+            rubik = AssetManager.getFont("/fonts/Rubik-VariableFont_wght.ttf");
+            exo2 = AssetManager.getFont("/fonts/Exo2-Bold.ttf");
         } catch (Exception e) {System.out.println("Fonts: " + e.getMessage());}
 
-        mainMenu  = new MainMenu();
-        AudioManager.setBG("menu");
-        AudioManager.playBG();
+        Playback playback = null;
+        try {
+            playback = Playback.fromArguments(args);
+        } catch (Exception e) {System.out.println("Replay: " + e.getMessage());}
+
+        if (playback != null) loadReplay(playback);
+        else {
+            mainMenu  = new MainMenu();
+            AudioManager.setBG("menu");
+            AudioManager.playBG();
+        }
+        EventQueue.invokeLater(() -> {
+            AssetManager.logTiming("Main menu first frame", start);
+            AssetManager.logUptime("Main menu first frame");
+        });
+    }
+
+    /**
+     * Reports the time of a transition between menus, once the events queued by showing the new menu (including its first paint) are processed.
+     * @param label name of the transition
+     * @param start {@link System#nanoTime()} at the start of the transition
+     */
+    private static void logTransition(String label, long start) {
+        EventQueue.invokeLater(() -> AssetManager.logTiming(label, start));
     }
 
     public static void loadMainMenuFromLevels() {
+        long start = System.nanoTime();
         mainMenu = new MainMenu();
         mainMenu.setLocation(levels.getLocation());
         levels.dispose();
+        logTransition("loadMainMenuFromLevels", start);
     }
 
     public static void loadLevelsMenuFromMain(){
+        long start = System.nanoTime();
         levels = new LevelsMenu("app");
         levels.setLocation(mainMenu.getLocation());
         mainMenu.dispose();
+        logTransition("loadLevelsMenuFromMain", start);
     }
 
     public static void loadLevelFromLevels(LevelIdentifier levelIdentifier){
+        long start = System.nanoTime();
         level = new LevelMenu(levelIdentifier);
         level.setLocation(levels.getLocation());
         levels.dispose();
+        logTransition("loadLevelFromLevels", start);
     }
 
     public static void loadLevelFromLevel(LevelIdentifier levelIdentifier){
+        long start = System.nanoTime();
         var position = level.getLocation();
         LevelMenu level2 = new LevelMenu(levelIdentifier);
         level2.setLocation(position);
         level.dispose();
         level = level2;        
+        logTransition("loadLevelFromLevel", start);
+    }
+
+    /**
+     * Opens the level window watching a replay, instead of the main menu.
+     * @param playback replay and its settings
+     */
+    public static void loadReplay(Playback playback){
+        long start = System.nanoTime();
+        level = new LevelMenu(playback.replay().getLevel(), playback);
+        logTransition("loadReplay", start);
     }
 
     public static void loadLevelsMenuFromLevels(String hardness){
+        long start = System.nanoTime();
         var position = levels.getLocation();
         LevelsMenu levels2 = new LevelsMenu(hardness);
         levels2.setLocation(position);
         levels.dispose();
         levels = levels2;  
+        logTransition("loadLevelsMenuFromLevels", start);
     }
 
     public static void loadLevelsFromLevel(){
+        long start = System.nanoTime();
         levels = new LevelsMenu("app");
         levels.setLocation(level.getLocation());
         level.dispose();
         AudioManager.setBG("menu");
         AudioManager.playBG();
+        logTransition("loadLevelsFromLevel", start);
     }
 
     public static LevelsMenu getLevelsMenu(){